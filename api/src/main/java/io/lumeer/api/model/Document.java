@@ -35,6 +35,8 @@ import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class Document implements WithId {
 
+   public static final String COLLECTION_ID = "collectionId";
+
    public static final String META_PARENT_ID = "parentId";
    public static final String META_TEMPLATE_ID = "templateId"; // for importing and template creation
    public static final String META_ORIGINAL_DOCUMENT_ID = "originalDocumentId"; // for duplicating documents
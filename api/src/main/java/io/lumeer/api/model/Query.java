@@ -25,6 +25,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -35,16 +36,23 @@ public class Query {
    private final Set<String> fulltexts;
    private final Integer page;
    private final Integer pageSize;
+   private final Map<String, Set<String>> attributeIds;
 
    @JsonCreator
    public Query(@JsonProperty("stems") final List<QueryStem> stems,
          @JsonProperty("fulltexts") final Set<String> fulltexts,
          @JsonProperty("page") final Integer page,
-         @JsonProperty("pageSize") final Integer pageSize) {
+         @JsonProperty("pageSize") final Integer pageSize,
+         @JsonProperty("attributeIds") final Map<String, Set<String>> attributeIds) {
       this.stems = stems != null ? stems : Collections.emptyList();
       this.fulltexts = fulltexts != null ? fulltexts : Collections.emptySet();
       this.page = page;
       this.pageSize = pageSize;
+      this.attributeIds = attributeIds;
+   }
+
+   public Query(final List<QueryStem> stems, final Set<String> fulltexts, final Integer page, final Integer pageSize) {
+      this(stems, fulltexts, page, pageSize, null);
    }
 
    public Query(List<QueryStem> stems) {
@@ -85,6 +93,23 @@ public class Query {
       return pageSize;
    }
 
+   /**
+    * Returns the attributes the caller is interested in by the id of their collection or link type, data of other
+    * attributes are not read. Null means all attributes of all resources.
+    */
+   public Map<String, Set<String>> getAttributeIds() {
+      return attributeIds;
+   }
+
+   /**
+    * Returns the attributes of the collection or link type the caller is interested in. Null means all attributes,
+    * an empty set means no attributes at all.
+    */
+   @JsonIgnore
+   public Set<String> getAttributeIds(final String resourceId) {
+      return attributeIds != null ? attributeIds.get(resourceId) : null;
+   }
+
    @JsonIgnore
    public Pagination getPagination() {
       return new Pagination(page, pageSize);
@@ -141,12 +166,13 @@ public class Query {
       return Objects.equals(stems, query.stems) &&
             Objects.equals(fulltexts, query.fulltexts) &&
             Objects.equals(page, query.page) &&
-            Objects.equals(pageSize, query.pageSize);
+            Objects.equals(pageSize, query.pageSize) &&
+            Objects.equals(attributeIds, query.attributeIds);
    }
 
    @Override
    public int hashCode() {
-      return Objects.hash(stems, fulltexts, page, pageSize);
+      return Objects.hash(stems, fulltexts, page, pageSize, attributeIds);
    }
 
    @Override
@@ -156,6 +182,7 @@ public class Query {
             ", fulltexts=" + fulltexts +
             ", page=" + page +
             ", pageSize=" + pageSize +
+            ", attributeIds=" + attributeIds +
             '}';
    }
 }
@@ -0,0 +1,55 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.api.model;
+
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * One page of a cursor based search. The next page is requested by passing {@link #getNext()} back to the server,
+ * it is null when there are no more results.
+ */
+@Immutable
+public class ResultPage<T> {
+
+   private final List<T> data;
+   private final String next;
+
+   public ResultPage(final List<T> data, final String next) {
+      this.data = data;
+      this.next = next;
+   }
+
+   public List<T> getData() {
+      return Collections.unmodifiableList(data);
+   }
+
+   public String getNext() {
+      return next;
+   }
+
+   @Override
+   public String toString() {
+      return "ResultPage{" +
+            "data=" + data.size() +
+            ", next='" + next + '\'' +
+            '}';
+   }
+}
@@ -28,7 +28,9 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonView;
 
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -118,6 +120,20 @@ public class User {
       this.wizardDismissed = wizardDismissed;
    }
 
+   public User copy() {
+      final User user = new User(id, name, email, null, wishes != null ? new ArrayList<>(wishes) : null, agreement, agreementDate, newsletter, wizardDismissed);
+
+      if (groups != null) {
+         user.groups = new HashMap<>();
+         groups.forEach((organizationId, groupIds) -> user.groups.put(organizationId, groupIds != null ? new HashSet<>(groupIds) : null));
+      }
+      user.authIds = authIds != null ? new HashSet<>(authIds) : null;
+      user.defaultWorkspace = defaultWorkspace;
+      user.lastLoggedIn = lastLoggedIn;
+
+      return user;
+   }
+
    public String getId() {
       return id;
    }
@@ -124,7 +124,16 @@ public interface Cache<T> {
    boolean tryLock(final String key);
 
    /**
-    * Clears the cache including all locks.
+    * Clears the cache. Locks held on the entries are not affected.
     */
    void clear();
+
+   /**
+    * Gets hit, miss and eviction counters of the cache.
+    *
+    * @return Current statistics, empty when the implementation does not record them.
+    */
+   default CacheStatistics getStatistics() {
+      return CacheStatistics.EMPTY;
+   }
 }
@@ -0,0 +1,119 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.engine.api.cache;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * Describes bounds and expiration of a cache obtained from {@link CacheFactory#getCache(CacheConfiguration)}.
+ */
+public class CacheConfiguration {
+
+   public static final long UNBOUNDED = Long.MAX_VALUE;
+
+   private long maximumWeight = UNBOUNDED;
+   private ToIntFunction<Object> weigher = value -> 1;
+   private long expireAfterWrite = 0;
+   private long expireAfterAccess = 0;
+
+   /**
+    * Limits the number of entries in the cache.
+    *
+    * @param maximumSize
+    *       Maximum number of entries.
+    * @return This configuration.
+    */
+   public CacheConfiguration maximumSize(final long maximumSize) {
+      this.maximumWeight = maximumSize;
+      this.weigher = value -> 1;
+      return this;
+   }
+
+   /**
+    * Limits the total weight of entries in the cache.
+    *
+    * @param maximumWeight
+    *       Maximum total weight of entries.
+    * @param weigher
+    *       Computes a non-negative weight of a value.
+    * @return This configuration.
+    */
+   public CacheConfiguration maximumWeight(final long maximumWeight, final ToIntFunction<Object> weigher) {
+      this.maximumWeight = maximumWeight;
+      this.weigher = weigher;
+      return this;
+   }
+
+   /**
+    * Expires entries after the given time since they were stored.
+    *
+    * @param expireAfterWrite
+    *       Time in milliseconds, non-positive value means no expiration.
+    * @return This configuration.
+    */
+   public CacheConfiguration expireAfterWrite(final long expireAfterWrite) {
+      this.expireAfterWrite = expireAfterWrite;
+      return this;
+   }
+
+   /**
+    * Expires entries after the given time since they were last read or stored.
+    *
+    * @param expireAfterAccess
+    *       Time in milliseconds, non-positive value means no expiration.
+    * @return This configuration.
+    */
+   public CacheConfiguration expireAfterAccess(final long expireAfterAccess) {
+      this.expireAfterAccess = expireAfterAccess;
+      return this;
+   }
+
+   public long getMaximumWeight() {
+      return maximumWeight;
+   }
+
+   public ToIntFunction<Object> getWeigher() {
+      return weigher;
+   }
+
+   public long getExpireAfterWrite() {
+      return expireAfterWrite;
+   }
+
+   public long getExpireAfterAccess() {
+      return expireAfterAccess;
+   }
+
+   public boolean isBounded() {
+      return maximumWeight != UNBOUNDED;
+   }
+
+   public boolean isExpiring() {
+      return expireAfterWrite > 0 || expireAfterAccess > 0;
+   }
+
+   @Override
+   public String toString() {
+      return "CacheConfiguration{" +
+            "maximumWeight=" + maximumWeight +
+            ", expireAfterWrite=" + expireAfterWrite +
+            ", expireAfterAccess=" + expireAfterAccess +
+            '}';
+   }
+}
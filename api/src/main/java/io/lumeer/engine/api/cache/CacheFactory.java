@@ -33,4 +33,15 @@ public interface CacheFactory {
     * @return A fresh cache of given type.
     */
    <T> Cache<T> getCache();
+
+   /**
+    * Obtains a fresh cache of given type honoring the given bounds and expiration.
+    *
+    * @param configuration
+    *       Bounds and expiration of the cache.
+    * @param <T>
+    *       Type of values stored in the cache.
+    * @return A fresh cache of given type.
+    */
+   <T> Cache<T> getCache(final CacheConfiguration configuration);
 }
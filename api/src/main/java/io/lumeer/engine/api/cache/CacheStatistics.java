@@ -0,0 +1,67 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.engine.api.cache;
+
+/**
+ * Snapshot of cache usage counters.
+ */
+public class CacheStatistics {
+
+   public static final CacheStatistics EMPTY = new CacheStatistics(0, 0, 0);
+
+   private final long hitCount;
+   private final long missCount;
+   private final long evictionCount;
+
+   public CacheStatistics(final long hitCount, final long missCount, final long evictionCount) {
+      this.hitCount = hitCount;
+      this.missCount = missCount;
+      this.evictionCount = evictionCount;
+   }
+
+   public long getHitCount() {
+      return hitCount;
+   }
+
+   public long getMissCount() {
+      return missCount;
+   }
+
+   public long getEvictionCount() {
+      return evictionCount;
+   }
+
+   public long getRequestCount() {
+      return hitCount + missCount;
+   }
+
+   public double getHitRate() {
+      final long requests = getRequestCount();
+      return requests == 0 ? 1.0 : (double) hitCount / requests;
+   }
+
+   @Override
+   public String toString() {
+      return "CacheStatistics{" +
+            "hitCount=" + hitCount +
+            ", missCount=" + missCount +
+            ", evictionCount=" + evictionCount +
+            '}';
+   }
+}
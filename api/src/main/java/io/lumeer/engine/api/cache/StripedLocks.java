@@ -0,0 +1,82 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.engine.api.cache;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed table of reentrant locks shared by all keys of a {@link Cache}. Keys are hashed to one of the stripes,
+ * so the memory used does not grow with the number of keys ever locked. Distinct keys can share a stripe and
+ * then wait for each other, a larger table lowers the chance of such collisions.
+ */
+public class StripedLocks {
+
+   public static final int DEFAULT_STRIPES = 64;
+
+   private final Lock[] locks;
+   private final int mask;
+
+   public StripedLocks() {
+      this(DEFAULT_STRIPES);
+   }
+
+   /**
+    * @param stripes
+    *       Minimal number of locks, rounded up to a power of two.
+    */
+   public StripedLocks(final int stripes) {
+      final int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+
+      locks = new Lock[size];
+      for (int i = 0; i < size; i++) {
+         locks[i] = new ReentrantLock();
+      }
+      mask = size - 1;
+   }
+
+   /**
+    * Gets the lock guarding the given key.
+    *
+    * @param key
+    *       Entry key.
+    * @return The lock shared by all keys of the same stripe.
+    */
+   public Lock get(final String key) {
+      final int h = key.hashCode();
+
+      return locks[(h ^ (h >>> 16)) & mask];
+   }
+
+   public void lock(final String key) {
+      get(key).lock();
+   }
+
+   public void unlock(final String key) {
+      get(key).unlock();
+   }
+
+   public boolean tryLock(final String key) {
+      return get(key).tryLock();
+   }
+
+   public int getStripes() {
+      return locks.length;
+   }
+}
@@ -0,0 +1,342 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.cache.bounded;
+
+import io.lumeer.engine.api.cache.Cache;
+import io.lumeer.engine.api.cache.CacheConfiguration;
+import io.lumeer.engine.api.cache.CacheStatistics;
+import io.lumeer.engine.api.cache.StripedLocks;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Cache bounded by the total weight of its entries using segmented LRU eviction. New entries are stored in a probation
+ * segment and are promoted to a protected segment on their first hit, so that a burst of one-time entries
+ * does not flush the frequently used ones. Entries are spread over independently locked stripes, each of them holding
+ * its share of the maximum weight. Expired entries are dropped lazily on access and from the eldest probation entries on write.
+ *
+ * @param <T> Type of the cached values.
+ */
+public class BoundedCache<T> implements Cache<T> {
+
+   private static final int MAXIMUM_STRIPES = 16;
+   private static final int MINIMUM_STRIPE_WEIGHT = 64;
+   private static final int PROTECTED_PERCENTAGE = 80;
+   private static final int EXPIRATION_PROBES = 4;
+
+   private final Stripe[] stripes;
+   private final ToIntFunction<Object> weigher;
+   private final long expireAfterWrite;
+   private final long expireAfterAccess;
+   private final LongSupplier ticker;
+
+   private final LongAdder hitCount = new LongAdder();
+   private final LongAdder missCount = new LongAdder();
+   private final LongAdder evictionCount = new LongAdder();
+
+   private final StripedLocks locks = new StripedLocks();
+
+   public BoundedCache(final CacheConfiguration configuration) {
+      this(configuration, System::nanoTime);
+   }
+
+   @SuppressWarnings("unchecked")
+   BoundedCache(final CacheConfiguration configuration, final LongSupplier ticker) {
+      this.weigher = configuration.getWeigher();
+      this.expireAfterWrite = TimeUnit.MILLISECONDS.toNanos(Math.max(0, configuration.getExpireAfterWrite()));
+      this.expireAfterAccess = TimeUnit.MILLISECONDS.toNanos(Math.max(0, configuration.getExpireAfterAccess()));
+      this.ticker = ticker;
+
+      final long maximumWeight = Math.max(0, configuration.getMaximumWeight());
+      final int stripeCount = configuration.isBounded() ? (int) Math.max(1, Math.min(MAXIMUM_STRIPES, maximumWeight / MINIMUM_STRIPE_WEIGHT)) : MAXIMUM_STRIPES;
+      final long stripeWeight = configuration.isBounded() ? (maximumWeight + stripeCount - 1) / stripeCount : CacheConfiguration.UNBOUNDED;
+
+      this.stripes = new BoundedCache.Stripe[stripeCount];
+      for (int i = 0; i < stripeCount; i++) {
+         stripes[i] = new Stripe(stripeWeight);
+      }
+   }
+
+   @Override
+   public T get(final String key) {
+      final T value = stripeFor(key).get(key, ticker.getAsLong());
+      (value != null ? hitCount : missCount).increment();
+
+      return value;
+   }
+
+   /**
+    * Gets a value from the cache or computes a new one. Unlike {@link ConcurrentHashMap#computeIfAbsent(Object, Function)}
+    * the function is not called under a lock, so it can be called concurrently for the same key. The first stored value wins.
+    */
+   @Override
+   public T computeIfAbsent(final String key, final Function<String, T> fce) {
+      final Stripe stripe = stripeFor(key);
+      final T value = stripe.get(key, ticker.getAsLong());
+
+      if (value != null) {
+         hitCount.increment();
+         return value;
+      }
+
+      missCount.increment();
+      final T newValue = fce.apply(key);
+      if (newValue == null) {
+         return null;
+      }
+
+      return stripe.putIfAbsent(key, newValue, weigh(newValue), ticker.getAsLong());
+   }
+
+   @Override
+   public void set(final String key, final T t) {
+      if (t == null) {
+         remove(key);
+      } else {
+         stripeFor(key).put(key, t, weigh(t), ticker.getAsLong());
+      }
+   }
+
+   @Override
+   public T remove(final String key) {
+      return stripeFor(key).remove(key);
+   }
+
+   @Override
+   public void lock(final String key) {
+      locks.lock(key);
+   }
+
+   @Override
+   public void unlock(final String key) {
+      locks.unlock(key);
+   }
+
+   @Override
+   public boolean tryLock(final String key) {
+      return locks.tryLock(key);
+   }
+
+   @Override
+   public void clear() {
+      for (final Stripe stripe : stripes) {
+         stripe.clear();
+      }
+   }
+
+   @Override
+   public CacheStatistics getStatistics() {
+      return new CacheStatistics(hitCount.sum(), missCount.sum(), evictionCount.sum());
+   }
+
+   /**
+    * Gets the number of stored entries including the expired ones not yet dropped.
+    *
+    * @return Number of entries.
+    */
+   public long size() {
+      long size = 0;
+      for (final Stripe stripe : stripes) {
+         size += stripe.size();
+      }
+
+      return size;
+   }
+
+   private Stripe stripeFor(final String key) {
+      final int h = key.hashCode();
+
+      return stripes[((h ^ (h >>> 16)) & 0x7fffffff) % stripes.length];
+   }
+
+   private int weigh(final T value) {
+      return Math.max(0, weigher.applyAsInt(value));
+   }
+
+   private boolean isExpired(final Node<T> node, final long now) {
+      return (expireAfterWrite > 0 && now - node.writeTime >= expireAfterWrite) || (expireAfterAccess > 0 && now - node.accessTime >= expireAfterAccess);
+   }
+
+   private static final class Node<T> {
+      private final T value;
+      private final int weight;
+      private final long writeTime;
+      private long accessTime;
+
+      private Node(final T value, final int weight, final long now) {
+         this.value = value;
+         this.weight = weight;
+         this.writeTime = now;
+         this.accessTime = now;
+      }
+   }
+
+   private final class Stripe {
+
+      // both segments are kept in access order, the eldest entry is the first one
+      private final LinkedHashMap<String, Node<T>> probation = new LinkedHashMap<>(16, 0.75f, true);
+      private final LinkedHashMap<String, Node<T>> protectedEntries = new LinkedHashMap<>(16, 0.75f, true);
+
+      private final long maximumWeight;
+      private final long maximumProtectedWeight;
+      private long weight = 0;
+      private long protectedWeight = 0;
+
+      private Stripe(final long maximumWeight) {
+         this.maximumWeight = maximumWeight;
+         this.maximumProtectedWeight = maximumWeight == CacheConfiguration.UNBOUNDED ? maximumWeight : maximumWeight * PROTECTED_PERCENTAGE / 100;
+      }
+
+      private synchronized T get(final String key, final long now) {
+         Node<T> node = probation.get(key);
+         if (node != null) {
+            if (isExpired(node, now)) {
+               removeNode(key);
+               return null;
+            }
+
+            node.accessTime = now;
+            promote(key, node);
+            return node.value;
+         }
+
+         node = protectedEntries.get(key);
+         if (node != null) {
+            if (isExpired(node, now)) {
+               removeNode(key);
+               return null;
+            }
+
+            node.accessTime = now;
+            return node.value;
+         }
+
+         return null;
+      }
+
+      private synchronized void put(final String key, final T value, final int weight, final long now) {
+         removeNode(key);
+         expireEldest(now);
+
+         if (weight > maximumWeight) {
+            evictionCount.increment();
+            return;
+         }
+
+         probation.put(key, new Node<>(value, weight, now));
+         this.weight += weight;
+         evict();
+      }
+
+      private synchronized T putIfAbsent(final String key, final T value, final int weight, final long now) {
+         final T existing = get(key, now);
+         if (existing != null) {
+            return existing;
+         }
+
+         put(key, value, weight, now);
+         return value;
+      }
+
+      private synchronized T remove(final String key) {
+         final Node<T> node = removeNode(key);
+
+         return node != null ? node.value : null;
+      }
+
+      private synchronized void clear() {
+         probation.clear();
+         protectedEntries.clear();
+         weight = 0;
+         protectedWeight = 0;
+      }
+
+      private synchronized int size() {
+         return probation.size() + protectedEntries.size();
+      }
+
+      private Node<T> removeNode(final String key) {
+         Node<T> node = probation.remove(key);
+         if (node == null) {
+            node = protectedEntries.remove(key);
+            if (node != null) {
+               protectedWeight -= node.weight;
+            }
+         }
+
+         if (node != null) {
+            weight -= node.weight;
+         }
+
+         return node;
+      }
+
+      private void promote(final String key, final Node<T> node) {
+         probation.remove(key);
+         protectedEntries.put(key, node);
+         protectedWeight += node.weight;
+
+         final Iterator<Map.Entry<String, Node<T>>> iterator = protectedEntries.entrySet().iterator();
+         while (protectedWeight > maximumProtectedWeight && protectedEntries.size() > 1) {
+            final Map.Entry<String, Node<T>> eldest = iterator.next();
+            iterator.remove();
+            protectedWeight -= eldest.getValue().weight;
+            probation.put(eldest.getKey(), eldest.getValue());
+         }
+      }
+
+      private void evict() {
+         while (weight > maximumWeight) {
+            final boolean fromProbation = !probation.isEmpty();
+            final Iterator<Map.Entry<String, Node<T>>> iterator = (fromProbation ? probation : protectedEntries).entrySet().iterator();
+            final Node<T> eldest = iterator.next().getValue();
+            iterator.remove();
+
+            weight -= eldest.weight;
+            if (!fromProbation) {
+               protectedWeight -= eldest.weight;
+            }
+            evictionCount.increment();
+         }
+      }
+
+      private void expireEldest(final long now) {
+         if (expireAfterWrite <= 0 && expireAfterAccess <= 0) {
+            return;
+         }
+
+         final Iterator<Map.Entry<String, Node<T>>> iterator = probation.entrySet().iterator();
+         for (int i = 0; i < EXPIRATION_PROBES && iterator.hasNext(); i++) {
+            final Node<T> node = iterator.next().getValue();
+            if (isExpired(node, now)) {
+               iterator.remove();
+               weight -= node.weight;
+            }
+         }
+      }
+   }
+}
@@ -0,0 +1,144 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.cache.bounded;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.lumeer.engine.api.cache.CacheConfiguration;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class BoundedCacheTest {
+
+   private final AtomicLong time = new AtomicLong();
+
+   private <T> BoundedCache<T> cache(final CacheConfiguration configuration) {
+      return new BoundedCache<>(configuration, time::get);
+   }
+
+   private void advance(final long millis) {
+      time.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+   }
+
+   @Test
+   public void evictsLeastRecentlyUsed() {
+      final BoundedCache<String> cache = cache(new CacheConfiguration().maximumSize(3));
+      cache.set("a", "A");
+      cache.set("b", "B");
+      cache.set("c", "C");
+      cache.set("d", "D");
+
+      assertThat(cache.size()).isEqualTo(3);
+      assertThat(cache.get("a")).isNull();
+      assertThat(cache.get("d")).isEqualTo("D");
+      assertThat(cache.getStatistics().getEvictionCount()).isEqualTo(1);
+   }
+
+   @Test
+   public void keepsFrequentlyUsedEntries() {
+      final BoundedCache<String> cache = cache(new CacheConfiguration().maximumSize(5));
+      cache.set("hot", "H");
+      assertThat(cache.get("hot")).isEqualTo("H");
+
+      for (int i = 0; i < 100; i++) {
+         cache.set("cold" + i, "C");
+      }
+
+      assertThat(cache.get("hot")).isEqualTo("H");
+      assertThat(cache.size()).isEqualTo(5);
+   }
+
+   @Test
+   public void evictsByWeight() {
+      final BoundedCache<String> cache = cache(new CacheConfiguration().maximumWeight(10, value -> ((String) value).length()));
+      cache.set("a", "12345");
+      cache.set("b", "1234");
+      cache.set("c", "123");
+      cache.set("d", "12345678901");
+
+      assertThat(cache.get("a")).isNull();
+      assertThat(cache.get("b")).isEqualTo("1234");
+      assertThat(cache.get("c")).isEqualTo("123");
+      assertThat(cache.get("d")).isNull();
+   }
+
+   @Test
+   public void expiresAfterWrite() {
+      final BoundedCache<String> cache = cache(new CacheConfiguration().expireAfterWrite(100));
+      cache.set("a", "A");
+
+      advance(50);
+      assertThat(cache.get("a")).isEqualTo("A");
+      advance(50);
+      assertThat(cache.get("a")).isNull();
+      assertThat(cache.size()).isEqualTo(0);
+   }
+
+   @Test
+   public void expiresAfterAccess() {
+      final BoundedCache<String> cache = cache(new CacheConfiguration().expireAfterAccess(100));
+      cache.set("a", "A");
+
+      advance(80);
+      assertThat(cache.get("a")).isEqualTo("A");
+      advance(80);
+      assertThat(cache.get("a")).isEqualTo("A");
+      advance(100);
+      assertThat(cache.get("a")).isNull();
+   }
+
+   @Test
+   public void computeIfAbsentRecordsStatistics() {
+      final BoundedCache<String> cache = cache(new CacheConfiguration().maximumSize(10));
+
+      assertThat(cache.computeIfAbsent("a", key -> "A")).isEqualTo("A");
+      assertThat(cache.computeIfAbsent("a", key -> "B")).isEqualTo("A");
+      assertThat(cache.computeIfAbsent("b", key -> null)).isNull();
+      assertThat(cache.get("b")).isNull();
+
+      assertThat(cache.getStatistics().getHitCount()).isEqualTo(1);
+      assertThat(cache.getStatistics().getMissCount()).isEqualTo(3);
+   }
+
+   @Test
+   public void unboundedCacheKeepsAllEntries() {
+      final BoundedCache<Integer> cache = cache(new CacheConfiguration());
+      for (int i = 0; i < 10_000; i++) {
+         cache.set(String.valueOf(i), i);
+      }
+
+      assertThat(cache.size()).isEqualTo(10_000);
+      cache.clear();
+      assertThat(cache.size()).isEqualTo(0);
+   }
+
+   @Test
+   public void locksSurviveClear() {
+      final BoundedCache<String> cache = cache(new CacheConfiguration());
+      cache.lock("a");
+      cache.clear();
+
+      assertThat(cache.tryLock("a")).isTrue();
+      cache.unlock("a");
+      cache.unlock("a");
+   }
+}
@@ -0,0 +1,98 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.cache.bounded;
+
+import io.lumeer.engine.api.cache.StripedLocks;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Compares lock throughput of a lock per key map with {@link StripedLocks} under a growing number of threads.
+ * It is not run as part of the test suite, start it manually using the main method. Optional arguments are
+ * the number of distinct keys and the duration of every run in milliseconds.
+ */
+public class LockContentionBenchmark {
+
+   public static void main(final String[] args) throws InterruptedException {
+      final int keys = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+      final long duration = args.length > 1 ? Long.parseLong(args[1]) : 2_000;
+
+      System.out.printf("%8s %16s %16s %16s %12s%n", "threads", "per key ops/s", "striped ops/s", "striped(1024)", "locks kept");
+      for (int threads = 1; threads <= 4 * Runtime.getRuntime().availableProcessors(); threads *= 2) {
+         final Map<String, Lock> perKey = new ConcurrentHashMap<>();
+         final long perKeyOps = run(threads, keys, duration, key -> perKey.computeIfAbsent(key, k -> new ReentrantLock()));
+
+         final StripedLocks striped = new StripedLocks();
+         final long stripedOps = run(threads, keys, duration, striped::get);
+
+         final StripedLocks wideStriped = new StripedLocks(1024);
+         final long wideStripedOps = run(threads, keys, duration, wideStriped::get);
+
+         System.out.printf("%8d %16d %16d %16d %12d%n", threads, perKeyOps, stripedOps, wideStripedOps, perKey.size());
+      }
+   }
+
+   private static long run(final int threads, final int keys, final long duration, final Function<String, Lock> locks) throws InterruptedException {
+      final String[] keyNames = new String[keys];
+      for (int i = 0; i < keys; i++) {
+         keyNames[i] = "key" + i;
+      }
+
+      final LongAdder operations = new LongAdder();
+      final CountDownLatch start = new CountDownLatch(1);
+      final CountDownLatch done = new CountDownLatch(threads);
+      final long end = System.nanoTime() + duration * 1_000_000;
+
+      for (int t = 0; t < threads; t++) {
+         new Thread(() -> {
+            try {
+               start.await();
+               final ThreadLocalRandom random = ThreadLocalRandom.current();
+               long count = 0;
+               while ((count & 1023) != 0 || System.nanoTime() < end) {
+                  final Lock lock = locks.apply(keyNames[random.nextInt(keys)]);
+                  lock.lock();
+                  try {
+                     count++;
+                  } finally {
+                     lock.unlock();
+                  }
+               }
+               operations.add(count);
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            } finally {
+               done.countDown();
+            }
+         }).start();
+      }
+
+      start.countDown();
+      done.await();
+
+      return operations.sum() * 1000 / duration;
+   }
+}
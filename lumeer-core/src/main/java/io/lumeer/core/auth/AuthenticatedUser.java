@@ -119,16 +119,17 @@ public class AuthenticatedUser implements Serializable {
       User userByAuthId = userDao.getUserByAuthId(authId);
       if (userByAuthId != null) {
          if (!userByAuthId.getEmail().equals(email)) {
+            userCache.removeUser(userByAuthId.getEmail());
             userByAuthId.setName(name);
             userByAuthId.setEmail(email);
             createDemoWorkspaceIfNeeded(userByAuthId);
-            userDao.updateUser(userByAuthId.getId(), userByAuthId);
+            updateUser(userByAuthId);
          } else {
             createDemoWorkspaceIfNeeded(userByAuthId);
             if (userByAuthId.getName() == null || !userByAuthId.getName().equals(name)) {
                userByAuthId.setName(name);
             }
-            userDao.updateUser(userByAuthId.getId(), userByAuthId);
+            updateUser(userByAuthId);
          }
          userLoginDao.userLoggedIn(userByAuthId.getId());
       } else {
@@ -141,18 +142,23 @@ public class AuthenticatedUser implements Serializable {
                userByEmail.setAuthIds(new HashSet<>(Collections.singletonList(authId)));
             }
             createDemoWorkspaceIfNeeded(userByEmail);
-            userDao.updateUser(userByEmail.getId(), userByEmail);
+            updateUser(userByEmail);
             userLoginDao.userLoggedIn(userByEmail.getId());
          } else {
             User createdUser = createNewUser(email, authId);
             createdUser.setName(name);
             createDemoWorkspaceIfNeeded(createdUser);
-            userDao.updateUser(createdUser.getId(), createdUser);
+            updateUser(createdUser);
             userLoginDao.userLoggedIn(createdUser.getId());
          }
       }
    }
 
+   private void updateUser(User user) {
+      User updatedUser = userDao.updateUser(user.getId(), user);
+      userCache.updateUser(updatedUser.getEmail(), updatedUser);
+   }
+
    private void checkLocalUser(String email) {
       User userByEmail = userDao.getUserByEmail(email);
       if (userByEmail == null) {
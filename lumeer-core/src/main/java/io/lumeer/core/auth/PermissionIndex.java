@@ -0,0 +1,114 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.core.auth;
+
+import io.lumeer.api.model.Collection;
+import io.lumeer.api.model.LinkType;
+import io.lumeer.api.model.Permission;
+import io.lumeer.api.model.Role;
+import io.lumeer.api.model.View;
+import io.lumeer.api.model.common.Resource;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Precomputed read permissions of all collections, views and link types in a project. Maps every user and group
+ * to the ids of resources they can read directly, so that the permissions do not need to be evaluated resource by resource.
+ * Manager roles in the organization or project and access gained through views are not covered by the index.
+ */
+public class PermissionIndex {
+
+   private final Map<String, Set<String>> collectionsByUser = new HashMap<>();
+   private final Map<String, Set<String>> collectionsByGroup = new HashMap<>();
+   private final Map<String, Set<String>> viewsByUser = new HashMap<>();
+   private final Map<String, Set<String>> viewsByGroup = new HashMap<>();
+   private final Map<String, List<String>> linkTypeCollections = new HashMap<>();
+
+   public PermissionIndex(final List<Collection> collections, final List<LinkType> linkTypes, final List<View> views) {
+      collections.forEach(collection -> indexResource(collection, collectionsByUser, collectionsByGroup));
+      views.forEach(view -> indexResource(view, viewsByUser, viewsByGroup));
+      linkTypes.forEach(linkType -> linkTypeCollections.put(linkType.getId(), linkType.getCollectionIds()));
+   }
+
+   private static void indexResource(final Resource resource, final Map<String, Set<String>> byUser, final Map<String, Set<String>> byGroup) {
+      if (resource.getPermissions() == null) {
+         return;
+      }
+
+      indexPermissions(resource.getId(), resource.getPermissions().getUserPermissions(), byUser);
+      indexPermissions(resource.getId(), resource.getPermissions().getGroupPermissions(), byGroup);
+   }
+
+   private static void indexPermissions(final String resourceId, final Set<Permission> permissions, final Map<String, Set<String>> index) {
+      if (permissions == null) {
+         return;
+      }
+
+      permissions.stream()
+                 .filter(permission -> permission.getId() != null && Role.withTransitionRoles(permission.getRoles()).contains(Role.READ))
+                 .forEach(permission -> index.computeIfAbsent(permission.getId(), id -> new HashSet<>()).add(resourceId));
+   }
+
+   public Set<String> getReadableCollectionIds(final String userId, final Set<String> groups) {
+      return getReadableIds(collectionsByUser, collectionsByGroup, userId, groups);
+   }
+
+   public Set<String> getReadableViewIds(final String userId, final Set<String> groups) {
+      return getReadableIds(viewsByUser, viewsByGroup, userId, groups);
+   }
+
+   /**
+    * Gets link types whose all collections can be read by the user.
+    *
+    * @param userId
+    *       Id of the user.
+    * @param groups
+    *       Groups the user is member of.
+    * @return Ids of readable link types.
+    */
+   public Set<String> getReadableLinkTypeIds(final String userId, final Set<String> groups) {
+      final Set<String> collectionIds = getReadableCollectionIds(userId, groups);
+      final Set<String> linkTypeIds = new HashSet<>();
+
+      linkTypeCollections.forEach((linkTypeId, linkTypeCollectionIds) -> {
+         if (linkTypeCollectionIds != null && collectionIds.containsAll(linkTypeCollectionIds)) {
+            linkTypeIds.add(linkTypeId);
+         }
+      });
+
+      return linkTypeIds;
+   }
+
+   private static Set<String> getReadableIds(final Map<String, Set<String>> byUser, final Map<String, Set<String>> byGroup, final String userId, final Set<String> groups) {
+      final Set<String> userIds = userId != null ? byUser.getOrDefault(userId, Collections.emptySet()) : Collections.emptySet();
+      if (groups == null || groups.isEmpty()) {
+         return Collections.unmodifiableSet(userIds);
+      }
+
+      final Set<String> ids = new HashSet<>(userIds);
+      groups.forEach(group -> ids.addAll(byGroup.getOrDefault(group, Collections.emptySet())));
+
+      return ids;
+   }
+}
@@ -32,6 +32,7 @@ import io.lumeer.api.model.View;
 import io.lumeer.api.model.common.Resource;
 import io.lumeer.api.util.ResourceUtils;
 import io.lumeer.core.WorkspaceKeeper;
+import io.lumeer.core.cache.PermissionIndexCache;
 import io.lumeer.core.exception.NoPermissionException;
 import io.lumeer.core.exception.ServiceLimitsExceededException;
 import io.lumeer.core.facade.CollectionFacade;
@@ -42,6 +43,13 @@ import io.lumeer.core.util.QueryUtils;
 import io.lumeer.core.util.Utils;
 import io.lumeer.engine.annotation.UserDataStorage;
 import io.lumeer.engine.api.data.DataStorage;
+import io.lumeer.engine.api.event.CreateLinkType;
+import io.lumeer.engine.api.event.CreateResource;
+import io.lumeer.engine.api.event.RemoveLinkType;
+import io.lumeer.engine.api.event.RemoveResource;
+import io.lumeer.engine.api.event.UpdateLinkType;
+import io.lumeer.engine.api.event.UpdateResource;
+import io.lumeer.storage.api.dao.CollectionDao;
 import io.lumeer.storage.api.dao.LinkTypeDao;
 import io.lumeer.storage.api.dao.UserDao;
 import io.lumeer.storage.api.dao.ViewDao;
@@ -52,10 +60,12 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.enterprise.context.RequestScoped;
+import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 
 @RequestScoped
@@ -79,6 +89,9 @@ public class PermissionsChecker {
    @Inject
    private CollectionFacade collectionFacade;
 
+   @Inject
+   private CollectionDao collectionDao;
+
    @Inject
    private LinkTypeDao linkTypeDao;
 
@@ -91,6 +104,9 @@ public class PermissionsChecker {
    @Inject
    private FreshdeskFacade freshdeskFacade;
 
+   @Inject
+   private PermissionIndexCache permissionIndexCache;
+
    private String viewId = null;
    private List<LinkType> linkTypes;
 
@@ -98,7 +114,8 @@ public class PermissionsChecker {
    @UserDataStorage
    private DataStorage dataStorage;
 
-   private Map<String, Boolean> hasRoleCache = new HashMap<>();
+   private Map<String, Set<Role>> actualRolesCache = new HashMap<>();
+   private PermissionIndex permissionIndex;
 
    public PermissionsChecker() {
    }
@@ -207,7 +224,7 @@ public class PermissionsChecker {
    }
 
    private boolean hasRoleInResource(Resource resource, Role role) {
-      return hasRoleCache.computeIfAbsent(resource.getId() + ":" + role.toString(), id -> getActualRoles(resource).contains(role));
+      return actualRolesCache.computeIfAbsent(resource.getId(), id -> getActualRoles(resource)).contains(role);
    }
 
    private boolean hasRoleInResource(Resource resource, Role role, String userId) {
@@ -221,11 +238,111 @@ public class PermissionsChecker {
     *       Resource being updated.
     */
    public void invalidateCache(final Resource resource) {
-      for (final Role role : Role.values()) {
-         hasRoleCache.remove(resource.getId() + ":" + role.toString());
+      actualRolesCache.remove(resource.getId());
+   }
+
+   /**
+    * Gets ids of all collections in the current project the current user can read directly or through a group.
+    * Does not take manager roles and access through views into account.
+    *
+    * @return Ids of readable collections.
+    */
+   public Set<String> getReadableCollectionIds() {
+      return getPermissionIndex().getReadableCollectionIds(authenticatedUser.getCurrentUserId(), authenticatedUserGroups.getCurrentUserGroups());
+   }
+
+   /**
+    * Gets ids of all link types in the current project whose collections can be read by the current user directly or through a group.
+    * Does not take manager roles and access through views into account.
+    *
+    * @return Ids of readable link types.
+    */
+   public Set<String> getReadableLinkTypeIds() {
+      return getPermissionIndex().getReadableLinkTypeIds(authenticatedUser.getCurrentUserId(), authenticatedUserGroups.getCurrentUserGroups());
+   }
+
+   /**
+    * Gets ids of all views in the current project the current user can read directly or through a group.
+    * Does not take manager roles into account.
+    *
+    * @return Ids of readable views.
+    */
+   public Set<String> getReadableViewIds() {
+      return getPermissionIndex().getReadableViewIds(authenticatedUser.getCurrentUserId(), authenticatedUserGroups.getCurrentUserGroups());
+   }
+
+   /**
+    * Checks whether the current user can read the collection through the active view.
+    *
+    * @param collection
+    *       collection resource
+    * @return true if and only if the active view grants read access to the collection.
+    */
+   public boolean hasReadRoleViaView(final Collection collection) {
+      return getResourceRoleViaView(collection, Role.READ, Role.READ, viewId);
+   }
+
+   private PermissionIndex getPermissionIndex() {
+      if (permissionIndex == null) {
+         permissionIndex = workspaceKeeper.getProject()
+                                          .map(project -> permissionIndexCache.getIndex(project.getId(), this::createPermissionIndex))
+                                          .orElseGet(this::createPermissionIndex);
+      }
+
+      return permissionIndex;
+   }
+
+   private PermissionIndex createPermissionIndex() {
+      return new PermissionIndex(collectionDao.getAllCollections(), getLinkTypes(), viewDao.getAllViews());
+   }
+
+   public void onCreateResource(@Observes final CreateResource createResource) {
+      invalidatePermissionIndex(createResource.getResource());
+   }
+
+   public void onUpdateResource(@Observes final UpdateResource updateResource) {
+      final Resource resource = updateResource.getResource();
+      final Resource originalResource = updateResource.getOriginalResource();
+
+      if (resource == null || originalResource == null || !Objects.equals(resource.getPermissions(), originalResource.getPermissions())) {
+         invalidatePermissionIndex(resource != null ? resource : originalResource);
+      }
+   }
+
+   public void onRemoveResource(@Observes final RemoveResource removeResource) {
+      invalidatePermissionIndex(removeResource.getResource());
+   }
+
+   public void onCreateLinkType(@Observes final CreateLinkType createLinkType) {
+      invalidatePermissionIndex();
+   }
+
+   public void onUpdateLinkType(@Observes final UpdateLinkType updateLinkType) {
+      if (updateLinkType.getLinkType() == null || updateLinkType.getOriginalLinkType() == null
+            || !Objects.equals(updateLinkType.getLinkType().getCollectionIds(), updateLinkType.getOriginalLinkType().getCollectionIds())) {
+         invalidatePermissionIndex();
       }
    }
 
+   public void onRemoveLinkType(@Observes final RemoveLinkType removeLinkType) {
+      invalidatePermissionIndex();
+   }
+
+   private void invalidatePermissionIndex(final Resource resource) {
+      if (resource instanceof Collection || resource instanceof View) {
+         invalidatePermissionIndex();
+      } else if (resource instanceof Project) {
+         permissionIndexCache.invalidate(resource.getId());
+         permissionIndex = null;
+      }
+   }
+
+   private void invalidatePermissionIndex() {
+      workspaceKeeper.getProject().ifPresent(project -> permissionIndexCache.invalidate(project.getId()));
+      permissionIndex = null;
+      linkTypes = null;
+   }
+
    /**
     * Checks whether the current user has the given role on the given resource
     * or the user has access to a view whose author has the given role.
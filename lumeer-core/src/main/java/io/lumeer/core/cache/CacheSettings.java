@@ -0,0 +1,58 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.core.cache;
+
+import io.lumeer.core.facade.configuration.DefaultConfigurationProducer;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads the configuration of the application wide caches.
+ */
+final class CacheSettings {
+
+   private static final Logger log = Logger.getLogger(CacheSettings.class.getName());
+
+   private static final long DEFAULT_TIME_TO_LIVE = 300_000;
+   private static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+
+   private CacheSettings() {
+   }
+
+   static long getTimeToLive(final DefaultConfigurationProducer configurationProducer) {
+      return parse(configurationProducer.get(DefaultConfigurationProducer.CACHE_TTL), DEFAULT_TIME_TO_LIVE);
+   }
+
+   static int getMaximumSize(final DefaultConfigurationProducer configurationProducer) {
+      return (int) parse(configurationProducer.get(DefaultConfigurationProducer.CACHE_MAX_SIZE), DEFAULT_MAXIMUM_SIZE);
+   }
+
+   private static long parse(final String value, final long defaultValue) {
+      if (value != null && !"".equals(value)) {
+         try {
+            return Long.parseLong(value);
+         } catch (NumberFormatException nfe) {
+            log.log(Level.WARNING, "Invalid cache configuration value: " + value);
+         }
+      }
+
+      return defaultValue;
+   }
+}
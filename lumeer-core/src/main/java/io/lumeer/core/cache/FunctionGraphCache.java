@@ -0,0 +1,58 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.core.cache;
+
+import io.lumeer.core.util.FunctionGraph;
+import io.lumeer.engine.api.cache.Cache;
+import io.lumeer.engine.api.cache.CacheFactory;
+
+import java.util.function.Supplier;
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+/**
+ * Keeps the function dependency graph of each project so that it is not loaded from the database
+ * on every document change. The graph must be invalidated whenever the project functions change.
+ */
+@ApplicationScoped
+public class FunctionGraphCache {
+
+   @Inject
+   private CacheFactory cacheFactory;
+
+   private Cache<FunctionGraph> graphCache;
+
+   @PostConstruct
+   public void initCache() {
+      graphCache = cacheFactory.getCache();
+   }
+
+   public FunctionGraph getGraph(final String projectId, final Supplier<FunctionGraph> graphSupplier) {
+      return graphCache.computeIfAbsent(projectId, id -> graphSupplier.get());
+   }
+
+   public void invalidate(final String projectId) {
+      graphCache.remove(projectId);
+   }
+
+   public void clear() {
+      graphCache.clear();
+   }
+}
@@ -21,11 +21,10 @@ package io.lumeer.core.cache;
 import io.lumeer.api.model.geocoding.Coordinates;
 import io.lumeer.api.model.geocoding.Location;
 import io.lumeer.engine.api.cache.Cache;
+import io.lumeer.engine.api.cache.CacheConfiguration;
 import io.lumeer.engine.api.cache.CacheFactory;
 
-import java.util.Deque;
 import java.util.List;
-import java.util.concurrent.ConcurrentLinkedDeque;
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
@@ -41,24 +40,14 @@ public class GeoCodingCache {
    private CacheFactory cacheFactory;
 
    private Cache<List<Location>> queryLocationsCache;
-   private Deque<String> queryLocationsCacheKeys;
-
    private Cache<Location> coordinatesLocationCache;
-   private Deque<String> coordinatesLocationCacheKeys;
-
    private Cache<Coordinates> queryCoordinatesCache;
-   private Deque<String> queryCoordinatesCacheKeys;
 
    @PostConstruct
    public void initCache() {
-      queryLocationsCache = cacheFactory.getCache();
-      queryLocationsCacheKeys = new ConcurrentLinkedDeque<>();
-
-      coordinatesLocationCache = cacheFactory.getCache();
-      coordinatesLocationCacheKeys = new ConcurrentLinkedDeque<>();
-
-      queryCoordinatesCache = cacheFactory.getCache();
-      queryCoordinatesCacheKeys = new ConcurrentLinkedDeque<>();
+      queryLocationsCache = cacheFactory.getCache(new CacheConfiguration().maximumSize(QUERY_LOCATIONS_CACHE_SIZE));
+      coordinatesLocationCache = cacheFactory.getCache(new CacheConfiguration().maximumSize(COORDINATES_LOCATION_CACHE_SIZE));
+      queryCoordinatesCache = cacheFactory.getCache(new CacheConfiguration().maximumSize(QUERY_COORDINATES_CACHE_SIZE));
    }
 
    public List<Location> getQueryLocations(final String query, final String language) {
@@ -66,14 +55,7 @@ public class GeoCodingCache {
    }
 
    public void updateQueryLocations(final String query, final List<Location> locations, final String language) {
-      var key = GeoCodingCache.createKey(query, language);
-
-      queryLocationsCache.set(key, locations);
-      queryLocationsCacheKeys.push(key);
-
-      if (queryLocationsCacheKeys.size() > QUERY_LOCATIONS_CACHE_SIZE) {
-         GeoCodingCache.removeLastCacheEntry(queryLocationsCache, queryLocationsCacheKeys);
-      }
+      queryLocationsCache.set(GeoCodingCache.createKey(query, language), locations);
    }
 
    public Location getCoordinatesLocation(final Coordinates coordinates, final String language) {
@@ -81,14 +63,7 @@ public class GeoCodingCache {
    }
 
    public void updateCoordinatesLocation(final Coordinates coordinates, final Location location, final String language) {
-      var key = GeoCodingCache.createKey(coordinates.toString(), language);
-
-      coordinatesLocationCache.set(key, location);
-      coordinatesLocationCacheKeys.push(key);
-
-      if (queryLocationsCacheKeys.size() > QUERY_LOCATIONS_CACHE_SIZE) {
-         GeoCodingCache.removeLastCacheEntry(coordinatesLocationCache, coordinatesLocationCacheKeys);
-      }
+      coordinatesLocationCache.set(GeoCodingCache.createKey(coordinates.toString(), language), location);
    }
 
    public Coordinates getQueryCoordinates(final String query) {
@@ -97,18 +72,6 @@ public class GeoCodingCache {
 
    public void updateQueryCoordinates(final String query, final Coordinates coordinates) {
       queryCoordinatesCache.set(query, coordinates);
-      queryCoordinatesCacheKeys.push(query);
-
-      if (queryCoordinatesCacheKeys.size() > QUERY_COORDINATES_CACHE_SIZE) {
-         GeoCodingCache.removeLastCacheEntry(queryCoordinatesCache, queryCoordinatesCacheKeys);
-      }
-   }
-
-   private static void removeLastCacheEntry(final Cache cache, final Deque<String> cachedKeys) {
-      var key = cachedKeys.pollLast();
-      if (key != null) {
-         cache.remove(key);
-      }
    }
 
    private static String createKey(final String query, final String language) {
@@ -0,0 +1,131 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.core.cache;
+
+import io.lumeer.api.model.LinkInstance;
+import io.lumeer.core.facade.configuration.DefaultConfigurationProducer;
+import io.lumeer.core.util.LinkGraph;
+import io.lumeer.engine.api.cache.Cache;
+import io.lumeer.engine.api.cache.CacheConfiguration;
+import io.lumeer.engine.api.cache.CacheFactory;
+import io.lumeer.engine.api.event.CreateLinkInstance;
+import io.lumeer.engine.api.event.ImportLinkTypeContent;
+import io.lumeer.engine.api.event.RemoveLinkInstance;
+import io.lumeer.engine.api.event.RemoveLinkType;
+
+import java.util.Collection;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+/**
+ * Keeps the link graph of each link type shared by all requests. Each graph remembers the version of the link instances
+ * it was loaded from, see {@link io.lumeer.storage.api.dao.LinkInstanceDao#getLinkTypeVersion(String)}. Link instances
+ * created and removed on this node are patched into the graph, each of them moves the version by one, so the graph
+ * is loaded again only when the stored version differs, that is after writes made elsewhere or without an event.
+ */
+@ApplicationScoped
+public class LinkGraphCache {
+
+   @Inject
+   private CacheFactory cacheFactory;
+
+   @Inject
+   private DefaultConfigurationProducer defaultConfigurationProducer;
+
+   private Cache<VersionedGraph> graphCache;
+
+   @PostConstruct
+   public void initCache() {
+      graphCache = cacheFactory.getCache(new CacheConfiguration()
+            .maximumSize(CacheSettings.getMaximumSize(defaultConfigurationProducer))
+            .expireAfterWrite(CacheSettings.getTimeToLive(defaultConfigurationProducer)));
+   }
+
+   /**
+    * @param version
+    *       Version of the link instances read before they are loaded, a load overtaken by a write is then stored
+    *       with the older version and replaced on next use.
+    */
+   public LinkGraph getGraph(final String linkTypeId, final long version, final Supplier<Collection<LinkInstance>> linkInstancesSupplier) {
+      final VersionedGraph cached = graphCache.get(linkTypeId);
+      if (cached != null && cached.version == version) {
+         return cached.graph;
+      }
+
+      final LinkGraph graph = new LinkGraph(linkInstancesSupplier.get());
+      graphCache.set(linkTypeId, new VersionedGraph(version, graph));
+      return graph;
+   }
+
+   public void invalidate(final String linkTypeId) {
+      graphCache.remove(linkTypeId);
+   }
+
+   public void clear() {
+      graphCache.clear();
+   }
+
+   public void onCreateLinkInstance(@Observes final CreateLinkInstance createLinkInstance) {
+      patch(createLinkInstance.getLinkInstance(), graph -> graph.withLink(createLinkInstance.getLinkInstance()));
+   }
+
+   public void onRemoveLinkInstance(@Observes final RemoveLinkInstance removeLinkInstance) {
+      patch(removeLinkInstance.getLinkInstance(), graph -> graph.withoutLink(removeLinkInstance.getLinkInstance()));
+   }
+
+   private void patch(final LinkInstance linkInstance, final Function<LinkGraph, LinkGraph> patch) {
+      final String linkTypeId = linkInstance.getLinkTypeId();
+      if (linkTypeId == null) {
+         return;
+      }
+
+      graphCache.lock(linkTypeId);
+      try {
+         final VersionedGraph cached = graphCache.get(linkTypeId);
+         if (cached != null) {
+            graphCache.set(linkTypeId, new VersionedGraph(cached.version + 1, patch.apply(cached.graph)));
+         }
+      } finally {
+         graphCache.unlock(linkTypeId);
+      }
+   }
+
+   public void onImportLinkTypeContent(@Observes final ImportLinkTypeContent importLinkTypeContent) {
+      invalidate(importLinkTypeContent.getResource().getId());
+   }
+
+   public void onRemoveLinkType(@Observes final RemoveLinkType removeLinkType) {
+      invalidate(removeLinkType.getLinkType().getId());
+   }
+
+   private static final class VersionedGraph {
+
+      private final long version;
+      private final LinkGraph graph;
+
+      private VersionedGraph(final long version, final LinkGraph graph) {
+         this.version = version;
+         this.graph = graph;
+      }
+   }
+}
@@ -0,0 +1,65 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.core.cache;
+
+import io.lumeer.core.auth.PermissionIndex;
+import io.lumeer.core.facade.configuration.DefaultConfigurationProducer;
+import io.lumeer.engine.api.cache.Cache;
+import io.lumeer.engine.api.cache.CacheConfiguration;
+import io.lumeer.engine.api.cache.CacheFactory;
+
+import java.util.function.Supplier;
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+/**
+ * Keeps the permission index of each project shared by all requests. The index must be invalidated whenever
+ * permissions of a collection or view change, or when a collection, view or link type is created or removed.
+ */
+@ApplicationScoped
+public class PermissionIndexCache {
+
+   @Inject
+   private CacheFactory cacheFactory;
+
+   @Inject
+   private DefaultConfigurationProducer defaultConfigurationProducer;
+
+   private Cache<PermissionIndex> indexCache;
+
+   @PostConstruct
+   public void initCache() {
+      indexCache = cacheFactory.getCache(new CacheConfiguration()
+            .maximumSize(CacheSettings.getMaximumSize(defaultConfigurationProducer))
+            .expireAfterWrite(CacheSettings.getTimeToLive(defaultConfigurationProducer)));
+   }
+
+   public PermissionIndex getIndex(final String projectId, final Supplier<PermissionIndex> indexSupplier) {
+      return indexCache.computeIfAbsent(projectId, id -> indexSupplier.get());
+   }
+
+   public void invalidate(final String projectId) {
+      indexCache.remove(projectId);
+   }
+
+   public void clear() {
+      indexCache.clear();
+   }
+}
@@ -0,0 +1,132 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.core.cache;
+
+import io.lumeer.api.model.Query;
+import io.lumeer.core.facade.configuration.DefaultConfigurationProducer;
+import io.lumeer.engine.api.cache.Cache;
+import io.lumeer.engine.api.cache.CacheConfiguration;
+import io.lumeer.engine.api.cache.CacheFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+/**
+ * Keeps the encoded form of recently searched queries so that repeated searches do not need to encode the filters
+ * again. Each plan remembers the stored versions of the collections and link types it was encoded with and is used
+ * only while all of them still have the same version, so that updates made on any node discard it.
+ */
+@ApplicationScoped
+public class QueryPlanCache {
+
+   @Inject
+   private CacheFactory cacheFactory;
+
+   @Inject
+   private DefaultConfigurationProducer defaultConfigurationProducer;
+
+   private Cache<QueryPlan> planCache;
+
+   @PostConstruct
+   public void initCache() {
+      planCache = cacheFactory.getCache(new CacheConfiguration()
+            .maximumSize(CacheSettings.getMaximumSize(defaultConfigurationProducer))
+            .expireAfterWrite(CacheSettings.getTimeToLive(defaultConfigurationProducer)));
+   }
+
+   /**
+    * Gets the encoded query from the cache or encodes it using the given function. The returned query is shared
+    * by all requests and must not be modified.
+    *
+    * @param projectId
+    *       Id of the project the query is evaluated in.
+    * @param query
+    *       The query as sent by the client.
+    * @param resourceVersions
+    *       Current versions of the collections and link types the query filters by, the same resources the encoder uses.
+    * @param encoder
+    *       Function that encodes the query when there is no valid plan.
+    * @return The encoded query.
+    */
+   public Query getEncodedQuery(final String projectId, final Query query, final Map<String, Long> resourceVersions, final Function<Query, Query> encoder) {
+      final PlanKey key = new PlanKey(projectId, query);
+      // queries with the same hash share the entry, the plan is used only for an equal key
+      final String cacheKey = projectId + ":" + key.hashCode();
+
+      final QueryPlan plan = planCache.get(cacheKey);
+      if (plan != null && plan.key.equals(key) && plan.resourceVersions.equals(resourceVersions)) {
+         return plan.encodedQuery;
+      }
+
+      final Query encodedQuery = encoder.apply(query);
+      planCache.set(cacheKey, new QueryPlan(key, new HashMap<>(resourceVersions), encodedQuery));
+
+      return encodedQuery;
+   }
+
+   public void clear() {
+      planCache.clear();
+   }
+
+   private static final class PlanKey {
+
+      private final String projectId;
+      private final Query query;
+
+      private PlanKey(final String projectId, final Query query) {
+         this.projectId = projectId;
+         this.query = query;
+      }
+
+      @Override
+      public boolean equals(final Object o) {
+         if (this == o) {
+            return true;
+         }
+         if (!(o instanceof PlanKey)) {
+            return false;
+         }
+         final PlanKey planKey = (PlanKey) o;
+         return Objects.equals(projectId, planKey.projectId) && Objects.equals(query, planKey.query);
+      }
+
+      @Override
+      public int hashCode() {
+         return Objects.hash(projectId, query);
+      }
+   }
+
+   private static final class QueryPlan {
+
+      private final PlanKey key;
+      private final Map<String, Long> resourceVersions;
+      private final Query encodedQuery;
+
+      private QueryPlan(final PlanKey key, final Map<String, Long> resourceVersions, final Query encodedQuery) {
+         this.key = key;
+         this.resourceVersions = resourceVersions;
+         this.encodedQuery = encodedQuery;
+      }
+   }
+}
@@ -19,20 +19,28 @@
 package io.lumeer.core.cache;
 
 import io.lumeer.api.model.User;
+import io.lumeer.core.facade.configuration.DefaultConfigurationProducer;
 import io.lumeer.engine.api.cache.Cache;
+import io.lumeer.engine.api.cache.CacheConfiguration;
 import io.lumeer.engine.api.cache.CacheFactory;
 import io.lumeer.storage.api.dao.UserDao;
 
 import javax.annotation.PostConstruct;
-import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
-@RequestScoped
+/**
+ * Users shared among all requests. Cached users are never handed out directly, callers always get a copy.
+ */
+@ApplicationScoped
 public class UserCache {
 
    @Inject
    private CacheFactory cacheFactory;
 
+   @Inject
+   private DefaultConfigurationProducer defaultConfigurationProducer;
+
    @Inject
    private UserDao userDao;
 
@@ -40,15 +48,18 @@ public class UserCache {
 
    @PostConstruct
    public void initCache() {
-      userCache = cacheFactory.getCache();
+      userCache = cacheFactory.getCache(new CacheConfiguration()
+            .maximumSize(CacheSettings.getMaximumSize(defaultConfigurationProducer))
+            .expireAfterWrite(CacheSettings.getTimeToLive(defaultConfigurationProducer)));
    }
 
    public User getUser(String email) {
-      return userCache.computeIfAbsent(email, userDao::getUserByEmail);
+      final User user = userCache.computeIfAbsent(email, userDao::getUserByEmail);
+      return user != null ? user.copy() : null;
    }
 
    public void updateUser(String username, User user) {
-      userCache.set(username, user);
+      userCache.set(username, user.copy());
    }
 
    public void removeUser(String username) {
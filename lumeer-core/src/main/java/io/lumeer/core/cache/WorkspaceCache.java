@@ -21,22 +21,30 @@ package io.lumeer.core.cache;
 import io.lumeer.api.model.Organization;
 import io.lumeer.api.model.Project;
 import io.lumeer.api.model.ServiceLimits;
+import io.lumeer.core.facade.configuration.DefaultConfigurationProducer;
 import io.lumeer.engine.api.cache.Cache;
+import io.lumeer.engine.api.cache.CacheConfiguration;
 import io.lumeer.engine.api.cache.CacheFactory;
 import io.lumeer.storage.api.dao.OrganizationDao;
 import io.lumeer.storage.api.dao.ProjectDao;
 
 import java.util.List;
 import javax.annotation.PostConstruct;
-import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
-@RequestScoped
+/**
+ * Organizations and projects shared among all requests. Cached resources are never handed out directly, callers always get a copy.
+ */
+@ApplicationScoped
 public class WorkspaceCache {
 
    @Inject
    private CacheFactory cacheFactory;
 
+   @Inject
+   private DefaultConfigurationProducer defaultConfigurationProducer;
+
    @Inject
    private OrganizationDao organizationDao;
 
@@ -51,27 +59,35 @@ public class WorkspaceCache {
 
    @PostConstruct
    public void initCaches() {
-      organizationCache = cacheFactory.getCache();
-      projectCache = cacheFactory.getCache();
-      serviceLimitsCache = cacheFactory.getCache();
+      organizationCache = cacheFactory.getCache(createConfiguration());
+      projectCache = cacheFactory.getCache(createConfiguration());
+      serviceLimitsCache = cacheFactory.getCache(createConfiguration());
       userCollections = cacheFactory.getCache();
       systemCollections = cacheFactory.getCache();
    }
 
+   private CacheConfiguration createConfiguration() {
+      return new CacheConfiguration()
+            .maximumSize(CacheSettings.getMaximumSize(defaultConfigurationProducer))
+            .expireAfterWrite(CacheSettings.getTimeToLive(defaultConfigurationProducer));
+   }
+
    public Organization getOrganization(String organizationId) {
-      return organizationCache.computeIfAbsent(organizationId, code -> organizationDao.getOrganizationById(organizationId));
+      final Organization organization = organizationCache.computeIfAbsent(organizationId, code -> organizationDao.getOrganizationById(organizationId));
+      return organization != null ? organization.copy() : null;
    }
 
    public Project getProject(String projectId) {
-      return projectCache.computeIfAbsent(projectId, code -> projectDao.getProjectById(projectId));
+      final Project project = projectCache.computeIfAbsent(projectId, code -> projectDao.getProjectById(projectId));
+      return project != null ? project.copy() : null;
    }
 
    public void updateOrganization(String organizationId, Organization organization) {
-      organizationCache.set(organizationId, organization);
+      organizationCache.set(organizationId, organization.copy());
    }
 
    public void updateProject(String projectId, Project project) {
-      projectCache.set(projectId, project);
+      projectCache.set(projectId, project.copy());
    }
 
    public void removeOrganization(String organizationId) {
@@ -97,5 +113,6 @@ public class WorkspaceCache {
    public void clear() {
       organizationCache.clear();
       projectCache.clear();
+      serviceLimitsCache.clear();
    }
 }
@@ -0,0 +1,98 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.core.constraint;
+
+import io.lumeer.api.model.Constraint;
+import io.lumeer.api.model.ConstraintType;
+import io.lumeer.engine.api.data.DataDocument;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Encodes and decodes the data of a single collection or link type. The converters of all attributes are resolved
+ * once when the codec is created, so processing a document only looks up the converter of each of its values.
+ * Instances are immutable and valid for the schema version they were created for.
+ */
+public final class ConstraintCodec {
+
+   private final long version;
+   private final Map<String, UnaryOperator<Object>> encoders;
+   private final Map<String, UnaryOperator<Object>> fceEncoders;
+   private final UnaryOperator<Object> defaultEncoder;
+   private final UnaryOperator<Object> defaultFceEncoder;
+   private final UnaryOperator<Object> decoder;
+
+   ConstraintCodec(final ConstraintManager constraintManager, final Map<String, Constraint> constraints, final long version) {
+      this.version = version;
+      this.encoders = new HashMap<>(constraints.size() * 4 / 3 + 1);
+      this.fceEncoders = new HashMap<>(constraints.size() * 4 / 3 + 1);
+
+      constraints.forEach((attributeId, constraint) -> {
+         encoders.put(attributeId, createEncoder(constraintManager, constraint));
+         fceEncoders.put(attributeId, value -> constraintManager.encodeForFce(value, constraint));
+      });
+
+      this.defaultEncoder = constraintManager::encode;
+      this.defaultFceEncoder = value -> constraintManager.encodeForFce(value, null);
+      this.decoder = value -> constraintManager.decode(value, null); // decoding does not depend on the constraint
+   }
+
+   private static UnaryOperator<Object> createEncoder(final ConstraintManager constraintManager, final Constraint constraint) {
+      if (constraint == null || constraint.getType() == ConstraintType.Number) {
+         return constraintManager::encode;
+      }
+      return value -> constraintManager.encode(value, constraint);
+   }
+
+   public long getVersion() {
+      return version;
+   }
+
+   public void encode(final DataDocument data) {
+      process(data, encoders, defaultEncoder);
+   }
+
+   public void encodeForFce(final DataDocument data) {
+      process(data, fceEncoders, defaultFceEncoder);
+   }
+
+   public void decode(final DataDocument data) {
+      if (data == null) {
+         return;
+      }
+      data.entrySet().forEach(entry -> {
+         if (!DataDocument.ID.equals(entry.getKey())) {
+            entry.setValue(decoder.apply(entry.getValue()));
+         }
+      });
+   }
+
+   private static void process(final DataDocument data, final Map<String, UnaryOperator<Object>> processors, final UnaryOperator<Object> defaultProcessor) {
+      if (data == null) {
+         return;
+      }
+      data.entrySet().forEach(entry -> {
+         if (!DataDocument.ID.equals(entry.getKey())) {
+            entry.setValue(processors.getOrDefault(entry.getKey(), defaultProcessor).apply(entry.getValue()));
+         }
+      });
+   }
+}
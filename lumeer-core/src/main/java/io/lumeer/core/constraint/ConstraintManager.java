@@ -20,10 +20,13 @@ package io.lumeer.core.constraint;
 
 import io.lumeer.api.model.Attribute;
 import io.lumeer.api.model.Collection;
+import io.lumeer.api.model.CollectionAttributeFilter;
 import io.lumeer.api.model.Constraint;
 import io.lumeer.api.model.ConstraintType;
+import io.lumeer.api.model.LinkAttributeFilter;
 import io.lumeer.api.model.LinkType;
 import io.lumeer.api.model.Query;
+import io.lumeer.api.model.QueryStem;
 import io.lumeer.api.model.common.Resource;
 import io.lumeer.api.util.ResourceUtils;
 import io.lumeer.core.facade.configuration.DefaultConfigurationProducer;
@@ -46,7 +49,6 @@ import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
@@ -55,6 +57,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -81,26 +84,50 @@ public class ConstraintManager {
 
    private DateTimeFormatter dateDecoder;
 
+   /**
+    * Number formats are not thread safe, each thread reuses its own copy.
+    */
+   private ThreadLocal<NumberFormat> numberFormat;
+
+   private ThreadLocal<DecimalFormat> bigNumberFormat;
+
+   /**
+    * Whether normalized numbers can be parsed by {@link FastParser} in the current locale.
+    */
+   private boolean fastNumbers;
+
+   private static final ThreadLocal<NumberFormat> integerFormat = ThreadLocal.withInitial(NumberFormat::getIntegerInstance);
+
+   private static final Pattern leadingZero = Pattern.compile("^0[^\\.].*");
+
    private static final ZoneId utcZone = ZoneId.ofOffset("UTC", ZoneOffset.UTC);
 
+   private static final int MAX_CACHED_CODECS = 10_000;
+
+   private static final Map<Locale, ConstraintManager> instances = new ConcurrentHashMap<>();
+
+   /**
+    * Codecs of collections and link types by their ids.
+    */
+   private final Map<String, ConstraintCodec> codecs = new ConcurrentHashMap<>();
+
    /**
     * Obtains a default instance of ConstraintManager configured according to system properties.
+    * The instance is shared by all callers using the same locale and must not be reconfigured.
     *
     * @param configurationProducer
     *       A provider of configuration.
     * @return The default ConstraintManager
     */
    public static ConstraintManager getInstance(final DefaultConfigurationProducer configurationProducer) {
-      final ConstraintManager constraintManager = new ConstraintManager();
       final String locale = configurationProducer.get(DefaultConfigurationProducer.LOCALE);
+      final Locale constraintLocale = locale != null && !"".equals(locale) ? Locale.forLanguageTag(locale) : Locale.getDefault();
 
-      if (locale != null && !"".equals(locale)) {
-         constraintManager.setLocale(Locale.forLanguageTag(locale));
-      } else {
-         constraintManager.setLocale(Locale.getDefault());
-      }
-
-      return constraintManager;
+      return instances.computeIfAbsent(constraintLocale, l -> {
+         final ConstraintManager constraintManager = new ConstraintManager();
+         constraintManager.setLocale(l);
+         return constraintManager;
+      });
    }
 
    /**
@@ -121,7 +148,9 @@ public class ConstraintManager {
    public void setLocale(final Locale locale) {
       this.locale = locale;
       initNumberMatchPatten(locale);
+      initNumberFormats(locale);
       initDateTimeFormatters(locale);
+      codecs.clear();
    }
 
    /**
@@ -137,6 +166,16 @@ public class ConstraintManager {
       this.numberMatch = Pattern.compile("^[-+]?\\d+([\\.,]\\d+)?([Ee][+-]?\\d+)?$");
    }
 
+   private void initNumberFormats(final Locale locale) {
+      fastNumbers = FastParser.supportsNumbers(locale);
+      numberFormat = ThreadLocal.withInitial(() -> NumberFormat.getNumberInstance(locale));
+      bigNumberFormat = ThreadLocal.withInitial(() -> {
+         final DecimalFormat df = (DecimalFormat) DecimalFormat.getNumberInstance(locale);
+         df.setParseBigDecimal(true);
+         return df;
+      });
+   }
+
    private void initDateTimeFormatters(final Locale locale) {
       dateDecoder = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ", locale);
       formatters = Set.of(
@@ -154,12 +193,19 @@ public class ConstraintManager {
     *       The value to try to convert to number.
     * @return The value converted to a number data type or null when the conversion was not possible.
     */
-   private Number encodeNumber(final Locale locale, final Object value) {
-      final DecimalFormat df = (DecimalFormat) DecimalFormat.getNumberInstance(locale);
-      df.setParseBigDecimal(true);
-      final NumberFormat nf = NumberFormat.getNumberInstance(locale);
+   Number encodeNumber(final String value) {
+      if (fastNumbers) {
+         final Number number = FastParser.parseNumber(value);
+         if (number != null) {
+            return number;
+         }
+      }
 
-      return encodeNumber(nf, df, value);
+      return encodeNumberWithFormats(value);
+   }
+
+   Number encodeNumberWithFormats(final String value) {
+      return encodeNumber(numberFormat.get(), bigNumberFormat.get(), value);
    }
 
    /**
@@ -179,19 +225,19 @@ public class ConstraintManager {
       } else if (value instanceof String) {
          final String trimmed = ((String) value).trim();
 
-         if (trimmed.matches("^0[^\\.].*")) { // we need to keep leading and trailing zeros, so no conversion to number
+         if (leadingZero.matcher(trimmed).matches()) { // we need to keep leading and trailing zeros, so no conversion to number
             return null;
          }
 
          try {
             // figure out whether we need to use BigDecimal
-            final Number n2 = numberFormat.parse(((String) value).trim());
+            final Number n2 = numberFormat.parse(trimmed);
 
             if (bigNumberFormat == null) {
                return n2;
             }
 
-            final Number n1 = bigNumberFormat.parse(((String) value).trim());
+            final Number n1 = bigNumberFormat.parse(trimmed);
 
             if (n1 instanceof BigDecimal) {
                try {
@@ -226,13 +272,19 @@ public class ConstraintManager {
       }
 
       if (value instanceof String && numberMatch.matcher((String) value).matches()) {
-         final Number n = encodeNumber(locale, ((String) value).replaceFirst(",", ".").replace("e", "E"));
+         final Number n = encodeNumber(normalizeNumber((String) value));
          return n == null ? value : n;
       }
 
       return value;
    }
 
+   private static String normalizeNumber(final String value) {
+      final int comma = value.indexOf(',');
+      final String withDot = comma < 0 ? value : value.substring(0, comma) + '.' + value.substring(comma + 1);
+      return withDot.replace('e', 'E');
+   }
+
    public Object encode(final Object value, final Constraint constraint) {
       return encode(value, constraint, false);
    }
@@ -298,19 +350,22 @@ public class ConstraintManager {
             return value;
          }
 
-         DateTimeFormatter dtf;
-         for (final Iterator<DateTimeFormatter> i = formatters.iterator(); i.hasNext(); ) {
-            dtf = i.next();
-            try {
-               return Date.from(ZonedDateTime.from(dtf.parse(value.toString().trim())).toInstant());
-            } catch (DateTimeParseException e) {
-               // no problem, we will try another
+         final String text = value.toString().trim();
+         final Date date = FastParser.parseDateTime(text);
+         if (date != null) {
+            return date;
+         }
+
+         if (FastParser.isDateTimeCandidate(text)) {
+            final Date parsedDate = parseDateTime(text);
+            if (parsedDate != null) {
+               return parsedDate;
             }
          }
       }
 
       if (constraint != null && constraint.getType() == ConstraintType.Select) {
-         var numericValue = encodeNumber(NumberFormat.getIntegerInstance(), NumberFormat.getIntegerInstance(), value);
+         var numericValue = encodeNumber(integerFormat.get(), integerFormat.get(), value);
          return numericValue != null && numericValue.toString().equals(String.valueOf(value)) ? numericValue : value;
       }
 
@@ -331,6 +386,26 @@ public class ConstraintManager {
       return tryHard ? encode(value) : value;
    }
 
+   /**
+    * Parses the date time using all the supported formatters.
+    *
+    * @param text
+    *       The trimmed text to parse.
+    * @return The parsed date or null when none of the formatters could parse it.
+    */
+   Date parseDateTime(final String text) {
+      DateTimeFormatter dtf;
+      for (final Iterator<DateTimeFormatter> i = formatters.iterator(); i.hasNext(); ) {
+         dtf = i.next();
+         try {
+            return Date.from(ZonedDateTime.from(dtf.parse(text)).toInstant());
+         } catch (DateTimeParseException e) {
+            // no problem, we will try another
+         }
+      }
+      return null;
+   }
+
    public Object decode(final Object value, final Constraint constraint) {
       if (value != null) {
          if (value instanceof Date) {
@@ -358,92 +433,128 @@ public class ConstraintManager {
       return value;
    }
 
-   private Map<String, Constraint> getConstraints(final Collection collection) {
-      if (collection == null) {
-         return Collections.emptyMap();
-      }
-      return collection.getAttributes()
-                       .stream()
+   private Map<String, Constraint> getConstraints(final java.util.Collection<Attribute> attributes) {
+      return attributes.stream()
                        .filter(attr -> attr.getId() != null && attr.getConstraint() != null)
                        .collect(Collectors.toMap(Attribute::getId, Attribute::getConstraint));
    }
 
    public Query encodeQuery(final Query query, final List<Collection> collections, final List<LinkType> linkTypes) {
-      var queryCopy = new Query(new ArrayList<>(query.getStems()), query.getFulltexts(), query.getPage(), query.getPageSize());
-      this.processQuery(queryCopy, collections, linkTypes, this::encode);
-      return queryCopy;
+      return this.processQuery(query, collections, linkTypes, this::encode);
    }
 
    public Query decodeQuery(final Query query, final List<Collection> collections, final List<LinkType> linkTypes) {
-      var queryCopy = new Query(new ArrayList<>(query.getStems()), query.getFulltexts(), query.getPage(), query.getPageSize());
-      this.processQuery(queryCopy, collections, linkTypes, this::decode);
-      return queryCopy;
+      return this.processQuery(query, collections, linkTypes, this::decode);
    }
 
-   private void processQuery(final Query query, final List<Collection> collections, final List<LinkType> linkTypes, final BiFunction<Object, Constraint, Object> processor) {
+   /**
+    * Creates a copy of the query with processed filter values. The original query is left untouched so that it can be
+    * processed again or shared by more requests.
+    */
+   private Query processQuery(final Query query, final List<Collection> collections, final List<LinkType> linkTypes, final BiFunction<Object, Constraint, Object> processor) {
       Map<String, Collection> collectionsMap = collections.stream().collect(Collectors.toMap(Resource::getId, c -> c));
       Map<String, LinkType> linkTypesMap = linkTypes.stream().collect(Collectors.toMap(LinkType::getId, c -> c));
 
-      query.getAttributeFilters().forEach(filter -> {
-         var collection = collectionsMap.get(filter.getCollectionId());
-         if (collection != null) {
-            var constraint = ResourceUtils.findConstraint(collection.getAttributes(), filter.getAttributeId());
-            filter.setValue(processor.apply(filter.getValue(), constraint));
-         }
-      });
+      List<QueryStem> stems = query.getStems().stream().map(stem -> new QueryStem(
+            stem.getCollectionId(),
+            stem.getLinkTypeIds(),
+            stem.getDocumentIds(),
+            stem.getFilters().stream().map(filter -> processFilter(filter, collectionsMap.get(filter.getCollectionId()), processor)).collect(Collectors.toSet()),
+            stem.getLinkFilters().stream().map(filter -> processFilter(filter, linkTypesMap.get(filter.getLinkTypeId()), processor)).collect(Collectors.toSet())
+      )).collect(Collectors.toList());
 
-      query.getLinkAttributeFilters().forEach(filter -> {
-         var linkType = linkTypesMap.get(filter.getLinkTypeId());
-         if (linkType != null) {
-            var constraint = ResourceUtils.findConstraint(linkType.getAttributes(), filter.getAttributeId());
-            filter.setValue(processor.apply(filter.getValue(), constraint));
-         }
-      });
+      return new Query(stems, query.getFulltexts(), query.getPage(), query.getPageSize(), query.getAttributeIds());
    }
 
-   public void encodeDataTypes(final Collection collection, final DataDocument data) {
-      processData(data, getConstraints(collection), this::encode);
+   private CollectionAttributeFilter processFilter(final CollectionAttributeFilter filter, final Collection collection, final BiFunction<Object, Constraint, Object> processor) {
+      var value = filter.getValue();
+      if (collection != null) {
+         var constraint = ResourceUtils.findConstraint(collection.getAttributes(), filter.getAttributeId());
+         value = processor.apply(value, constraint);
+      }
+      return new CollectionAttributeFilter(filter.getCollectionId(), filter.getAttributeId(), filter.getOperator(), value);
    }
 
-   public void encodeDataTypesForFce(final Collection collection, final DataDocument data) {
-      processData(data, getConstraints(collection), this::encodeForFce);
+   private LinkAttributeFilter processFilter(final LinkAttributeFilter filter, final LinkType linkType, final BiFunction<Object, Constraint, Object> processor) {
+      var value = filter.getValue();
+      if (linkType != null) {
+         var constraint = ResourceUtils.findConstraint(linkType.getAttributes(), filter.getAttributeId());
+         value = processor.apply(value, constraint);
+      }
+      return new LinkAttributeFilter(filter.getLinkTypeId(), filter.getAttributeId(), filter.getOperator(), value);
    }
 
-   public void decodeDataTypes(final Collection collection, final DataDocument data) {
-      processData(data, getConstraints(collection), this::decode);
+   /**
+    * Gets the codec of the collection. Codecs are cached by the collection id and rebuilt once the collection version
+    * changes.
+    *
+    * @param collection
+    *       The collection to get the codec for.
+    * @return The codec of the collection.
+    */
+   public ConstraintCodec getCodec(final Collection collection) {
+      if (collection == null) {
+         return getCodec(null, 0, Collections.emptyList());
+      }
+      return getCodec(collection.getId(), collection.getVersion(), collection.getAttributes());
    }
 
-   private Map<String, Constraint> getConstraints(final LinkType linkType) {
+   /**
+    * Gets the codec of the link type. Codecs are cached by the link type id and rebuilt once the link type version
+    * changes.
+    *
+    * @param linkType
+    *       The link type to get the codec for.
+    * @return The codec of the link type.
+    */
+   public ConstraintCodec getCodec(final LinkType linkType) {
       if (linkType == null) {
-         return Collections.emptyMap();
+         return getCodec(null, 0, Collections.emptyList());
       }
-      return linkType.getAttributes()
-                     .stream()
-                     .filter(attr -> attr.getId() != null && attr.getConstraint() != null)
-                     .collect(Collectors.toMap(Attribute::getId, Attribute::getConstraint));
+      return getCodec(linkType.getId(), linkType.getVersion(), linkType.getAttributes());
+   }
+
+   private ConstraintCodec getCodec(final String resourceId, final long version, final java.util.Collection<Attribute> attributes) {
+      if (resourceId == null) {
+         return new ConstraintCodec(this, getConstraints(attributes), version);
+      }
+
+      final ConstraintCodec codec = codecs.get(resourceId);
+      if (codec != null && codec.getVersion() == version) {
+         return codec;
+      }
+
+      if (codecs.size() >= MAX_CACHED_CODECS) {
+         codecs.clear();
+      }
+
+      final ConstraintCodec newCodec = new ConstraintCodec(this, getConstraints(attributes), version);
+      codecs.put(resourceId, newCodec);
+      return newCodec;
+   }
+
+   public void encodeDataTypes(final Collection collection, final DataDocument data) {
+      getCodec(collection).encode(data);
+   }
+
+   public void encodeDataTypesForFce(final Collection collection, final DataDocument data) {
+      getCodec(collection).encodeForFce(data);
+   }
+
+   public void decodeDataTypes(final Collection collection, final DataDocument data) {
+      getCodec(collection).decode(data);
    }
 
    public void encodeDataTypes(final LinkType linkType, final DataDocument data) {
-      processData(data, getConstraints(linkType), this::encode);
+      getCodec(linkType).encode(data);
    }
 
    public void encodeDataTypesForFce(final LinkType linkType, final DataDocument data) {
-      processData(data, getConstraints(linkType), this::encodeForFce);
+      getCodec(linkType).encodeForFce(data);
    }
 
    public void decodeDataTypes(final LinkType linkType, final DataDocument data) {
-      processData(data, getConstraints(linkType), this::decode);
-   }
-
-   private void processData(final DataDocument data, final Map<String, Constraint> constraints, final BiFunction<Object, Constraint, Object> processor) {
-      if (data == null) {
-         return;
-      }
-      data.keySet().forEach(key -> {
-         if (!DataDocument.ID.equals(key)) {
-            data.put(key, processor.apply(data.get(key), constraints.get(key)));
-         }
-      });
+      getCodec(linkType).decode(data);
    }
 
    public DateTimeFormatter getDateDecoder() {
@@ -0,0 +1,251 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.core.constraint;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormatSymbols;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Parses the most common date time and number formats without exceptions and without the formatters used by
+ * {@link ConstraintManager}. Every method returns null when it cannot decide, the caller then falls back to
+ * the formatters which are authoritative.
+ */
+final class FastParser {
+
+   /**
+    * Length of yyyy-MM-dd'T'HH:mm:ss.SSS.
+    */
+   private static final int DATE_TIME_LENGTH = 23;
+
+   private static final int MAX_OFFSET_SECONDS = 18 * 3600;
+
+   /**
+    * Decimal128 keeps up to 34 digits with an exponent between -6176 and 6111.
+    */
+   private static final int MAX_DECIMAL_PRECISION = 34;
+   private static final int MIN_DECIMAL_EXPONENT = -6176;
+   private static final int MAX_DECIMAL_EXPONENT = 6111;
+
+   private FastParser() {
+   }
+
+   /**
+    * Checks whether numbers of the locale can be parsed by {@link #parseNumber(String)}.
+    *
+    * @param locale
+    *       The locale of number formats.
+    * @return True when the locale uses the symbols of normalized numbers.
+    */
+   static boolean supportsNumbers(final Locale locale) {
+      final DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+      return symbols.getDecimalSeparator() == '.' && symbols.getMinusSign() == '-' && "E".equals(symbols.getExponentSeparator());
+   }
+
+   /**
+    * Parses a normalized number, i.e. [-]digits[.digits][E[-]digits], the same way as the number formats
+    * used by {@link ConstraintManager}.
+    *
+    * @param text
+    *       The number to parse.
+    * @return Long when the number is a plain integer, BigDecimal otherwise or null when the number
+    * is not normalized, has a leading zero or does not fit into Decimal128.
+    */
+   static Number parseNumber(final String text) {
+      if (!isNormalizedNumber(text) || (text.length() > 1 && text.charAt(0) == '0' && text.charAt(1) != '.')) {
+         return null; // numbers with leading zeros are kept as they are by the formatters
+      }
+
+      final BigDecimal number = new BigDecimal(text);
+      final int exponent = -number.scale();
+      if (number.precision() > MAX_DECIMAL_PRECISION || exponent < MIN_DECIMAL_EXPONENT || exponent > MAX_DECIMAL_EXPONENT) {
+         return null;
+      }
+
+      if (number.scale() == 0 && number.unscaledValue().bitLength() < Long.SIZE && !(number.signum() == 0 && text.charAt(0) == '-')) {
+         return number.longValue();
+      }
+
+      return number;
+   }
+
+   private static boolean isNormalizedNumber(final String text) {
+      final int length = text.length();
+      int i = 0;
+
+      if (i < length && text.charAt(i) == '-') {
+         i++;
+      }
+
+      int digits = 0;
+      while (i < length && isDigit(text.charAt(i))) {
+         i++;
+         digits++;
+      }
+      if (digits == 0) {
+         return false;
+      }
+
+      if (i < length && text.charAt(i) == '.') {
+         i++;
+         digits = 0;
+         while (i < length && isDigit(text.charAt(i))) {
+            i++;
+            digits++;
+         }
+         if (digits == 0) {
+            return false;
+         }
+      }
+
+      if (i < length && text.charAt(i) == 'E') {
+         i++;
+         if (i < length && text.charAt(i) == '-') {
+            i++;
+         }
+         digits = 0;
+         while (i < length && isDigit(text.charAt(i))) {
+            i++;
+            digits++;
+         }
+         if (digits == 0 || digits > 9) {
+            return false;
+         }
+      }
+
+      return i == length;
+   }
+
+   /**
+    * Checks whether the text can possibly be a date time in any of the formats yyyy-MM-dd'T'HH:mm:ss.SSS followed
+    * by an offset. When it returns false, none of the date time formatters would succeed.
+    *
+    * @param text
+    *       The trimmed text.
+    * @return False when the text is certainly not a date time.
+    */
+   static boolean isDateTimeCandidate(final String text) {
+      if (text.length() <= DATE_TIME_LENGTH) {
+         return false;
+      }
+
+      final char first = text.charAt(0);
+      if (first == '+' || first == '-') {
+         return true;
+      }
+
+      if (!isDigits(text, 0, 4)) {
+         return false;
+      }
+
+      if (isDigit(text.charAt(4))) { // year with more than four digits
+         return true;
+      }
+
+      return text.charAt(4) == '-' && isDigits(text, 5, 2) && text.charAt(7) == '-' && isDigits(text, 8, 2)
+            && text.charAt(10) == 'T' && isDigits(text, 11, 2) && text.charAt(13) == ':' && isDigits(text, 14, 2)
+            && text.charAt(16) == ':' && isDigits(text, 17, 2) && text.charAt(19) == '.' && isDigits(text, 20, 3);
+   }
+
+   /**
+    * Parses yyyy-MM-dd'T'HH:mm:ss.SSS followed by Z, +HH or +HHmm.
+    *
+    * @param text
+    *       The trimmed text.
+    * @return The parsed date or null when the text is in a different format or out of the usual ranges.
+    */
+   static Date parseDateTime(final String text) {
+      if (!isDateTimeCandidate(text) || !isDigit(text.charAt(0)) || isDigit(text.charAt(4))) {
+         return null;
+      }
+
+      final int year = number(text, 0, 4);
+      final int month = number(text, 5, 2);
+      final int day = number(text, 8, 2);
+      final int hour = number(text, 11, 2);
+      final int minute = number(text, 14, 2);
+      final int second = number(text, 17, 2);
+      final int millis = number(text, 20, 3);
+
+      if (year < 1 || month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))
+            || hour > 23 || minute > 59 || second > 59) {
+         return null;
+      }
+
+      final int offset = parseOffset(text, DATE_TIME_LENGTH);
+      if (offset == Integer.MIN_VALUE) {
+         return null;
+      }
+
+      final long epochSecond = LocalDate.of(year, month, day).toEpochDay() * 86_400 + hour * 3_600 + minute * 60 + second - offset;
+      return new Date(epochSecond * 1_000 + millis);
+   }
+
+   private static int parseOffset(final String text, final int start) {
+      final int length = text.length() - start;
+
+      if (length == 1 && text.charAt(start) == 'Z') {
+         return 0;
+      }
+
+      if (length != 3 && length != 5) {
+         return Integer.MIN_VALUE;
+      }
+
+      final char sign = text.charAt(start);
+      if ((sign != '+' && sign != '-') || !isDigits(text, start + 1, length - 1)) {
+         return Integer.MIN_VALUE;
+      }
+
+      final int hours = number(text, start + 1, 2);
+      final int minutes = length == 5 ? number(text, start + 3, 2) : 0;
+      final int seconds = hours * 3_600 + minutes * 60;
+
+      if (minutes > 59 || seconds > MAX_OFFSET_SECONDS) {
+         return Integer.MIN_VALUE;
+      }
+
+      return sign == '-' ? -seconds : seconds;
+   }
+
+   private static boolean isDigit(final char c) {
+      return c >= '0' && c <= '9';
+   }
+
+   private static boolean isDigits(final String text, final int start, final int count) {
+      for (int i = start; i < start + count; i++) {
+         if (!isDigit(text.charAt(i))) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   private static int number(final String text, final int start, final int count) {
+      int result = 0;
+      for (int i = start; i < start + count; i++) {
+         result = result * 10 + (text.charAt(i) - '0');
+      }
+      return result;
+   }
+}
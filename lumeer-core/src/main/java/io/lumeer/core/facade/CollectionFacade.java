@@ -156,9 +156,10 @@ public class CollectionFacade extends AbstractFacade {
    }
 
    private List<Collection> getCollectionsByPermissions() {
+      final Set<String> readableCollectionIds = permissionsChecker.getReadableCollectionIds();
       return collectionDao.getCollections(createSimpleQuery()).stream()
+                          .filter(collection -> readableCollectionIds.contains(collection.getId()) || permissionsChecker.hasReadRoleViaView(collection))
                           .map(this::mapResource)
-                          .filter(collection -> permissionsChecker.hasRoleWithView(collection, Role.READ, Role.READ))
                           .collect(Collectors.toList());
    }
 
@@ -27,8 +27,10 @@ import io.lumeer.api.model.common.Resource;
 import io.lumeer.api.model.function.FunctionParameter;
 import io.lumeer.api.model.function.FunctionResourceType;
 import io.lumeer.api.model.function.FunctionRow;
+import io.lumeer.core.cache.FunctionGraphCache;
 import io.lumeer.core.task.ContextualTaskFactory;
 import io.lumeer.core.task.FunctionTask;
+import io.lumeer.core.util.FunctionGraph;
 import io.lumeer.core.util.FunctionOrder;
 import io.lumeer.core.util.FunctionXmlParser;
 import io.lumeer.engine.api.data.DataDocument;
@@ -47,7 +49,6 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.enterprise.context.RequestScoped;
@@ -74,10 +75,14 @@ public class FunctionFacade extends AbstractFacade {
    @Inject
    private ContextualTaskFactory contextualTaskFactory;
 
+   @Inject
+   private FunctionGraphCache functionGraphCache;
+
    public FunctionTask createTaskForCreatedFunction(Collection collection, Attribute attribute) {
       List<FunctionRow> functionRows = createCollectionRowsFromXml(collection, attribute);
       if (!functionRows.isEmpty()) {
          functionDao.createRows(functionRows);
+         invalidateFunctionGraph();
       }
 
       Deque<FunctionParameterDocuments> queue = createQueueForCollection(collection, attribute, functionRows);
@@ -110,22 +115,28 @@ public class FunctionFacade extends AbstractFacade {
    }
 
    private Deque<FunctionParameterDocuments> orderFunctions(Map<FunctionParameterDocuments, List<FunctionParameterDocuments>> parametersMap) {
-      Deque<FunctionParameterDocuments> queue = FunctionOrder.orderFunctions(parametersMap);
+      return FunctionOrder.orderFunctions(parametersMap);
+   }
 
-      Deque<FunctionParameterDocuments> mappedQueue = new LinkedList<>();
-      for (final FunctionParameterDocuments functionParameterDocuments : queue) {
-         Optional<FunctionParameterDocuments> first = parametersMap.keySet().stream().filter(param -> param.equals(functionParameterDocuments)).findFirst();
-         first.ifPresent(mappedQueue::add);
-      }
+   private FunctionGraph getFunctionGraph() {
+      return workspaceKeeper.getProject()
+                            .map(project -> functionGraphCache.getGraph(project.getId(), this::loadFunctionGraph))
+                            .orElseGet(this::loadFunctionGraph);
+   }
+
+   private FunctionGraph loadFunctionGraph() {
+      return new FunctionGraph(functionDao.getAllRows());
+   }
 
-      return mappedQueue;
+   private void invalidateFunctionGraph() {
+      workspaceKeeper.getProject().ifPresent(project -> functionGraphCache.invalidate(project.getId()));
    }
 
    private void fillParametersMapForCollection(Map<FunctionParameterDocuments, List<FunctionParameterDocuments>> parametersMap, FunctionParameterDocuments parentParameter) {
-      List<FunctionRow> functionRows = functionDao.searchByDependentCollection(parentParameter.getResourceId(), parentParameter.getAttributeId());
+      List<FunctionRow> functionRows = getFunctionGraph().searchByDependentCollection(parentParameter.getResourceId(), parentParameter.getAttributeId());
 
       functionRows.forEach(row -> {
-         List<FunctionRow> rows = functionDao.searchByResource(row.getResourceId(), row.getAttributeId(), row.getType());
+         List<FunctionRow> rows = getFunctionGraph().searchByResource(row.getResourceId(), row.getAttributeId(), row.getType());
          Set<String> documentIds = parentParameter.getDocuments().stream().map(Document::getId).collect(Collectors.toSet());
 
          FunctionParameterDocuments parameter = new FunctionParameterDocuments(row.getType(), row.getResourceId(), row.getAttributeId());
@@ -151,10 +162,10 @@ public class FunctionFacade extends AbstractFacade {
    }
 
    private void fillParametersMapForLinkType(Map<FunctionParameterDocuments, List<FunctionParameterDocuments>> parametersMap, FunctionParameterDocuments parentParameter) {
-      List<FunctionRow> functionRows = functionDao.searchByDependentLinkType(parentParameter.getResourceId(), parentParameter.getAttributeId());
+      List<FunctionRow> functionRows = getFunctionGraph().searchByDependentLinkType(parentParameter.getResourceId(), parentParameter.getAttributeId());
 
       functionRows.forEach(row -> {
-         List<FunctionRow> rows = functionDao.searchByResource(row.getResourceId(), row.getAttributeId(), row.getType());
+         List<FunctionRow> rows = getFunctionGraph().searchByResource(row.getResourceId(), row.getAttributeId(), row.getType());
          Set<String> linkInstanceIds = parentParameter.getLinkInstances().stream().map(LinkInstance::getId).collect(Collectors.toSet());
 
          FunctionParameterDocuments parameter = new FunctionParameterDocuments(row.getType(), row.getResourceId(), row.getAttributeId());
@@ -271,12 +282,14 @@ public class FunctionFacade extends AbstractFacade {
 
    public void onDeleteCollectionFunction(String collectionId, String attributeId) {
       functionDao.deleteByCollection(collectionId, attributeId);
+      invalidateFunctionGraph();
    }
 
    public FunctionTask createTaskForCreatedLinkFunction(LinkType linkType, Attribute attribute) {
       List<FunctionRow> functionRows = createLinkRowsFromXml(linkType, attribute);
       if (!functionRows.isEmpty()) {
          functionDao.createRows(functionRows);
+         invalidateFunctionGraph();
       }
 
       Deque<FunctionParameterDocuments> queue = createQueueForLinkType(linkType, attribute, functionRows);
@@ -315,6 +328,7 @@ public class FunctionFacade extends AbstractFacade {
 
    public void onDeleteLinkTypeFunction(String collectionId, String attributeId) {
       functionDao.deleteByLinkType(collectionId, attributeId);
+      invalidateFunctionGraph();
    }
 
    public FunctionTask createTaskForCreatedDocument(Collection collection, Document document) {
@@ -334,7 +348,7 @@ public class FunctionFacade extends AbstractFacade {
             parameter.setCollection(collection);
             parameter.setAttribute(attribute);
 
-            List<FunctionRow> functionRows = functionDao.searchByResource(collection.getId(), attribute.getId(), FunctionResourceType.COLLECTION);
+            List<FunctionRow> functionRows = getFunctionGraph().searchByResource(collection.getId(), attribute.getId(), FunctionResourceType.COLLECTION);
             parametersMap.put(parameter, functionRows.stream().map(this::functionRowToParameter).collect(Collectors.toList()));
             fillParametersMapForCollection(parametersMap, parameter);
          }
@@ -379,11 +393,11 @@ public class FunctionFacade extends AbstractFacade {
 
       attributeIds.forEach(attributeId -> {
 
-         List<FunctionRow> functionRows = functionDao.searchByDependentCollection(collectionId, attributeId);
+         List<FunctionRow> functionRows = getFunctionGraph().searchByDependentCollection(collectionId, attributeId);
 
          functionRows.forEach(row -> {
             FunctionParameterDocuments parameter = new FunctionParameterDocuments(row.getType(), row.getResourceId(), row.getAttributeId());
-            List<FunctionRow> rows = functionDao.searchByResource(row.getResourceId(), row.getAttributeId(), row.getType());
+            List<FunctionRow> rows = getFunctionGraph().searchByResource(row.getResourceId(), row.getAttributeId(), row.getType());
             if (!parametersMap.containsKey(parameter)) {
                if (row.getType() == FunctionResourceType.COLLECTION) {
                   Set<Document> documents = findDocumentsForRow(row, Collections.singleton(documentId));
@@ -435,7 +449,7 @@ public class FunctionFacade extends AbstractFacade {
             parameter.setLinkType(linkType);
             parameter.setAttribute(attribute);
 
-            List<FunctionRow> functionRows = functionDao.searchByResource(linkType.getId(), attribute.getId(), FunctionResourceType.LINK);
+            List<FunctionRow> functionRows = getFunctionGraph().searchByResource(linkType.getId(), attribute.getId(), FunctionResourceType.LINK);
             parametersMap.put(parameter, functionRows.stream().map(this::functionRowToParameter).collect(Collectors.toList()));
             fillParametersMapForLinkType(parametersMap, parameter);
          }
@@ -447,10 +461,10 @@ public class FunctionFacade extends AbstractFacade {
    }
 
    private void fillParametersMapForDependentLinkType(Map<FunctionParameterDocuments, List<FunctionParameterDocuments>> parametersMap, LinkType linkType, LinkInstance linkInstance, List<Document> additionalDocuments) {
-      List<FunctionRow> dependentRows = functionDao.searchByDependentLinkType(linkType.getId(), null);
+      List<FunctionRow> dependentRows = getFunctionGraph().searchByDependentLinkType(linkType.getId(), null);
       dependentRows.forEach(row -> {
          FunctionParameterDocuments parameter = new FunctionParameterDocuments(row.getType(), row.getResourceId(), row.getAttributeId());
-         List<FunctionRow> rows = functionDao.searchByResource(row.getResourceId(), row.getAttributeId(), row.getType());
+         List<FunctionRow> rows = getFunctionGraph().searchByResource(row.getResourceId(), row.getAttributeId(), row.getType());
 
          if (!parametersMap.containsKey(parameter)) {
             if (row.getType() == FunctionResourceType.COLLECTION) {
@@ -494,11 +508,11 @@ public class FunctionFacade extends AbstractFacade {
 
    private void fillParametersMapForLinkChanged(Map<FunctionParameterDocuments, List<FunctionParameterDocuments>> parametersMap, String linkTypeId, List<String> attributeIds, String linkInstanceId) {
       attributeIds.forEach(attributeId -> {
-         List<FunctionRow> functionRows = functionDao.searchByDependentLinkType(linkTypeId, attributeId);
+         List<FunctionRow> functionRows = getFunctionGraph().searchByDependentLinkType(linkTypeId, attributeId);
 
          functionRows.forEach(row -> {
             FunctionParameterDocuments parameter = new FunctionParameterDocuments(row.getType(), row.getResourceId(), row.getAttributeId());
-            List<FunctionRow> rows = functionDao.searchByResource(row.getResourceId(), row.getAttributeId(), row.getType());
+            List<FunctionRow> rows = getFunctionGraph().searchByResource(row.getResourceId(), row.getAttributeId(), row.getType());
             if (!parametersMap.containsKey(parameter)) {
                if (row.getType() == FunctionResourceType.COLLECTION) {
                   Set<Document> documents = findDocumentsForRowByLinkInstances(row, Collections.singleton(linkInstanceId));
@@ -554,6 +568,7 @@ public class FunctionFacade extends AbstractFacade {
    private void deleteByRows(FunctionResourceType type, List<FunctionRow> functionRows) {
       String[] resourceIdsToDelete = functionRows.stream().map(FunctionRow::getResourceId).toArray(String[]::new);
       functionDao.deleteByResources(type, resourceIdsToDelete);
+      invalidateFunctionGraph();
    }
 
    private Set<Document> findDocumentsForRow(FunctionRow row, Set<String> documentIds) {
@@ -25,6 +25,8 @@ import io.lumeer.api.model.Document;
 import io.lumeer.api.model.FileAttachment;
 import io.lumeer.api.model.LinkInstance;
 import io.lumeer.api.model.LinkType;
+import io.lumeer.api.model.Project;
+import io.lumeer.api.model.ResourceType;
 import io.lumeer.api.model.Role;
 import io.lumeer.api.util.ResourceUtils;
 import io.lumeer.core.constraint.ConstraintManager;
@@ -39,6 +41,7 @@ import io.lumeer.storage.api.dao.DocumentDao;
 import io.lumeer.storage.api.dao.LinkDataDao;
 import io.lumeer.storage.api.dao.LinkInstanceDao;
 import io.lumeer.storage.api.dao.LinkTypeDao;
+import io.lumeer.storage.api.exception.ResourceNotFoundException;
 
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
@@ -259,6 +262,17 @@ public class LinkInstanceFacade extends AbstractFacade {
       return stored;
    }
 
+   /**
+    * Reports how many operations each index of the link instances repository of the current project has served,
+    * for verifying that the lookups are indexed. Available to project managers only.
+    *
+    * @return Number of operations per index name.
+    */
+   public Map<String, Long> getIndexUsage() {
+      permissionsChecker.checkRole(getCurrentProject(), Role.MANAGE);
+      return linkInstanceDao.getIndexUsage();
+   }
+
    public List<LinkInstance> duplicateLinkInstances(final String originalDocumentId, final String newDocumentId, final Set<String> linkInstanceIds, final Map<String, String> documentMap) {
       final List<LinkInstance> linkInstances = linkInstanceDao.getLinkInstances(linkInstanceIds);
       if (linkInstances.size() <= 0 || linkInstances.stream().map(LinkInstance::getLinkTypeId).distinct().count() != 1) {
@@ -305,6 +319,13 @@ public class LinkInstanceFacade extends AbstractFacade {
       return linkType;
    }
 
+   private Project getCurrentProject() {
+      if (!workspaceKeeper.getProject().isPresent()) {
+         throw new ResourceNotFoundException(ResourceType.PROJECT);
+      }
+      return workspaceKeeper.getProject().get();
+   }
+
    private void checkDocumentsExists(final List<String> documentIds) {
       List<Document> documents = documentDao.getDocumentsByIds(documentIds.toArray(new String[0]));
       if (documents.size() != documentIds.size()) {
@@ -166,8 +166,8 @@ public class OrganizationFacade extends AbstractFacade {
       } else {
          organization.getPermissions().addUserPermissions(userPermissions);
       }
-      organizationDao.updateOrganization(organization.getId(), organization, originalOrganization);
-      workspaceCache.updateOrganization(organizationId, organization);
+      final Organization updatedOrganization = organizationDao.updateOrganization(organization.getId(), organization, originalOrganization);
+      workspaceCache.updateOrganization(organizationId, updatedOrganization);
 
       return organization.getPermissions().getUserPermissions();
    }
@@ -177,8 +177,8 @@ public class OrganizationFacade extends AbstractFacade {
       final Organization organization = storedOrganization.copy();
 
       organization.getPermissions().removeUserPermission(userId);
-      organizationDao.updateOrganization(organization.getId(), organization, storedOrganization);
-      workspaceCache.updateOrganization(organizationId, organization);
+      final Organization updatedOrganization = organizationDao.updateOrganization(organization.getId(), organization, storedOrganization);
+      workspaceCache.updateOrganization(organizationId, updatedOrganization);
    }
 
    public Set<Permission> updateGroupPermissions(final String organizationId, final Set<Permission> groupPermissions) {
@@ -186,8 +186,8 @@ public class OrganizationFacade extends AbstractFacade {
       final Organization organization = storedOrganization.copy();
 
       organization.getPermissions().updateGroupPermissions(groupPermissions);
-      organizationDao.updateOrganization(organization.getId(), organization, storedOrganization);
-      workspaceCache.updateOrganization(organizationId, organization);
+      final Organization updatedOrganization = organizationDao.updateOrganization(organization.getId(), organization, storedOrganization);
+      workspaceCache.updateOrganization(organizationId, updatedOrganization);
 
       return organization.getPermissions().getGroupPermissions();
    }
@@ -197,8 +197,8 @@ public class OrganizationFacade extends AbstractFacade {
       final Organization organization = storedOrganization.copy();
 
       organization.getPermissions().removeGroupPermission(groupId);
-      organizationDao.updateOrganization(organization.getId(), organization, storedOrganization);
-      workspaceCache.updateOrganization(organizationId, organization);
+      final Organization updatedOrganization = organizationDao.updateOrganization(organization.getId(), organization, storedOrganization);
+      workspaceCache.updateOrganization(organizationId, updatedOrganization);
    }
 
    private void createOrganizationInUser(final String organizationId) {
@@ -208,7 +208,8 @@ public class OrganizationFacade extends AbstractFacade {
       groups.put(organizationId, new HashSet<>());
       currentUser.setGroups(groups);
 
-      userDao.updateUser(currentUser.getId(), currentUser);
+      User updatedUser = userDao.updateUser(currentUser.getId(), currentUser);
+      userCache.updateUser(updatedUser.getEmail(), updatedUser);
    }
 
    private void createOrganizationScopedRepositories(Organization organization) {
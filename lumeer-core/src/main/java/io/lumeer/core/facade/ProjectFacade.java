@@ -123,7 +123,7 @@ public class ProjectFacade extends AbstractFacade {
       keepStoredPermissions(project, storedProject.getPermissions());
       keepUnmodifiableFields(project, storedProject);
       Project updatedProject = projectDao.updateProject(storedProject.getId(), project, storedProject);
-      workspaceCache.updateProject(projectId, project);
+      workspaceCache.updateProject(projectId, updatedProject);
 
       return mapResource(updatedProject);
    }
@@ -199,8 +199,8 @@ public class ProjectFacade extends AbstractFacade {
       }else {
          project.getPermissions().addUserPermissions(userPermissions);
       }
-      projectDao.updateProject(project.getId(), project, originalProject);
-      workspaceCache.updateProject(projectId, project);
+      final Project updatedProject = projectDao.updateProject(project.getId(), project, originalProject);
+      workspaceCache.updateProject(projectId, updatedProject);
 
       return project.getPermissions().getUserPermissions();
    }
@@ -211,8 +211,8 @@ public class ProjectFacade extends AbstractFacade {
 
       final Project project = storedProject.copy();
       project.getPermissions().removeUserPermission(userId);
-      projectDao.updateProject(project.getId(), project, storedProject);
-      workspaceCache.updateProject(projectId, project);
+      final Project updatedProject = projectDao.updateProject(project.getId(), project, storedProject);
+      workspaceCache.updateProject(projectId, updatedProject);
    }
 
    public Set<Permission> updateGroupPermissions(final String projectId, final Set<Permission> groupPermissions) {
@@ -221,8 +221,8 @@ public class ProjectFacade extends AbstractFacade {
 
       final Project project = storedProject.copy();
       project.getPermissions().updateGroupPermissions(groupPermissions);
-      projectDao.updateProject(project.getId(), project, storedProject);
-      workspaceCache.updateProject(projectId, project);
+      final Project updatedProject = projectDao.updateProject(project.getId(), project, storedProject);
+      workspaceCache.updateProject(projectId, updatedProject);
 
       return project.getPermissions().getGroupPermissions();
    }
@@ -233,8 +233,8 @@ public class ProjectFacade extends AbstractFacade {
 
       final Project project = storedProject.copy();
       project.getPermissions().removeGroupPermission(groupId);
-      projectDao.updateProject(project.getId(), project, storedProject);
-      workspaceCache.updateProject(projectId, project);
+      final Project updatedProject = projectDao.updateProject(project.getId(), project, storedProject);
+      workspaceCache.updateProject(projectId, updatedProject);
    }
 
    private void createProjectScopedRepositories(Project project) {
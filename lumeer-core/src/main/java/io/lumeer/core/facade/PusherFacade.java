@@ -38,6 +38,7 @@ import io.lumeer.core.auth.RequestDataKeeper;
 import io.lumeer.core.constraint.ConstraintManager;
 import io.lumeer.core.facade.configuration.DefaultConfigurationProducer;
 import io.lumeer.core.util.PusherClient;
+import io.lumeer.core.util.PusherDispatcher;
 import io.lumeer.core.util.QueryUtils;
 import io.lumeer.engine.api.event.AddFavoriteItem;
 import io.lumeer.engine.api.event.CreateDocument;
@@ -89,6 +90,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
@@ -111,6 +113,7 @@ public class PusherFacade extends AbstractFacade {
    private String PUSHER_CLUSTER;
 
    private PusherClient pusherClient = null;
+   private PusherDispatcher pusherDispatcher = null;
 
    @Inject
    private Logger log;
@@ -161,9 +164,31 @@ public class PusherFacade extends AbstractFacade {
 
       if (PUSHER_SECRET != null && !"".equals(PUSHER_SECRET)) {
          pusherClient = new PusherClient(PUSHER_APP_ID, PUSHER_KEY, PUSHER_SECRET, PUSHER_CLUSTER);
+         pusherDispatcher = new PusherDispatcher(pusherClient, PusherFacade::getCoalescingKey, getQueueSize());
       }
    }
 
+   @PreDestroy
+   public void shutdown() {
+      if (pusherDispatcher != null) {
+         pusherDispatcher.shutdown();
+      }
+   }
+
+   private int getQueueSize() {
+      final String size = configurationProducer.get(DefaultConfigurationProducer.PUSHER_QUEUE_SIZE);
+
+      if (size != null && !"".equals(size)) {
+         try {
+            return Integer.parseInt(size);
+         } catch (NumberFormatException nfe) {
+            log.log(Level.WARNING, "Invalid push notification queue size: " + size);
+         }
+      }
+
+      return PusherDispatcher.DEFAULT_QUEUE_SIZE;
+   }
+
    public String getPusherAppId() {
       return PUSHER_APP_ID;
    }
@@ -184,6 +209,10 @@ public class PusherFacade extends AbstractFacade {
       return pusherClient;
    }
 
+   public PusherDispatcher getPusherDispatcher() {
+      return pusherDispatcher;
+   }
+
    public void createResource(@Observes final CreateResource createResource) {
       if (isEnabled()) {
          try {
@@ -845,8 +874,29 @@ public class PusherFacade extends AbstractFacade {
             }
          });
 
-         pusherClient.trigger(notifications);
+         pusherDispatcher.submit(notifications);
+      }
+   }
+
+   /**
+    * Pending notifications about the same object for the same user are replaced by the newer one.
+    */
+   private static String getCoalescingKey(final Event event) {
+      final String id = getObjectId(event.getData());
+      return id != null ? event.getChannel() + "/" + event.getName() + "/" + id : null;
+   }
+
+   private static String getObjectId(final Object data) {
+      if (data instanceof ObjectWithParent) {
+         return getObjectId(((ObjectWithParent) data).getObject());
+      }
+      if (data instanceof WithId) {
+         return ((WithId) data).getId();
+      }
+      if (data instanceof ResourceId) {
+         return ((ResourceId) data).getId();
       }
+      return null;
    }
 
    private boolean isEnabled() {
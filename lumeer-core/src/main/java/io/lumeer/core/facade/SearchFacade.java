@@ -24,11 +24,15 @@ import io.lumeer.api.model.LinkInstance;
 import io.lumeer.api.model.LinkType;
 import io.lumeer.api.model.Pagination;
 import io.lumeer.api.model.Query;
-import io.lumeer.api.model.Role;
+import io.lumeer.api.model.ResultPage;
 import io.lumeer.api.model.common.Resource;
 import io.lumeer.core.auth.AuthenticatedUserGroups;
+import io.lumeer.core.cache.LinkGraphCache;
+import io.lumeer.core.cache.QueryPlanCache;
 import io.lumeer.core.constraint.ConstraintManager;
+import io.lumeer.core.exception.BadFormatException;
 import io.lumeer.core.facade.configuration.DefaultConfigurationProducer;
+import io.lumeer.core.util.LinkGraph;
 import io.lumeer.engine.api.data.DataDocument;
 import io.lumeer.storage.api.dao.CollectionDao;
 import io.lumeer.storage.api.dao.DataDao;
@@ -51,7 +55,10 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.RequestScoped;
@@ -60,6 +67,16 @@ import javax.inject.Inject;
 @RequestScoped
 public class SearchFacade extends AbstractFacade {
 
+   public static final int DEFAULT_PAGE_LIMIT = 100;
+   public static final int MAX_PAGE_LIMIT = 1000;
+
+   public static final int MAX_HIERARCHY_DEPTH = 64;
+   public static final int MAX_HIERARCHY_SIZE = 100_000;
+
+   private static final Logger log = Logger.getLogger(SearchFacade.class.getName());
+   private static final Pattern CONTINUATION_PATTERN = Pattern.compile("[0-9a-f]{24}");
+   private static final Set<String> DOCUMENT_ID_FIELDS = Set.of(Document.COLLECTION_ID);
+
    @Inject
    private CollectionDao collectionDao;
 
@@ -81,6 +98,12 @@ public class SearchFacade extends AbstractFacade {
    @Inject
    private AuthenticatedUserGroups authenticatedUserGroups;
 
+   @Inject
+   private LinkGraphCache linkGraphCache;
+
+   @Inject
+   private QueryPlanCache queryPlanCache;
+
    @Inject
    private DefaultConfigurationProducer configurationProducer;
 
@@ -92,55 +115,88 @@ public class SearchFacade extends AbstractFacade {
    }
 
    public List<LinkInstance> getLinkInstances(Query query) {
-      final Query encodedQuery = encodeQuery(query);
+      return getLinkInstances(query, true);
+   }
+
+   /**
+    * Returns the link instances matching the query. When data are not requested, only the link instances themselves
+    * are read unless the query has to search in link data.
+    */
+   public List<LinkInstance> getLinkInstances(final Query query, final boolean withData) {
       final List<LinkType> linkTypes = getReadLinkTypes();
+      final Query encodedQuery = encodeQuery(query, Collections.emptyList(), linkTypes);
       Map<String, LinkType> linkTypesMap = linkTypes.stream().collect(Collectors.toMap(LinkType::getId, l -> l));
 
       final List<LinkInstance> result;
 
       if (encodedQuery.isEmpty()) {
-         result = new ArrayList<>(searchLinkInstancesByEmptyQuery(linkTypes));
+         result = searchLinkInstancesByEmptyQuery(linkTypes, withData);
       } else if (encodedQuery.containsStems()) {
-         result = new ArrayList<>(searchLinkInstancesByStems(encodedQuery, linkTypes));
+         result = searchLinkInstancesByStems(encodedQuery, linkTypes, withData);
       } else {
          result = new ArrayList<>(searchLinkInstancesByFulltexts(encodedQuery, linkTypes));
+         if (!withData) {
+            result.forEach(linkInstance -> linkInstance.setData(new DataDocument()));
+         }
       }
 
-      result.forEach(linkInstance -> constraintManager.decodeDataTypes(linkTypesMap.get(linkInstance.getLinkTypeId()), linkInstance.getData()));
+      if (withData) {
+         result.forEach(linkInstance -> constraintManager.decodeDataTypes(linkTypesMap.get(linkInstance.getLinkTypeId()), linkInstance.getData()));
+      }
 
       return result;
    }
 
-   private java.util.Collection<LinkInstance> searchLinkInstancesByEmptyQuery(List<LinkType> linkTypes) {
+   /**
+    * Returns all link instances ordered by their ids, starting after the given continuation token.
+    * Only empty queries can be paged this way, see {@link #checkPageableQuery(Query)}.
+    */
+   public ResultPage<LinkInstance> getLinkInstances(final Query query, final String continuation, final Integer limit) {
+      checkPageableQuery(query);
+      final String afterId = parseContinuation(continuation);
+      final int pageLimit = checkPageLimit(limit);
+
+      final List<LinkType> linkTypes = getReadLinkTypes();
+      final Map<String, LinkType> linkTypesMap = linkTypes.stream().collect(Collectors.toMap(LinkType::getId, l -> l));
+      final List<LinkInstance> linkInstances = linkInstanceDao.getLinkInstancesByLinkTypes(linkTypesMap.keySet(), afterId, pageLimit);
+      setDataForLinkInstances(linkInstances);
+      linkInstances.forEach(linkInstance -> constraintManager.decodeDataTypes(linkTypesMap.get(linkInstance.getLinkTypeId()), linkInstance.getData()));
+
+      return createPage(linkInstances, LinkInstance::getId, pageLimit);
+   }
+
+   private List<LinkInstance> searchLinkInstancesByEmptyQuery(List<LinkType> linkTypes, boolean withData) {
       List<LinkInstance> linkInstances = linkInstanceDao.getLinkInstancesByLinkTypes(linkTypes.stream().map(LinkType::getId).collect(Collectors.toSet()));
-      return setDataForLinkInstances(linkInstances);
+      return withData ? setDataForLinkInstances(linkInstances) : clearData(linkInstances);
    }
 
-   private java.util.Collection<LinkInstance> setDataForLinkInstances(java.util.Collection<LinkInstance> linkInstances) {
+   /**
+    * Reads the data of all link types concurrently and sets them to the link instances in place.
+    */
+   private List<LinkInstance> setDataForLinkInstances(List<LinkInstance> linkInstances) {
       Map<String, Set<String>> linkInstancesIdsMap = linkInstances.stream().
             collect(Collectors.groupingBy(LinkInstance::getLinkTypeId, Collectors.mapping(LinkInstance::getId, Collectors.toSet())));
 
-      Map<String, DataDocument> allDataMap = new HashMap<>();
+      List<DataDocument> data = linkDataDao.getData(linkInstancesIdsMap);
+      Map<String, DataDocument> allDataMap = new HashMap<>(data.size() * 4 / 3 + 1);
+      data.forEach(dataDocument -> allDataMap.put(dataDocument.getId(), dataDocument));
 
-      for (Map.Entry<String, Set<String>> entry : linkInstancesIdsMap.entrySet()) {
-         Map<String, DataDocument> dataMap = linkDataDao.getData(entry.getKey(), entry.getValue()).stream()
-                                                        .collect(Collectors.toMap(DataDocument::getId, dataDocument -> dataDocument));
-
-         allDataMap.putAll(dataMap);
-      }
+      linkInstances.forEach(linkInstance -> linkInstance.setData(Objects.requireNonNullElse(allDataMap.get(linkInstance.getId()), new DataDocument())));
+      return linkInstances;
+   }
 
-      return new ArrayList<>(linkInstances).stream()
-                                           .peek(linkInstance -> linkInstance.setData(Objects.requireNonNullElse(allDataMap.get(linkInstance.getId()), new DataDocument())))
-                                           .collect(Collectors.toSet());
+   private List<LinkInstance> clearData(List<LinkInstance> linkInstances) {
+      linkInstances.forEach(linkInstance -> linkInstance.setData(new DataDocument()));
+      return linkInstances;
    }
 
-   private java.util.Collection<LinkInstance> searchLinkInstancesByStems(Query query, List<LinkType> readLinkTypes) {
-      SearchQuery searchQuery = buildSearchQuery(encodeQuery(query));
+   private List<LinkInstance> searchLinkInstancesByStems(Query query, List<LinkType> readLinkTypes, boolean withData) {
+      SearchQuery searchQuery = buildSearchQuery(query);
       Set<String> linkTypeIds = readLinkTypes.stream().map(LinkType::getId).collect(Collectors.toSet());
       List<LinkInstance> linkInstances = linkInstanceDao.searchLinkInstances(searchQuery).stream()
                                                         .filter(linkInstance -> linkTypeIds.contains(linkInstance.getLinkTypeId()))
                                                         .collect(Collectors.toList());
-      return setDataForLinkInstances(linkInstances);
+      return withData ? setDataForLinkInstances(linkInstances) : clearData(linkInstances);
    }
 
    private java.util.Collection<LinkInstance> searchLinkInstancesByFulltexts(Query query, List<LinkType> linkTypes) {
@@ -157,43 +213,77 @@ public class SearchFacade extends AbstractFacade {
    }
 
    private List<LinkType> getReadLinkTypes() {
+      final List<LinkType> linkTypes = linkTypeDao.getAllLinkTypes();
+      if (permissionsChecker.isManager()) {
+         return linkTypes;
+      }
+
+      final Set<String> readableLinkTypeIds = permissionsChecker.getReadableLinkTypeIds();
+      if (permissionsChecker.getViewId() == null || permissionsChecker.getViewId().isEmpty()) {
+         return linkTypes.stream()
+                         .filter(linkType -> readableLinkTypeIds.contains(linkType.getId()))
+                         .collect(Collectors.toList());
+      }
+
+      // access gained through the active view is not part of the permission index
       final Set<String> allowedCollectionIds = getReadCollections().stream().map(Resource::getId)
                                                                    .collect(Collectors.toSet());
-      return linkTypeDao.getAllLinkTypes().stream()
-                        .filter(lt -> allowedCollectionIds.containsAll(lt.getCollectionIds()))
-                        .collect(Collectors.toList());
+      return linkTypes.stream()
+                      .filter(linkType -> readableLinkTypeIds.contains(linkType.getId()) || allowedCollectionIds.containsAll(linkType.getCollectionIds()))
+                      .collect(Collectors.toList());
+   }
+
+   /**
+    * Encodes the query with the collections and link types it filters by. The known ones are used when they contain
+    * the filtered resources, the others are loaded.
+    */
+   private Query encodeQuery(final Query query, final List<Collection> knownCollections, final List<LinkType> knownLinkTypes) {
+      final Set<String> filterCollectionIds = query.getAttributeFilters().stream().map(io.lumeer.api.model.CollectionAttributeFilter::getCollectionId).collect(Collectors.toSet());
+      final List<Collection> collections = findOrLoad(filterCollectionIds, knownCollections, Collection::getId, collectionDao::getCollectionsByIds);
+      final Set<String> filterLinkTypeIds = query.getLinkAttributeFilters().stream().map(io.lumeer.api.model.LinkAttributeFilter::getLinkTypeId).collect(Collectors.toSet());
+      final List<LinkType> linkTypes = findOrLoad(filterLinkTypeIds, knownLinkTypes, LinkType::getId, linkTypeDao::getLinkTypesByIds);
+
+      final Map<String, Long> resourceVersions = new HashMap<>();
+      collections.forEach(collection -> resourceVersions.put(collection.getId(), collection.getVersion()));
+      linkTypes.forEach(linkType -> resourceVersions.put(linkType.getId(), linkType.getVersion()));
+
+      final String projectId = workspaceKeeper.getProject().map(Resource::getId).orElse(null);
+      return queryPlanCache.getEncodedQuery(projectId, query, resourceVersions, q -> constraintManager.encodeQuery(q, collections, linkTypes));
    }
 
-   private Query encodeQuery(Query query) {
-      Set<String> filterCollectionIds = query.getAttributeFilters().stream().map(io.lumeer.api.model.CollectionAttributeFilter::getCollectionId).collect(Collectors.toSet());
-      List<Collection> collections = collectionDao.getCollectionsByIds(filterCollectionIds);
-      Set<String> filterLinkTypeIds = query.getLinkAttributeFilters().stream().map(io.lumeer.api.model.LinkAttributeFilter::getLinkTypeId).collect(Collectors.toSet());
-      List<LinkType> linkTypes = linkTypeDao.getLinkTypesByIds(filterLinkTypeIds);
+   private static <T> List<T> findOrLoad(final Set<String> ids, final List<T> known, final Function<T, String> idFunction, final Function<Set<String>, List<T>> loader) {
+      if (ids.isEmpty()) {
+         return Collections.emptyList();
+      }
 
-      return constraintManager.encodeQuery(query, collections, linkTypes);
+      final List<T> found = known.stream().filter(resource -> ids.contains(idFunction.apply(resource))).collect(Collectors.toList());
+      if (found.size() == ids.size()) {
+         return found;
+      }
+      return loader.apply(ids);
    }
 
    private SearchQuery buildSearchQuery(Query query) {
       return SearchQuery.createBuilder(authenticatedUser.getCurrentUserId())
                         .groups(authenticatedUserGroups.getCurrentUserGroups())
-                        .queryStems(query.getStems(), query.getFulltexts())
+                        .queryStems(query.getStems(), query.getFulltexts(), query.getAttributeIds())
                         .page(query.getPage())
                         .pageSize(query.getPageSize())
                         .build();
    }
 
    public List<Document> searchDocuments(final Query query) {
-      final Query encodedQuery = encodeQuery(query);
       final List<Collection> collections = getReadCollections();
+      final Query encodedQuery = encodeQuery(query, collections, Collections.emptyList());
       final Map<String, Collection> collectionMap = collections.stream().collect(Collectors.toMap(Resource::getId, collection -> collection));
       final List<Document> result;
 
       if (encodedQuery.isEmpty()) {
-         result = new ArrayList<>(getChildDocuments(searchDocumentsByEmptyQuery(encodedQuery, collections)));
+         result = new ArrayList<>(getChildDocuments(searchDocumentsByEmptyQuery(encodedQuery, collections), encodedQuery.getAttributeIds()));
       } else if (encodedQuery.containsStems()) {
          result = new ArrayList<>(searchDocumentsByStems(encodedQuery, collections));
       } else {
-         result = new ArrayList<>(getChildDocuments(searchDocumentsByFulltexts(encodedQuery, collections)));
+         result = new ArrayList<>(getChildDocuments(searchDocumentsByFulltexts(encodedQuery, collections), encodedQuery.getAttributeIds()));
       }
 
       result.forEach(document -> constraintManager.decodeDataTypes(collectionMap.get(document.getCollectionId()), document.getData()));
@@ -201,28 +291,101 @@ public class SearchFacade extends AbstractFacade {
       return result;
    }
 
-   private List<Collection> getReadCollections() {
-      return collectionDao.getAllCollections().stream()
-                          .filter(collection -> permissionsChecker.hasRoleWithView(collection, Role.READ, Role.READ))
-                          .collect(Collectors.toList());
+   /**
+    * Returns all documents ordered by their ids, starting after the given continuation token.
+    * Only empty queries can be paged this way, see {@link #checkPageableQuery(Query)}.
+    */
+   public ResultPage<Document> searchDocuments(final Query query, final String continuation, final Integer limit) {
+      checkPageableQuery(query);
+      final String afterId = parseContinuation(continuation);
+      final int pageLimit = checkPageLimit(limit);
+
+      final List<Collection> collections = getReadCollections();
+      final Map<String, Collection> collectionMap = collections.stream().collect(Collectors.toMap(Resource::getId, collection -> collection));
+      final List<Document> documents = dataDao.searchDocumentsAfter(afterId, pageLimit, collections);
+      documents.forEach(document -> constraintManager.decodeDataTypes(collectionMap.get(document.getCollectionId()), document.getData()));
+
+      return createPage(documents, Document::getId, pageLimit);
    }
 
-   private Set<Document> searchDocumentsByEmptyQuery(Query query, List<Collection> collections) {
-      List<DataDocument> data = new ArrayList<>();
-      for (Collection collection : collections) {
-         SearchQueryStem stem = SearchQueryStem.createBuilder(collection.getId()).build();
-         data.addAll(dataDao.searchData(stem, query.getPagination(), collection));
+   /**
+    * Passes all documents to the consumer one by one. They are read from the database in batches
+    * so that only a single batch is held in memory at a time. Only empty queries can be streamed,
+    * see {@link #checkPageableQuery(Query)}.
+    */
+   public void streamDocuments(final Query query, final Consumer<Document> consumer) {
+      checkPageableQuery(query);
+
+      final List<Collection> collections = getReadCollections();
+      final Map<String, Collection> collectionMap = collections.stream().collect(Collectors.toMap(Resource::getId, collection -> collection));
+
+      // a short page does not prove the end of the data, stop only on an empty one
+      List<Document> batch = dataDao.searchDocumentsAfter(null, MAX_PAGE_LIMIT, collections);
+      while (!batch.isEmpty()) {
+         for (final Document document : batch) {
+            constraintManager.decodeDataTypes(collectionMap.get(document.getCollectionId()), document.getData());
+            consumer.accept(document);
+         }
+         final String afterId = batch.get(batch.size() - 1).getId();
+         batch = dataDao.searchDocumentsAfter(afterId, MAX_PAGE_LIMIT, collections);
       }
+   }
 
-      return convertDataDocumentsToDocuments(data);
+   /**
+    * Checks that the query can be read in pages ordered by ids. Stems and fulltexts pull in linked and child documents,
+    * so such queries can only be evaluated whole and every page would repeat the whole search. They are rejected,
+    * the query page and page size should be used for them instead.
+    *
+    * @param query
+    *       Query to check.
+    */
+   public void checkPageableQuery(final Query query) {
+      if (!query.isEmpty()) {
+         throw new BadFormatException("Only empty queries can be paged by continuation or streamed, use the query page and page size instead.");
+      }
    }
 
-   private Set<Document> convertDataDocumentsToDocuments(java.util.Collection<DataDocument> data) {
-      List<Document> documents = documentDao.getDocumentsByIds(data.stream().map(DataDocument::getId).distinct().toArray(String[]::new));
-      Map<String, DataDocument> dataMap = data.stream().collect(Collectors.toMap(DataDocument::getId, Function.identity()));
-      return documents.stream()
-                      .peek(document -> document.setData(Objects.requireNonNullElse(dataMap.get(document.getId()), new DataDocument())))
-                      .collect(Collectors.toSet());
+   private String parseContinuation(final String continuation) {
+      if (continuation == null || continuation.isEmpty()) {
+         return null;
+      }
+
+      final String afterId = continuation.toLowerCase();
+      if (!CONTINUATION_PATTERN.matcher(afterId).matches()) {
+         throw new BadFormatException("Invalid continuation token: " + continuation);
+      }
+      return afterId;
+   }
+
+   private int checkPageLimit(final Integer limit) {
+      if (limit == null) {
+         return DEFAULT_PAGE_LIMIT;
+      }
+      if (limit <= 0) {
+         throw new BadFormatException("Page limit must be positive: " + limit);
+      }
+      return Math.min(limit, MAX_PAGE_LIMIT);
+   }
+
+   private static <T> ResultPage<T> createPage(final List<T> page, final Function<T, String> idFunction, final int limit) {
+      final String next = page.size() < limit ? null : idFunction.apply(page.get(page.size() - 1));
+      return new ResultPage<>(page, next);
+   }
+
+   private List<Collection> getReadCollections() {
+      final List<Collection> collections = collectionDao.getAllCollections();
+      if (permissionsChecker.isManager()) {
+         return collections;
+      }
+
+      final Set<String> readableCollectionIds = permissionsChecker.getReadableCollectionIds();
+      return collections.stream()
+                        .filter(collection -> readableCollectionIds.contains(collection.getId()) || permissionsChecker.hasReadRoleViaView(collection))
+                        .collect(Collectors.toList());
+   }
+
+   private Set<Document> searchDocumentsByEmptyQuery(Query query, List<Collection> collections) {
+      return new HashSet<>(dataDao.searchDocumentsByEmptyQuery(query.getPagination(), collections, query.getAttributeIds()));
    }
 
    private Set<Document> searchDocumentsByStems(Query query, List<Collection> collections) {
@@ -232,24 +395,23 @@ public class SearchFacade extends AbstractFacade {
       List<LinkType> linkTypes = !linkTypeIds.isEmpty() ? linkTypeDao.getLinkTypesByIds(linkTypeIds) : Collections.emptyList();
 
       Set<String> documentIds = query.getDocumentsIds();
-      List<Document> documents = !documentIds.isEmpty() ? documentDao.getDocumentsByIds(documentIds.toArray(new String[0])) : Collections.emptyList();
+      List<Document> documents = !documentIds.isEmpty() ? documentDao.getDocumentsByIds(DOCUMENT_ID_FIELDS, documentIds.toArray(new String[0])) : Collections.emptyList();
 
       Map<String, Collection> collectionsMap = collections.stream().collect(Collectors.toMap(Collection::getId, Function.identity()));
 
       Set<Document> data = new HashSet<>();
       for (SearchQueryStem stem : searchQuery.getStems()) {
          if (stem.containsLinkTypeIdsQuery()) {
-            data.addAll(searchDocumentsByStemWithLinks(stem, searchQuery.getPagination(), collectionsMap, linkTypes, documents));
+            data.addAll(searchDocumentsByStemWithLinks(stem, searchQuery.getPagination(), collectionsMap, linkTypes, documents, query.getAttributeIds()));
          } else {
             SearchQueryStem cleanedStem = cleanStemForBaseCollection(stem, documents);
 
             Collection collection = collectionsMap.get(stem.getCollectionId());
             if (collection != null) {
-               List<DataDocument> stemData = dataDao.searchData(cleanedStem, searchQuery.getPagination(), collection);
-               Set<Document> documentsByData = convertDataDocumentsToDocuments(stemData).stream()
-                                                                                        .filter(document -> document.getCollectionId().equals(stem.getCollectionId()))
-                                                                                        .collect(Collectors.toSet());
-               data.addAll(getChildDocuments(documentsByData));
+               Set<Document> documentsByData = dataDao.searchDocuments(cleanedStem, searchQuery.getPagination(), collection).stream()
+                                                      .filter(document -> document.getCollectionId().equals(stem.getCollectionId()))
+                                                      .collect(Collectors.toSet());
+               data.addAll(getChildDocuments(documentsByData, query.getAttributeIds()));
             }
          }
       }
@@ -257,18 +419,17 @@ public class SearchFacade extends AbstractFacade {
       return data;
    }
 
-   private Set<Document> searchDocumentsByStemWithLinks(SearchQueryStem stem, Pagination pagination, Map<String, Collection> collectionsMap, List<LinkType> linkTypes, List<Document> documents) {
+   private Set<Document> searchDocumentsByStemWithLinks(SearchQueryStem stem, Pagination pagination, Map<String, Collection> collectionsMap, List<LinkType> linkTypes, List<Document> documents, Map<String, Set<String>> attributeIds) {
       if (!collectionsMap.containsKey(stem.getCollectionId())) {
          return Collections.emptySet();
       }
 
       SearchQueryStem baseStem = cleanStemForBaseCollection(stem, documents);
-      List<SearchQueryStem> stemsPipeline = createStemsPipeline(stem, collectionsMap, linkTypes, documents);
+      List<SearchQueryStem> stemsPipeline = createStemsPipeline(stem, collectionsMap, linkTypes, documents, attributeIds);
 
-      List<DataDocument> data = dataDao.searchData(baseStem, pagination, collectionsMap.get(baseStem.getCollectionId()));
       // we need to add child documents only for base collection
-      Set<Document> documentsByData = convertDataDocumentsToDocuments(data);
-      documentsByData.addAll(getChildDocuments(documentsByData));
+      Set<Document> documentsByData = new HashSet<>(dataDao.searchDocuments(baseStem, pagination, collectionsMap.get(baseStem.getCollectionId())));
+      documentsByData.addAll(getChildDocuments(documentsByData, attributeIds));
 
       Map<String, LinkType> linkTypesMap = linkTypes.stream().collect(Collectors.toMap(LinkType::getId, lt -> lt));
 
@@ -278,30 +439,26 @@ public class SearchFacade extends AbstractFacade {
          String linkTypeId = stem.getLinkTypeIds().get(i);
          SearchQueryStem currentStageStem = stemsPipeline.get(i);
 
-         List<LinkInstance> linkInstances = linkInstanceDao.getLinkInstancesByDocumentIds(lastStageIds, linkTypeId);
+         LinkGraph linkGraph = linkGraphCache.getGraph(linkTypeId, linkInstanceDao.getLinkTypeVersion(linkTypeId), () -> linkInstanceDao.getLinkInstancesByLinkType(linkTypeId));
+         Set<String> linkInstanceIds = linkGraph.getLinkInstanceIds(lastStageIds);
 
          Set<String> searchedLinkInstanceIds;
 
          if (currentStageStem.containsLinkFiltersQuery() || currentStageStem.containsFulltextsQuery()) {
             SearchQueryStem linkSearchStem = SearchQueryStem.createBuilder(currentStageStem.getCollectionId())
-                                                            .linkInstanceIds(linkInstances.stream().map(LinkInstance::getId).collect(Collectors.toSet()))
+                                                            .linkInstanceIds(linkInstanceIds)
                                                             .linkFilters(currentStageStem.getLinkFilters())
                                                             .fulltexts(currentStageStem.getFulltexts())
+                                                            .attributeIds(Collections.emptySet())
                                                             .build();
 
             searchedLinkInstanceIds = linkDataDao.searchData(linkSearchStem, pagination, linkTypesMap.get(linkTypeId))
                                                  .stream().map(DataDocument::getId).collect(Collectors.toSet());
          } else {
-            searchedLinkInstanceIds = linkInstances.stream().map(LinkInstance::getId).collect(Collectors.toSet());
+            searchedLinkInstanceIds = linkInstanceIds;
          }
 
-         final Set<String> lastStageIdsCopy = Collections.unmodifiableSet(lastStageIds);
-         Set<String> otherDocumentIds = linkInstances.stream()
-                                                     .filter(linkInstance -> searchedLinkInstanceIds.contains(linkInstance.getId()))
-                                                     .map(LinkInstance::getDocumentIds)
-                                                     .flatMap(List::stream)
-                                                     .filter(id -> !lastStageIdsCopy.contains(id))
-                                                     .collect(Collectors.toSet());
+         Set<String> otherDocumentIds = linkGraph.getDocumentIds(searchedLinkInstanceIds, lastStageIds);
 
          Set<String> currentDocumentsIds = new HashSet<>(currentStageStem.getDocumentIds());
 
@@ -320,24 +477,25 @@ public class SearchFacade extends AbstractFacade {
                                                        .documentIds(currentDocumentsIds)
                                                        .filters(currentStageStem.getFilters())
                                                        .fulltexts(currentStageStem.getFulltexts())
+                                                       .attributeIds(currentStageStem.getAttributeIds())
                                                        .build();
 
-         List<DataDocument> currentStageData = dataDao.searchData(modifiedStem, pagination, collectionsMap.get(modifiedStem.getCollectionId()));
-         if (currentStageData.isEmpty()) {
+         List<Document> currentStageDocuments = dataDao.searchDocuments(modifiedStem, pagination, collectionsMap.get(modifiedStem.getCollectionId()));
+         if (currentStageDocuments.isEmpty()) {
             break;
          }
-         documentsByData.addAll(convertDataDocumentsToDocuments(currentStageData));
-         lastStageIds = currentStageData.stream().map(DataDocument::getId).collect(Collectors.toSet());
+         documentsByData.addAll(currentStageDocuments);
+         lastStageIds = currentStageDocuments.stream().map(Document::getId).collect(Collectors.toSet());
       }
 
       return documentsByData;
    }
 
    private SearchQueryStem cleanStemForBaseCollection(SearchQueryStem stem, List<Document> documents) {
-      return cleanStemForCollectionAndLink(stem, documents, stem.getCollectionId(), null);
+      return cleanStemForCollectionAndLink(stem, documents, stem.getCollectionId(), null, stem.getAttributeIds());
    }
 
-   private SearchQueryStem cleanStemForCollectionAndLink(SearchQueryStem stem, List<Document> documents, String collectionId, String linkTypeId) {
+   private SearchQueryStem cleanStemForCollectionAndLink(SearchQueryStem stem, List<Document> documents, String collectionId, String linkTypeId, Set<String> attributeIds) {
       Set<CollectionSearchAttributeFilter> filters = stem.getFilters().stream()
                                                          .filter(filter -> filter.getCollectionId().equals(collectionId))
                                                          .collect(Collectors.toSet());
@@ -360,10 +518,11 @@ public class SearchFacade extends AbstractFacade {
                             .filters(filters)
                             .linkFilters(linkFilters)
                             .documentIds(documentIds)
+                            .attributeIds(attributeIds)
                             .build();
    }
 
-   private List<SearchQueryStem> createStemsPipeline(SearchQueryStem stem, Map<String, Collection> collectionsMap, List<LinkType> allLinkTypes, List<Document> allDocuments) {
+   private List<SearchQueryStem> createStemsPipeline(SearchQueryStem stem, Map<String, Collection> collectionsMap, List<LinkType> allLinkTypes, List<Document> allDocuments, Map<String, Set<String>> attributeIds) {
       List<SearchQueryStem> stemsPipeline = new LinkedList<>();
       String lastCollectionId = stem.getCollectionId();
 
@@ -382,7 +541,8 @@ public class SearchFacade extends AbstractFacade {
             return stemsPipeline;
          }
 
-         stemsPipeline.add(cleanStemForCollectionAndLink(stem, allDocuments, currentCollectionId, linkType.getId()));
+         Set<String> collectionAttributeIds = attributeIds != null ? attributeIds.get(currentCollectionId) : null;
+         stemsPipeline.add(cleanStemForCollectionAndLink(stem, allDocuments, currentCollectionId, linkType.getId(), collectionAttributeIds));
          lastCollectionId = currentCollectionId;
          stemLinkTypes.remove(linkType);
       }
@@ -396,54 +556,53 @@ public class SearchFacade extends AbstractFacade {
    }
 
    private Set<Document> searchDocumentsByFulltexts(Query query, List<Collection> collections) {
-      List<DataDocument> data = dataDao.searchDataByFulltexts(query.getFulltexts(), query.getPagination(), collections);
-      return convertDataDocumentsToDocuments(data);
-   }
-
-   private Set<Document> getChildDocuments(final Set<Document> rootDocuments) {
-      return getChildDocumentsBfs(new HashSet<>(rootDocuments), rootDocuments, false);
+      return new HashSet<>(dataDao.searchDocumentsByFulltexts(query.getFulltexts(), query.getPagination(), collections, query.getAttributeIds()));
    }
 
-   private Set<Document> getChildDocumentsBfs(final Set<Document> result, final Set<Document> rootDocuments, boolean setData) {
+   /**
+    * Adds all descendants of the root documents, one hierarchy level per query. Documents are tracked by id only,
+    * the traversal stops after {@link #MAX_HIERARCHY_DEPTH} levels or {@link #MAX_HIERARCHY_SIZE} documents.
+    */
+   private Set<Document> getChildDocuments(final Set<Document> rootDocuments, final Map<String, Set<String>> attributeIds) {
+      final Map<String, Document> result = new HashMap<>();
+      rootDocuments.forEach(document -> result.put(document.getId(), document));
 
-      // find all document where parentId == one of root documents
-      // add root documents to result when they do not exist there
-      // add results to rootDocuments
-      // repeat while there were any results
+      Set<String> parentIds = new HashSet<>(result.keySet());
+      int depth = 0;
 
-      List<Document> nextLevel = documentDao.getDocumentsByParentIds(
-            rootDocuments.stream()
-                         .map(Document::getId)
-                         .collect(Collectors.toSet()))
-            .stream()
-            .filter(d -> !result.contains(d))
-            .collect(Collectors.toList());
-
-      Set<Document> filteredDocuments = rootDocuments.stream().filter(d -> !result.contains(d))
-                                                     .collect(Collectors.toSet());
-
-      if (setData) {
-         Map<String, DataDocument> dataMap = getDataFromDocuments(filteredDocuments);
-         filteredDocuments.forEach(document -> document.setData(dataMap.get(document.getId())));
-      }
-
-      result.addAll(filteredDocuments);
+      while (!parentIds.isEmpty()) {
+         if (depth >= MAX_HIERARCHY_DEPTH || result.size() >= MAX_HIERARCHY_SIZE) {
+            log.warning(String.format("Document hierarchy truncated at depth %d with %d documents.", depth, result.size()));
+            break;
+         }
 
-      if (nextLevel.size() > 0) {
-         getChildDocumentsBfs(result, new HashSet<>(nextLevel), true);
+         List<Document> level = documentDao.getDocumentsByParentIds(parentIds).stream()
+                                           .filter(document -> !result.containsKey(document.getId()))
+                                           .limit(MAX_HIERARCHY_SIZE - result.size())
+                                           .collect(Collectors.toList());
+
+         Map<String, DataDocument> dataMap = getDataFromDocuments(level, attributeIds);
+         parentIds = new HashSet<>();
+         for (Document document : level) {
+            document.setData(dataMap.get(document.getId()));
+            result.put(document.getId(), document);
+            parentIds.add(document.getId());
+         }
+         depth++;
       }
 
-      return result;
+      return new HashSet<>(result.values());
    }
 
-   private Map<String, DataDocument> getDataFromDocuments(Set<Document> documents) {
+   private Map<String, DataDocument> getDataFromDocuments(java.util.Collection<Document> documents, Map<String, Set<String>> attributeIds) {
       Map<String, Set<String>> collectionsDocumentsMap = documents.stream()
                                                                   .collect(Collectors.groupingBy(Document::getCollectionId,
                                                                         Collectors.mapping(Document::getId, Collectors.toSet())));
 
       Map<String, DataDocument> map = new HashMap<>();
       collectionsDocumentsMap.forEach((collectionId, docIds) -> {
-         Map<String, DataDocument> dataDocuments = dataDao.getData(collectionId, docIds).stream()
+         Set<String> collectionAttributeIds = attributeIds != null ? attributeIds.get(collectionId) : null;
+         Map<String, DataDocument> dataDocuments = dataDao.getData(collectionId, docIds, collectionAttributeIds).stream()
                                                           .collect(Collectors.toMap(DataDocument::getId, Function.identity()));
          map.putAll(dataDocuments);
       });
@@ -24,6 +24,7 @@ import io.lumeer.api.model.Document;
 import io.lumeer.api.model.LinkType;
 import io.lumeer.api.model.Rule;
 import io.lumeer.core.task.ContextualTaskFactory;
+import io.lumeer.core.task.DocumentUpdateCoalescer;
 import io.lumeer.core.task.FunctionTask;
 import io.lumeer.core.task.RuleTask;
 import io.lumeer.core.task.Task;
@@ -63,6 +64,9 @@ public class TaskProcessingFacade {
    @Inject
    private TaskExecutor taskExecutor;
 
+   @Inject
+   private DocumentUpdateCoalescer documentUpdateCoalescer;
+
    @Inject
    private ContextualTaskFactory contextualTaskFactory;
 
@@ -128,9 +132,16 @@ public class TaskProcessingFacade {
    }
 
    private void processTasks(Task... tasks) {
+      Task task = chainTasks(tasks);
+      if (task != null) {
+         taskExecutor.submitTask(task);
+      }
+   }
+
+   private Task chainTasks(Task... tasks) {
       List<Task> filteredTasks = Arrays.stream(tasks).filter(Objects::nonNull).collect(Collectors.toList());
       if (filteredTasks.isEmpty()) {
-         return;
+         return null;
       }
 
       if (filteredTasks.size() > 1) {
@@ -139,7 +150,7 @@ public class TaskProcessingFacade {
          }
       }
 
-      taskExecutor.submitTask(filteredTasks.get(0));
+      return filteredTasks.get(0);
    }
 
    private void setParentForLatestTask(Task task, Task newParent) {
@@ -156,16 +167,21 @@ public class TaskProcessingFacade {
          return;
       }
 
-      FunctionTask functionTask = functionFacade.createTaskForUpdateDocument(collection, updateDocument.getOriginalDocument(), updateDocument.getDocument());
-      List<RuleTask> tasks = createDocumentUpdateRuleTasks(collection, updateDocument);
-      RuleTask ruleTask = createOrderedRuleTask(tasks);
+      final Document document = updateDocument.getDocument();
 
-      processTasks(functionTask, ruleTask);
+      // rapid successive updates of the same document are evaluated only once against the first original state
+      documentUpdateCoalescer.submit(document.getId(), updateDocument.getOriginalDocument(), originalDocument -> {
+         FunctionTask functionTask = functionFacade.createTaskForUpdateDocument(collection, originalDocument, document);
+         List<RuleTask> tasks = createDocumentUpdateRuleTasks(collection, originalDocument, document);
+         RuleTask ruleTask = createOrderedRuleTask(tasks);
+
+         return chainTasks(functionTask, ruleTask);
+      });
    }
 
-   private List<RuleTask> createDocumentUpdateRuleTasks(final Collection collection, final UpdateDocument updateDocument) {
-      if (updateDocument.getOriginalDocument() != null && updateDocument.getDocument() != null) {
-         return createRuleTasks(collection, updateDocument.getOriginalDocument(), updateDocument.getDocument(), Arrays.asList(Rule.RuleTiming.UPDATE, Rule.RuleTiming.CREATE_UPDATE, Rule.RuleTiming.UPDATE_DELETE, Rule.RuleTiming.ALL));
+   private List<RuleTask> createDocumentUpdateRuleTasks(final Collection collection, final Document originalDocument, final Document document) {
+      if (originalDocument != null && document != null) {
+         return createRuleTasks(collection, originalDocument, document, Arrays.asList(Rule.RuleTiming.UPDATE, Rule.RuleTiming.CREATE_UPDATE, Rule.RuleTiming.UPDATE_DELETE, Rule.RuleTiming.ALL));
       }
       return Collections.emptyList();
    }
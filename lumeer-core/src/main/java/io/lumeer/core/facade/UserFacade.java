@@ -45,6 +45,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.enterprise.context.RequestScoped;
@@ -239,6 +240,9 @@ public class UserFacade extends AbstractFacade {
       final var mergedUser = UserUtil.mergeUsers(storedUser, user);
       final var updatedUser = updateUserAndSendNotification(organizationId, storedUser.getId(), mergedUser);
 
+      if (!Objects.equals(storedUser.getEmail(), updatedUser.getEmail())) {
+         userCache.removeUser(storedUser.getEmail());
+      }
       userCache.updateUser(updatedUser.getEmail(), updatedUser);
 
       return updatedUser;
@@ -135,8 +135,9 @@ public class ViewFacade extends AbstractFacade {
    }
 
    private List<View> getViews(DatabaseQuery databaseQuery) {
+      final Set<String> readableViewIds = permissionsChecker.getReadableViewIds();
       return viewDao.getViews(databaseQuery).stream()
-                    .filter(view -> permissionsChecker.hasRole(view, Role.READ))
+                    .filter(view -> readableViewIds.contains(view.getId()))
                     .map(this::checkAuthorId)
                     .peek(view -> view.setAuthorRights(getViewAuthorRights(view)))
                     .map(this::mapResource)
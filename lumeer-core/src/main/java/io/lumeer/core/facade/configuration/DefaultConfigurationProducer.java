@@ -57,6 +57,7 @@ public class DefaultConfigurationProducer implements Serializable {
    public static final String PUSHER_KEY = "pusher_key";
    public static final String PUSHER_SECRET = "pusher_secret";
    public static final String PUSHER_CLUSTER = "pusher_cluster";
+   public static final String PUSHER_QUEUE_SIZE = "pusher_queue_size";
 
    public static final String S3_KEY = "s3_key";
    public static final String S3_SECRET = "s3_secret";
@@ -68,6 +69,16 @@ public class DefaultConfigurationProducer implements Serializable {
 
    public static final String LOCALE = "locale";
 
+   public static final String JS_TIMEOUT = "js_timeout";
+   public static final String FUNCTION_BATCH_SIZE = "function_batch_size";
+   public static final String TASK_QUEUE_SIZE = "task_queue_size";
+   public static final String TASK_COALESCE_WINDOW = "task_coalesce_window";
+
+   public static final String CACHE_TTL = "cache_ttl";
+   public static final String CACHE_MAX_SIZE = "cache_max_size";
+
+   public static final String FULLTEXT_INDEX = "fulltext_index";
+
    public DefaultConfigurationProducer() {
       defaultConfiguration = new HashMap<>();
 
@@ -27,7 +27,7 @@ import io.lumeer.api.model.User;
 import io.lumeer.api.model.common.WithId;
 import io.lumeer.core.auth.RequestDataKeeper;
 import io.lumeer.core.facade.PusherFacade;
-import io.lumeer.core.util.PusherClient;
+import io.lumeer.core.util.PusherDispatcher;
 import io.lumeer.storage.api.dao.context.DaoContextSnapshot;
 
 import org.marvec.pusher.data.BackupDataEvent;
@@ -45,15 +45,15 @@ public abstract class AbstractContextualTask implements ContextualTask {
 
    protected User initiator;
    protected DaoContextSnapshot daoContextSnapshot;
-   protected PusherClient pusherClient;
+   protected PusherDispatcher pusherDispatcher;
    protected Task parent;
    protected RequestDataKeeper requestDataKeeper;
 
    @Override
-   public ContextualTask initialize(final User initiator, final DaoContextSnapshot daoContextSnapshot, final PusherClient pusherClient, final RequestDataKeeper requestDataKeeper) {
+   public ContextualTask initialize(final User initiator, final DaoContextSnapshot daoContextSnapshot, final PusherDispatcher pusherDispatcher, final RequestDataKeeper requestDataKeeper) {
       this.initiator = initiator;
       this.daoContextSnapshot = daoContextSnapshot;
-      this.pusherClient = pusherClient;
+      this.pusherDispatcher = pusherDispatcher;
       this.requestDataKeeper = requestDataKeeper;
 
       return this;
@@ -65,8 +65,8 @@ public abstract class AbstractContextualTask implements ContextualTask {
    }
 
    @Override
-   public PusherClient getPusherClient() {
-      return pusherClient;
+   public PusherDispatcher getPusherDispatcher() {
+      return pusherDispatcher;
    }
 
    @Override
@@ -86,23 +86,23 @@ public abstract class AbstractContextualTask implements ContextualTask {
 
    @Override
    public void sendPushNotifications(final Collection collection) {
-      if (getPusherClient() != null) {
+      if (getPusherDispatcher() != null) {
          final Set<String> users = getDaoContextSnapshot().getCollectionManagers(collection.getId());
          final List<Event> events = users.stream().map(user -> createEventForCollection(collection, user)).collect(Collectors.toList());
 
-         getPusherClient().trigger(events);
+         getPusherDispatcher().submit(events);
       }
    }
 
    @Override
    public void sendPushNotifications(final LinkType linkType) {
-      if (getPusherClient() != null) {
+      if (getPusherDispatcher() != null) {
          final Set<String> users1 = getDaoContextSnapshot().getCollectionReaders(linkType.getCollectionIds().get(0));
          final Set<String> users2 = getDaoContextSnapshot().getCollectionReaders(linkType.getCollectionIds().get(1));
          final Set<String> users = users1.stream().filter(userId -> users2.contains(userId)).collect(Collectors.toSet());
          final List<Event> events = users.stream().map(user -> createEventForLinkType(linkType, user)).collect(Collectors.toList());
 
-         getPusherClient().trigger(events);
+         getPusherDispatcher().submit(events);
       }
    }
 
@@ -151,8 +151,8 @@ public abstract class AbstractContextualTask implements ContextualTask {
          collectionEvents.add(createEventForCollection(collection, userId));
       });
 
-      getPusherClient().trigger(events);
-      getPusherClient().trigger(collectionEvents);
+      getPusherDispatcher().submit(events);
+      getPusherDispatcher().submit(collectionEvents);
    }
 
    @Override
@@ -170,8 +170,8 @@ public abstract class AbstractContextualTask implements ContextualTask {
             linkInstanceEvents.add(createEventForLinkType(linkType, userId));
          });
 
-         getPusherClient().trigger(events);
-         getPusherClient().trigger(linkInstanceEvents);
+         getPusherDispatcher().submit(events);
+         getPusherDispatcher().submit(linkInstanceEvents);
       }
    }
 
@@ -186,7 +186,7 @@ public abstract class AbstractContextualTask implements ContextualTask {
          events.add(createEventForSequence(sequence, manager));
       });
 
-      getPusherClient().trigger(events);
+      getPusherDispatcher().submit(events);
    }
 
    private void injectCorrelationId(final PusherFacade.ObjectWithParent obj) {
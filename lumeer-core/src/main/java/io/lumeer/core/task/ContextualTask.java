@@ -24,7 +24,7 @@ import io.lumeer.api.model.LinkInstance;
 import io.lumeer.api.model.LinkType;
 import io.lumeer.api.model.User;
 import io.lumeer.core.auth.RequestDataKeeper;
-import io.lumeer.core.util.PusherClient;
+import io.lumeer.core.util.PusherDispatcher;
 import io.lumeer.storage.api.dao.context.DaoContextSnapshot;
 
 import java.util.List;
@@ -34,10 +34,10 @@ import java.util.List;
  */
 public interface ContextualTask extends Task {
 
-   ContextualTask initialize(final User initiator, final DaoContextSnapshot daoContextSnapshot, final PusherClient pusherClient, final RequestDataKeeper requestDataKeeper);
+   ContextualTask initialize(final User initiator, final DaoContextSnapshot daoContextSnapshot, final PusherDispatcher pusherDispatcher, final RequestDataKeeper requestDataKeeper);
 
    DaoContextSnapshot getDaoContextSnapshot();
-   PusherClient getPusherClient();
+   PusherDispatcher getPusherDispatcher();
    User getInitiator();
 
    /**
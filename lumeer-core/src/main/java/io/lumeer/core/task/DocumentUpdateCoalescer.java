@@ -0,0 +1,152 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.core.task;
+
+import io.lumeer.api.model.Document;
+import io.lumeer.core.facade.configuration.DefaultConfigurationProducer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+/**
+ * Merges successive updates of the same document into a single task. The first update of a document opens a time window,
+ * every further update within the window replaces the pending task with a new one computed from the document state
+ * before the first update. Once the window elapses, the latest task is submitted to the {@link TaskExecutor}.
+ */
+@ApplicationScoped
+public class DocumentUpdateCoalescer {
+
+   private static final long DEFAULT_WINDOW = 300;
+
+   @Inject
+   private TaskExecutor taskExecutor;
+
+   @Inject
+   private DefaultConfigurationProducer defaultConfigurationProducer;
+
+   @Inject
+   private Logger log;
+
+   private final Map<String, PendingUpdate> pendingUpdates = new ConcurrentHashMap<>();
+
+   private ScheduledExecutorService scheduler;
+
+   private long window = DEFAULT_WINDOW;
+
+   @PostConstruct
+   public void init() {
+      final String windowValue = defaultConfigurationProducer.get(DefaultConfigurationProducer.TASK_COALESCE_WINDOW);
+
+      if (windowValue != null && !"".equals(windowValue)) {
+         try {
+            window = Long.parseLong(windowValue);
+         } catch (NumberFormatException nfe) {
+            log.log(Level.WARNING, "Invalid task coalescing window: " + windowValue);
+         }
+      }
+
+      scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+         final Thread thread = new Thread(runnable, "lumeer-task-coalescer");
+         thread.setDaemon(true);
+         return thread;
+      });
+   }
+
+   @PreDestroy
+   public void shutdown() {
+      scheduler.shutdown();
+   }
+
+   /**
+    * Registers an update of the document.
+    *
+    * @param documentId Id of the updated document.
+    * @param originalDocument The document before this update.
+    * @param taskFactory Creates the task for a change from the given original document to the current state, might return null.
+    */
+   public void submit(final String documentId, final Document originalDocument, final Function<Document, Task> taskFactory) {
+      if (window <= 0) {
+         final Task task = taskFactory.apply(originalDocument);
+         if (task != null) {
+            taskExecutor.submitTask(task);
+         }
+
+         return;
+      }
+
+      while (true) {
+         final PendingUpdate pendingUpdate = pendingUpdates.computeIfAbsent(documentId, id -> new PendingUpdate(originalDocument));
+
+         synchronized (pendingUpdate) {
+            if (pendingUpdate.submitted) {
+               // the window has just elapsed, start a new one
+               continue;
+            }
+
+            pendingUpdate.task = taskFactory.apply(pendingUpdate.originalDocument);
+
+            if (!pendingUpdate.scheduled) {
+               pendingUpdate.scheduled = true;
+               scheduler.schedule(() -> submitPending(documentId, pendingUpdate), window, TimeUnit.MILLISECONDS);
+            }
+
+            return;
+         }
+      }
+   }
+
+   private void submitPending(final String documentId, final PendingUpdate pendingUpdate) {
+      final Task task;
+
+      synchronized (pendingUpdate) {
+         pendingUpdate.submitted = true;
+         pendingUpdates.remove(documentId, pendingUpdate);
+         task = pendingUpdate.task;
+      }
+
+      if (task != null) {
+         try {
+            taskExecutor.submitTask(task);
+         } catch (Exception e) {
+            log.log(Level.WARNING, "Unable to submit coalesced task: ", e);
+         }
+      }
+   }
+
+   private static class PendingUpdate {
+      private final Document originalDocument;
+      private Task task;
+      private boolean scheduled = false;
+      private boolean submitted = false;
+
+      private PendingUpdate(final Document originalDocument) {
+         this.originalDocument = originalDocument;
+      }
+   }
+}
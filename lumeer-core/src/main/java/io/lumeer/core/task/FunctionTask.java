@@ -23,16 +23,22 @@ import io.lumeer.api.model.Collection;
 import io.lumeer.api.model.Document;
 import io.lumeer.api.model.LinkInstance;
 import io.lumeer.api.model.LinkType;
+import io.lumeer.api.model.common.WithId;
 import io.lumeer.api.model.function.Function;
 import io.lumeer.core.constraint.ConstraintManager;
 import io.lumeer.core.facade.configuration.DefaultConfigurationProducer;
 import io.lumeer.core.task.executor.FunctionTaskExecutor;
+import io.lumeer.core.task.executor.JsExecutor;
 import io.lumeer.engine.api.data.DataDocument;
 
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 public class FunctionTask extends AbstractContextualTask {
@@ -43,8 +49,14 @@ public class FunctionTask extends AbstractContextualTask {
    private LinkType linkType;
    private Set<LinkInstance> linkInstances;
 
+   private static Logger log = Logger.getLogger(FunctionTask.class.getName());
+
+   private static final int DEFAULT_BATCH_SIZE = 500;
+   private static final int MAX_DEDUPLICATION_ITEMS = 100;
+
    private static DefaultConfigurationProducer configurationProducer = new DefaultConfigurationProducer();
    private static ConstraintManager constraintManager = ConstraintManager.getInstance(configurationProducer);
+   private static final int BATCH_SIZE = getBatchSize();
 
    public void setFunctionTask(final Attribute attribute, final Collection collection, final Set<Document> documents, final  Task parent) {
       this.attribute = attribute;
@@ -88,18 +100,36 @@ public class FunctionTask extends AbstractContextualTask {
       return linkInstances;
    }
 
+   @Override
+   public String getDeduplicationKey() {
+      final String ownKey;
+
+      if (documents != null && collection != null && documents.size() <= MAX_DEDUPLICATION_ITEMS) {
+         ownKey = "C" + collection.getId() + ":" + attribute.getId() + ":" + documents.stream().map(Document::getId).sorted().collect(Collectors.joining(","));
+      } else if (linkInstances != null && linkType != null && linkInstances.size() <= MAX_DEDUPLICATION_ITEMS) {
+         ownKey = "L" + linkType.getId() + ":" + attribute.getId() + ":" + linkInstances.stream().map(LinkInstance::getId).sorted().collect(Collectors.joining(","));
+      } else {
+         return null;
+      }
+
+      if (parent == null) {
+         return ownKey;
+      }
+
+      final String parentKey = parent.getDeduplicationKey();
+      return parentKey != null ? ownKey + "|" + parentKey : null;
+   }
+
    @Override
    public void process() {
       if (documents != null && collection != null) {
-         getDocumentsWithData(collection, documents).forEach(document -> {
-            final FunctionTaskExecutor executor = new FunctionTaskExecutor(this, collection, document);
-            executor.execute();
-         });
+         processInBatches(documents, batch ->
+               executeBatch(getDocumentsWithData(collection, batch), document -> new FunctionTaskExecutor(this, collection, document))
+         );
       } else if (linkType != null && linkInstances != null) {
-         getLinkInstancesWithData(linkType, linkInstances).forEach(linkInstance -> {
-            final FunctionTaskExecutor executor = new FunctionTaskExecutor(this, linkType, linkInstance);
-            executor.execute();
-         });
+         processInBatches(linkInstances, batch ->
+               executeBatch(getLinkInstancesWithData(linkType, batch), linkInstance -> new FunctionTaskExecutor(this, linkType, linkInstance))
+         );
       }
 
       if (parent != null) {
@@ -107,6 +137,62 @@ public class FunctionTask extends AbstractContextualTask {
       }
    }
 
+   private <T> void processInBatches(final Set<T> items, final Consumer<Set<T>> batchConsumer) {
+      final Iterator<T> iterator = items.iterator();
+
+      while (iterator.hasNext()) {
+         final Set<T> batch = new HashSet<>();
+         while (iterator.hasNext() && batch.size() < BATCH_SIZE) {
+            batch.add(iterator.next());
+         }
+
+         batchConsumer.accept(batch);
+      }
+   }
+
+   /**
+    * Evaluates the function for all items and writes the resulting changes together. A failure of one item
+    * is reported and does not affect the results of the others.
+    */
+   private <T extends WithId> void executeBatch(final Set<T> items, final java.util.function.Function<T, FunctionTaskExecutor> executorFactory) {
+      final JsExecutor jsExecutor = new JsExecutor();
+      jsExecutor.setBatchMode(true);
+
+      int failed = 0;
+      for (final T item : items) {
+         try {
+            executorFactory.apply(item).execute(jsExecutor);
+         } catch (Exception e) {
+            failed++;
+            log.log(Level.WARNING, "Unable to execute function for " + item.getId() + ": ", e);
+         }
+      }
+
+      if (failed > 0) {
+         log.log(Level.WARNING, String.format("Function failed for %d of %d items.", failed, items.size()));
+      }
+
+      try {
+         jsExecutor.flushChanges();
+      } catch (Exception e) {
+         log.log(Level.WARNING, "Unable to store results of function: ", e);
+      }
+   }
+
+   private static int getBatchSize() {
+      final String batchSize = configurationProducer.get(DefaultConfigurationProducer.FUNCTION_BATCH_SIZE);
+
+      if (batchSize != null && !"".equals(batchSize)) {
+         try {
+            return Math.max(1, Integer.parseInt(batchSize));
+         } catch (NumberFormatException nfe) {
+            log.log(Level.WARNING, "Invalid function batch size: " + batchSize);
+         }
+      }
+
+      return DEFAULT_BATCH_SIZE;
+   }
+
    private Set<Document> getDocumentsWithData(final Collection collection, final Set<Document> documents) {
       if (documents.isEmpty()) {
          return Collections.emptySet();
@@ -32,4 +32,14 @@ public interface Task extends Serializable {
    Task getParent();
 
    void process();
+
+   /**
+    * Gets a key identifying tasks with the same effect. A task is not queued when another task with the same key
+    * is still waiting to be processed.
+    *
+    * @return The key or null when the task must always be processed.
+    */
+   default String getDeduplicationKey() {
+      return null;
+   }
 }
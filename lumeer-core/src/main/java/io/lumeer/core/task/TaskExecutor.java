@@ -18,24 +18,190 @@
  */
 package io.lumeer.core.task;
 
+import io.lumeer.core.facade.configuration.DefaultConfigurationProducer;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.PostConstruct;
 import javax.enterprise.concurrent.ManagedExecutorService;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
 /**
- * Executes tasks in background.
+ * Executes tasks in background. Tasks of the same project are processed serially in the order they were submitted,
+ * different projects are processed in parallel. A project gives up its thread after each task so that a project
+ * with many pending tasks does not starve the others.
  *
  * @author <a href="mailto:marvenec@gmail.com">Martin Večeřa</a>
  */
 @ApplicationScoped
 public class TaskExecutor {
 
+   private static final int DEFAULT_QUEUE_SIZE = 1000;
+   private static final String DEFAULT_QUEUE = "";
+
    @Inject
    private ManagedExecutorService executorService;
 
-   public void submitTask(final Task task) {
-      executorService.submit(() -> {
-         task.process();
-      });
+   @Inject
+   private DefaultConfigurationProducer defaultConfigurationProducer;
+
+   @Inject
+   private Logger log;
+
+   private final Map<String, TaskQueue> queues = new ConcurrentHashMap<>();
+
+   private int queueSize = DEFAULT_QUEUE_SIZE;
+
+   private final AtomicLong submittedTasks = new AtomicLong();
+   private final AtomicLong rejectedTasks = new AtomicLong();
+   private final AtomicLong coalescedTasks = new AtomicLong();
+   private final AtomicLong failedTasks = new AtomicLong();
+
+   @PostConstruct
+   public void init() {
+      final String size = defaultConfigurationProducer.get(DefaultConfigurationProducer.TASK_QUEUE_SIZE);
+
+      if (size != null && !"".equals(size)) {
+         try {
+            queueSize = Math.max(1, Integer.parseInt(size));
+         } catch (NumberFormatException nfe) {
+            log.log(Level.WARNING, "Invalid task queue size: " + size);
+         }
+      }
+   }
+
+   /**
+    * Submits the task to the queue of its project.
+    *
+    * @param task The task to process.
+    * @return True when the task was accepted or an equal task is already pending, false when the queue is full.
+    */
+   public boolean submitTask(final Task task) {
+      final TaskQueue queue = queues.computeIfAbsent(getQueueKey(task), key -> new TaskQueue());
+
+      submittedTasks.incrementAndGet();
+
+      synchronized (queue) {
+         final String deduplicationKey = task.getDeduplicationKey();
+         if (deduplicationKey != null && queue.pendingKeys.contains(deduplicationKey)) {
+            coalescedTasks.incrementAndGet();
+            return true;
+         }
+
+         if (queue.pending.size() >= queueSize) {
+            rejectedTasks.incrementAndGet();
+            log.log(Level.WARNING, "Task queue is full, rejecting task " + task.getClass().getSimpleName());
+            return false;
+         }
+
+         queue.pending.add(task);
+         if (deduplicationKey != null) {
+            queue.pendingKeys.add(deduplicationKey);
+         }
+
+         if (!queue.running) {
+            queue.running = true;
+
+            try {
+               executorService.submit(() -> processNext(queue));
+            } catch (RejectedExecutionException e) {
+               queue.running = false;
+               queue.pending.removeLast();
+               if (deduplicationKey != null) {
+                  queue.pendingKeys.remove(deduplicationKey);
+               }
+               rejectedTasks.incrementAndGet();
+               log.log(Level.WARNING, "Unable to schedule task: ", e);
+
+               return false;
+            }
+         }
+      }
+
+      return true;
+   }
+
+   private void processNext(final TaskQueue queue) {
+      boolean continueHere = true;
+
+      while (continueHere) {
+         final Task task;
+
+         synchronized (queue) {
+            task = queue.pending.poll();
+
+            if (task == null) {
+               queue.running = false;
+               return;
+            }
+
+            if (task.getDeduplicationKey() != null) {
+               queue.pendingKeys.remove(task.getDeduplicationKey());
+            }
+         }
+
+         try {
+            task.process();
+         } catch (Exception e) {
+            failedTasks.incrementAndGet();
+            log.log(Level.WARNING, "Unable to process task: ", e);
+         }
+
+         // go to the end of the executor queue to let other projects proceed
+         try {
+            executorService.submit(() -> processNext(queue));
+            continueHere = false;
+         } catch (RejectedExecutionException e) {
+            log.log(Level.WARNING, "Unable to schedule next task, continuing in the current thread: ", e);
+         }
+      }
+   }
+
+   private String getQueueKey(final Task task) {
+      if (task instanceof ContextualTask && ((ContextualTask) task).getDaoContextSnapshot() != null) {
+         final ContextualTask contextualTask = (ContextualTask) task;
+         return contextualTask.getDaoContextSnapshot().getOrganizationId() + "/" + contextualTask.getDaoContextSnapshot().getProjectId();
+      }
+
+      return DEFAULT_QUEUE;
+   }
+
+   public long getSubmittedTasks() {
+      return submittedTasks.get();
+   }
+
+   public long getRejectedTasks() {
+      return rejectedTasks.get();
+   }
+
+   public long getCoalescedTasks() {
+      return coalescedTasks.get();
+   }
+
+   public long getFailedTasks() {
+      return failedTasks.get();
+   }
+
+   public int getPendingTasks() {
+      return queues.values().stream().mapToInt(queue -> {
+         synchronized (queue) {
+            return queue.pending.size();
+         }
+      }).sum();
+   }
+
+   private static class TaskQueue {
+      private final Deque<Task> pending = new ArrayDeque<>();
+      private final Set<String> pendingKeys = new HashSet<>();
+      private boolean running = false;
    }
 }
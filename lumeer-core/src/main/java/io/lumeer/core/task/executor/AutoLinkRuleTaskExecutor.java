@@ -133,6 +133,7 @@ public class AutoLinkRuleTaskExecutor {
       final SearchQueryStem queryStem = SearchQueryStem
             .createBuilder(thatCollection)
             .filters(Set.of(new CollectionSearchAttributeFilter(thatCollection, ConditionType.EQUALS, thatAttribute, value)))
+            .attributeIds(Collections.emptySet())
             .build();
 
       final List<String> targetDocuments = ruleTask.getDaoContextSnapshot().getDataDao()
@@ -157,7 +158,7 @@ public class AutoLinkRuleTaskExecutor {
    }
 
    private void sendPushNotifications(final String thisCollection, final String thatCollection, final List<LinkInstance> links, final boolean removeOperation) {
-      if (ruleTask.getPusherClient() != null) {
+      if (ruleTask.getPusherDispatcher() != null) {
          final Set<String> users1 = ruleTask.getDaoContextSnapshot().getCollectionReaders(thisCollection);
          final Set<String> users2 = ruleTask.getDaoContextSnapshot().getCollectionReaders(thatCollection);
          final Set<String> users = users1.stream().filter(users2::contains).collect(Collectors.toSet());
@@ -181,7 +182,7 @@ public class AutoLinkRuleTaskExecutor {
             });
          });
 
-         ruleTask.getPusherClient().trigger(events);
+         ruleTask.getPusherDispatcher().submit(events);
       }
    }
 }
\ No newline at end of file
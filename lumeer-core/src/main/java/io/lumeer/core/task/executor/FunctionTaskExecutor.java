@@ -58,12 +58,19 @@ public class FunctionTaskExecutor {
    }
 
    public void execute() {
+      execute(new JsExecutor());
+   }
+
+   /**
+    * Executes the function using the provided executor, which might be shared among more executions in batch mode.
+    *
+    * @param jsExecutor The JavaScript executor to use.
+    */
+   public void execute(final JsExecutor jsExecutor) {
       final JsExecutor.DocumentBridge thisDocument = new JsExecutor.DocumentBridge(document);
       final JsExecutor.LinkBridge thisLink = new JsExecutor.LinkBridge(linkInstance);
       final Map<String, Object> bindings = linkInstance == null ? Map.of("thisDocument", thisDocument) : Map.of("thisLink", thisLink);
 
-      final JsExecutor jsExecutor = new JsExecutor();
-
       try {
          jsExecutor.execute(bindings, task, collection, task.getFunction().getJs());
          jsExecutor.commitChanges();
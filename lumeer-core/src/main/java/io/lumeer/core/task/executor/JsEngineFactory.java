@@ -0,0 +1,84 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.core.task.executor;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Source;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds a single polyglot engine shared by all JavaScript executions and a cache of parsed sources.
+ * Contexts created from a shared engine are cheap and reuse the code already compiled for the same source.
+ */
+public class JsEngineFactory {
+
+   private static final int MAX_CACHED_SOURCES = 1000;
+
+   private static final JsEngineFactory INSTANCE = new JsEngineFactory();
+
+   private final Engine engine;
+   private final Map<String, Source> sources = new ConcurrentHashMap<>();
+
+   private JsEngineFactory() {
+      engine = Engine
+            .newBuilder()
+            .allowExperimentalOptions(true)
+            .option("js.experimental-foreign-object-prototype", "true")
+            .build();
+   }
+
+   public static JsEngineFactory getInstance() {
+      return INSTANCE;
+   }
+
+   /**
+    * Creates a new initialized context bound to the shared engine. The caller is responsible for closing it.
+    *
+    * @return A new JavaScript context.
+    */
+   public Context createContext() {
+      final Context context = Context
+            .newBuilder("js")
+            .engine(engine)
+            .allowAllAccess(true)
+            .build();
+      context.initialize("js");
+
+      return context;
+   }
+
+   /**
+    * Gets the parsed source for the given script. Sources are cached by their code so that the engine
+    * can reuse compiled code of the same function or rule among executions.
+    *
+    * @param js The JavaScript code.
+    * @return The cached source.
+    */
+   public Source getSource(final String js) {
+      if (sources.size() >= MAX_CACHED_SOURCES && !sources.containsKey(js)) {
+         sources.clear();
+      }
+
+      return sources.computeIfAbsent(js, code ->
+            Source.newBuilder("js", code, "fce_" + Integer.toHexString(code.hashCode()) + ".js").cached(true).buildLiteral());
+   }
+}
@@ -35,7 +35,6 @@ import io.lumeer.storage.api.query.SearchQuery;
 import io.lumeer.storage.api.query.SearchQueryStem;
 
 import org.graalvm.polyglot.Context;
-import org.graalvm.polyglot.Engine;
 import org.graalvm.polyglot.Value;
 
 import java.math.BigDecimal;
@@ -45,12 +44,12 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ScheduledFuture;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
@@ -60,6 +59,8 @@ public class JsExecutor {
 
    private LumeerBridge lumeerBridge;
    private boolean dryRun = false;
+   private boolean batchMode = false;
+   private final List<Change> pendingChanges = new ArrayList<>();
 
    public static class LumeerBridge {
 
@@ -67,7 +68,7 @@ public class JsExecutor {
       private static ConstraintManager constraintManager = ConstraintManager.getInstance(configurationProducer);
       private ContextualTask ruleTask;
       private Collection collection;
-      private Set<Change> changes = new HashSet<>();
+      private Set<Change> changes = new LinkedHashSet<>();
       private Exception cause = null;
       private boolean dryRun = false;
 
@@ -288,6 +289,8 @@ public class JsExecutor {
          }
 
          final Map<String, List<Document>> updatedDocuments = new HashMap<>(); // Collection -> [Document]
+         final Map<String, Map<String, DataDocument>> newDataByCollection = new HashMap<>(); // Collection -> (Document -> DataDocument)
+         final Map<String, Document> documentsMap = new HashMap<>();
          Map<String, Set<String>> documentIdsByCollection = changes.stream().map(change -> change.getEntity())
                                                                    .collect(Collectors.groupingBy(Document::getCollectionId, mapping(Document::getId, toSet())));
          final Map<String, Collection> collectionsMap = ruleTask.getDaoContextSnapshot().getCollectionDao().getCollectionsByIds(documentIdsByCollection.keySet())
@@ -315,24 +318,35 @@ public class JsExecutor {
             document.setUpdatedBy(ruleTask.getInitiator().getId());
             document.setUpdateDate(ZonedDateTime.now());
 
-            DataDocument patchedData = ruleTask.getDaoContextSnapshot().getDataDao()
-                                               .patchData(documentChange.getEntity().getCollectionId(), documentChange.getEntity().getId(), newData);
-
-            Document updatedDocument = ruleTask.getDaoContextSnapshot().getDocumentDao()
-                                               .updateDocument(document.getId(), document, null);
-
-            constraintManager.decodeDataTypes(collection, patchedData);
-            updatedDocument.setData(patchedData);
+            newDataByCollection.computeIfAbsent(document.getCollectionId(), key -> new HashMap<>())
+                               .computeIfAbsent(document.getId(), key -> new DataDocument())
+                               .putAll(newData);
+            documentsMap.put(document.getId(), document);
+         });
 
-            updatedDocuments.computeIfAbsent(documentChange.getEntity().getCollectionId(), key -> new ArrayList<>())
-                            .add(updatedDocument);
+         // write all changes of a collection at once
+         newDataByCollection.forEach((collectionId, newData) -> {
+            final Collection collection = collectionsMap.get(collectionId);
+            final Map<String, DataDocument> patchedData = ruleTask.getDaoContextSnapshot().getDataDao()
+                                                                  .patchData(collectionId, newData)
+                                                                  .stream().collect(Collectors.toMap(DataDocument::getId, data -> data));
+            final List<Document> documents = newData.keySet().stream().map(documentsMap::get).collect(Collectors.toList());
+
+            ruleTask.getDaoContextSnapshot().getDocumentDao().updateDocuments(documents).forEach(updatedDocument -> {
+               final DataDocument data = patchedData.get(updatedDocument.getId());
+               constraintManager.decodeDataTypes(collection, data);
+               updatedDocument.setData(data);
+
+               updatedDocuments.computeIfAbsent(collectionId, key -> new ArrayList<>())
+                               .add(updatedDocument);
+            });
          });
 
          collectionsChanged.forEach(collectionId -> ruleTask.getDaoContextSnapshot()
                                                             .getCollectionDao().updateCollection(collectionId, collectionsMap.get(collectionId), null));
 
          // send push notification
-         if (ruleTask.getPusherClient() != null) {
+         if (ruleTask.getPusherDispatcher() != null) {
             updatedDocuments.keySet().forEach(collectionId ->
                   ruleTask.sendPushNotifications(collectionsMap.get(collectionId), updatedDocuments.get(collectionId))
             );
@@ -386,7 +400,7 @@ public class JsExecutor {
                                                         .getLinkTypeDao().updateLinkType(linkTypeId, linkTypesMap.get(linkTypeId), null));
 
          // send push notification
-         if (ruleTask.getPusherClient() != null) {
+         if (ruleTask.getPusherDispatcher() != null) {
             updatedLinks.keySet().forEach(linkTypeId ->
                   ruleTask.sendPushNotifications(linkTypesMap.get(linkTypeId), updatedLinks.get(linkTypeId))
             );
@@ -398,15 +412,19 @@ public class JsExecutor {
             return;
          }
 
+         validateChanges();
+
+         commitDocumentChanges(changes.stream().filter(change -> change instanceof DocumentChange && change.isComplete()).map(change -> (DocumentChange) change).collect(Collectors.toList()));
+         commitLinkChanges(changes.stream().filter(change -> change instanceof LinkChange && change.isComplete()).map(change -> (LinkChange) change).collect(Collectors.toList()));
+      }
+
+      void validateChanges() {
          final List<Change> invalidChanges = changes.stream().filter(change -> !change.isComplete()).collect(Collectors.toList());
          if (invalidChanges.size() > 0) {
             final StringBuilder sb = new StringBuilder();
             invalidChanges.forEach(change -> sb.append("Invalid update request: " + change.toString() + "\n"));
             throw new IllegalArgumentException(sb.toString());
          }
-
-         commitDocumentChanges(changes.stream().filter(change -> change instanceof DocumentChange && change.isComplete()).map(change -> (DocumentChange) change).collect(Collectors.toList()));
-         commitLinkChanges(changes.stream().filter(change -> change instanceof LinkChange && change.isComplete()).map(change -> (LinkChange) change).collect(Collectors.toList()));
       }
 
       String getChanges() {
@@ -530,33 +548,42 @@ public class JsExecutor {
       lumeerBridge = new LumeerBridge(task, collection);
       lumeerBridge.dryRun = dryRun;
 
-      Context context = Context
-            .newBuilder("js")
-            .engine(Engine
-                  .newBuilder()
-                  .allowExperimentalOptions(true)
-                  .option("js.experimental-foreign-object-prototype", "true")
-                  .build())
-            .allowAllAccess(true)
-            .build();
-      context.initialize("js");
+      // every execution gets its own context so that globals of the script never leak to the next one,
+      // the shared engine still reuses the compiled code
+      final JsEngineFactory engineFactory = JsEngineFactory.getInstance();
+      final Context context = engineFactory.createContext();
       context.getPolyglotBindings().putMember("lumeer", lumeerBridge);
 
       bindings.forEach((k, v) -> context.getBindings("js").putMember(k, v));
 
-      Timer timer = new Timer(true);
-      timer.schedule(new TimerTask() {
-         @Override
-         public void run() {
-            context.close(true);
-         }
-      }, 3000);
+      final ScheduledFuture<?> watch = JsTimeoutWatchdog.getInstance().watch(context);
 
-      context.eval("js", js);
+      try {
+         context.eval(engineFactory.getSource(js));
+      } finally {
+         watch.cancel(false);
+         context.close(true);
+      }
    }
 
    public void commitChanges() {
-      lumeerBridge.commitChanges();
+      if (batchMode) {
+         lumeerBridge.validateChanges();
+         pendingChanges.addAll(lumeerBridge.changes);
+      } else {
+         lumeerBridge.commitChanges();
+      }
+   }
+
+   /**
+    * Writes all changes collected in batch mode at once.
+    */
+   public void flushChanges() {
+      if (lumeerBridge != null && pendingChanges.size() > 0) {
+         lumeerBridge.changes = new LinkedHashSet<>(pendingChanges);
+         pendingChanges.clear();
+         lumeerBridge.commitChanges();
+      }
    }
 
    public String getChanges() {
@@ -564,8 +591,16 @@ public class JsExecutor {
    }
 
    public void setErrorInAttribute(final Document document, final String attributeId) {
-      lumeerBridge.changes = Set.of(new DocumentChange(document, attributeId, "ERR!"));
-      lumeerBridge.commitChanges();
+      final DocumentChange change = new DocumentChange(document, attributeId, "ERR!");
+
+      if (batchMode) {
+         if (change.isComplete()) {
+            pendingChanges.add(change);
+         }
+      } else {
+         lumeerBridge.changes = Set.of(change);
+         lumeerBridge.commitChanges();
+      }
    }
 
    public Exception getCause() {
@@ -579,4 +614,17 @@ public class JsExecutor {
    public void setDryRun(final boolean dryRun) {
       this.dryRun = dryRun;
    }
+
+   public boolean isBatchMode() {
+      return batchMode;
+   }
+
+   /**
+    * In batch mode, changes of subsequent executions are kept until {@link #flushChanges()} is called.
+    *
+    * @param batchMode Whether to run in batch mode.
+    */
+   public void setBatchMode(final boolean batchMode) {
+      this.batchMode = batchMode;
+   }
 }
@@ -0,0 +1,103 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.core.task.executor;
+
+import io.lumeer.core.facade.configuration.DefaultConfigurationProducer;
+
+import org.graalvm.polyglot.Context;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Single scheduler thread that terminates JavaScript contexts running longer than the configured time budget.
+ * Every execution registers its context before evaluation and cancels the watch once it is finished.
+ */
+public class JsTimeoutWatchdog {
+
+   private static Logger log = Logger.getLogger(JsTimeoutWatchdog.class.getName());
+
+   private static final long DEFAULT_TIMEOUT = 3000;
+
+   private static final JsTimeoutWatchdog INSTANCE = new JsTimeoutWatchdog(new DefaultConfigurationProducer());
+
+   private final ScheduledThreadPoolExecutor scheduler;
+   private final long timeout;
+   private final AtomicLong executions = new AtomicLong();
+   private final AtomicLong timeouts = new AtomicLong();
+
+   private JsTimeoutWatchdog(final DefaultConfigurationProducer configurationProducer) {
+      timeout = parseTimeout(configurationProducer.get(DefaultConfigurationProducer.JS_TIMEOUT));
+
+      scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+         final Thread thread = new Thread(runnable, "lumeer-js-watchdog");
+         thread.setDaemon(true);
+         return thread;
+      });
+      scheduler.setRemoveOnCancelPolicy(true);
+   }
+
+   public static JsTimeoutWatchdog getInstance() {
+      return INSTANCE;
+   }
+
+   private static long parseTimeout(final String value) {
+      if (value != null && !"".equals(value)) {
+         try {
+            return Long.parseLong(value);
+         } catch (NumberFormatException nfe) {
+            log.log(Level.WARNING, "Invalid JavaScript timeout value: " + value);
+         }
+      }
+
+      return DEFAULT_TIMEOUT;
+   }
+
+   /**
+    * Starts watching the given context. The returned future must be cancelled when the script finishes.
+    *
+    * @param context The context to close once the time budget is exceeded.
+    * @return The scheduled termination.
+    */
+   public ScheduledFuture<?> watch(final Context context) {
+      executions.incrementAndGet();
+
+      return scheduler.schedule(() -> {
+         timeouts.incrementAndGet();
+         log.log(Level.FINE, "Terminating JavaScript execution exceeding " + timeout + " ms.");
+         context.close(true);
+      }, timeout, TimeUnit.MILLISECONDS);
+   }
+
+   public long getTimeout() {
+      return timeout;
+   }
+
+   public long getExecutions() {
+      return executions.get();
+   }
+
+   public long getTimeouts() {
+      return timeouts.get();
+   }
+}
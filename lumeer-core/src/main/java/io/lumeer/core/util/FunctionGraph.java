@@ -0,0 +1,74 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.core.util;
+
+import io.lumeer.api.model.function.FunctionResourceType;
+import io.lumeer.api.model.function.FunctionRow;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index of all function dependencies in a project. Answers the same questions as the function
+ * rows repository without going to the database.
+ */
+public class FunctionGraph {
+
+   private final Map<String, List<FunctionRow>> rowsByDependentCollection;
+   private final Map<String, List<FunctionRow>> rowsByDependentLinkType;
+   private final Map<String, List<FunctionRow>> rowsByResource;
+
+   public FunctionGraph(final Collection<FunctionRow> rows) {
+      rowsByDependentCollection = rows.stream().filter(row -> row.getDependentCollectionId() != null).collect(Collectors.groupingBy(FunctionRow::getDependentCollectionId));
+      rowsByDependentLinkType = rows.stream().filter(row -> row.getDependentLinkTypeId() != null).collect(Collectors.groupingBy(FunctionRow::getDependentLinkTypeId));
+      rowsByResource = rows.stream().filter(row -> row.getResourceId() != null && row.getType() != null).collect(Collectors.groupingBy(row -> resourceKey(row.getResourceId(), row.getType())));
+   }
+
+   private static String resourceKey(final String resourceId, final FunctionResourceType type) {
+      return type.toString() + ":" + resourceId;
+   }
+
+   public List<FunctionRow> searchByDependentCollection(final String collectionId, final String attributeId) {
+      return filterByAttribute(rowsByDependentCollection.get(collectionId), attributeId, FunctionRow::getDependentAttributeId);
+   }
+
+   public List<FunctionRow> searchByDependentLinkType(final String linkTypeId, final String attributeId) {
+      return filterByAttribute(rowsByDependentLinkType.get(linkTypeId), attributeId, FunctionRow::getDependentAttributeId);
+   }
+
+   public List<FunctionRow> searchByResource(final String resourceId, final String attributeId, final FunctionResourceType type) {
+      return filterByAttribute(rowsByResource.get(resourceKey(resourceId, type)), attributeId, FunctionRow::getAttributeId);
+   }
+
+   private List<FunctionRow> filterByAttribute(final List<FunctionRow> rows, final String attributeId, final java.util.function.Function<FunctionRow, String> attributeGetter) {
+      if (rows == null) {
+         return Collections.emptyList();
+      }
+
+      if (attributeId == null) {
+         return rows;
+      }
+
+      return rows.stream().filter(row -> attributeId.equals(attributeGetter.apply(row))).collect(Collectors.toList());
+   }
+}
@@ -20,9 +20,12 @@ package io.lumeer.core.util;
 
 import io.lumeer.api.model.function.FunctionParameter;
 
+import java.util.ArrayDeque;
+import java.util.Collections;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -32,43 +35,51 @@ import java.util.Set;
  */
 public class FunctionOrder {
 
+   /**
+    * Orders the functions so that each function follows the functions it depends on. Runs in O(V+E) using
+    * an iterative depth-first search, dependencies forming a cycle are broken at the point where the cycle is detected.
+    *
+    * @param dependencies Map of functions to the functions they depend on.
+    * @param <T> Type of function parameter.
+    * @return Ordered keys of the dependencies map, the instances are those used as the keys.
+    */
    public static <T extends FunctionParameter> Deque<T> orderFunctions(final Map<T, List<T>> dependencies) {
-      final Deque<T> result = new LinkedList<>();
+      final Deque<T> result = new ArrayDeque<>(dependencies.size());
+      final Map<T, T> keys = new HashMap<>(dependencies.size());
+      dependencies.keySet().forEach(param -> keys.put(param, param));
 
-      dependencies.keySet().forEach(param -> {
-         final Set<T> visited = new HashSet<>(Set.of(param)); //new HashSet<>();
-         findParent(result, param, visited, dependencies);
-      });
+      final Set<T> visited = new HashSet<>();
+      final Deque<T> path = new ArrayDeque<>();
+      final Deque<Iterator<T>> pathIterators = new ArrayDeque<>();
+
+      dependencies.keySet().forEach(root -> {
+         if (visited.add(root)) {
+            path.push(root);
+            pathIterators.push(dependenciesIterator(dependencies, root));
+
+            while (!path.isEmpty()) {
+               final Iterator<T> iterator = pathIterators.peek();
 
-      dependencies.keySet().forEach(param -> {
-         if (!result.contains(param)) {
-            result.add(param);
+               if (iterator.hasNext()) {
+                  final T param = keys.get(iterator.next());
+                  if (param != null && visited.add(param)) {
+                     path.push(param);
+                     pathIterators.push(dependenciesIterator(dependencies, param));
+                  }
+               } else {
+                  result.add(path.pop());
+                  pathIterators.pop();
+               }
+            }
          }
       });
 
-      result.removeIf(param -> !dependencies.containsKey(param));
-
       return result;
    }
 
-   private static <T extends FunctionParameter> void findParent(final Deque<T> result, final T root, final Set<T> visited, final Map<T, List<T>> dependencies) {
-      List<T> depNodes = dependencies.get(root);
-
-      if (depNodes != null) {
-         depNodes.forEach(param -> {
-            if (!visited.contains(param) && !result.contains(param) && !param.equals(root)) {
-               visited.add(param);
-               if (dependencies.containsKey(param)) {
-                  findParent(result, param, visited, dependencies);
-               } else {
-                  result.add(param);
-               }
-            }
-         });
-      }
-      if (!result.contains(root)) {
-         result.add(root);
-      }
+   private static <T extends FunctionParameter> Iterator<T> dependenciesIterator(final Map<T, List<T>> dependencies, final T param) {
+      final List<T> depNodes = dependencies.get(param);
+      return depNodes != null ? depNodes.iterator() : Collections.emptyIterator();
    }
 
 }
@@ -0,0 +1,136 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.core.util;
+
+import io.lumeer.api.model.LinkInstance;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Adjacency lists of a single link type. Only ids are kept, each link instance as the array of its document ids
+ * and each document as the array of link instances it takes part in. The graph is not changed once built,
+ * {@link #withLink(LinkInstance)} and {@link #withoutLink(LinkInstance)} return patched copies.
+ */
+public class LinkGraph {
+
+   private static final String[] EMPTY = new String[0];
+
+   private final Map<String, String[]> documentsByLink = new HashMap<>();
+   private final Map<String, String[]> linksByDocument = new HashMap<>();
+
+   public LinkGraph(final Collection<LinkInstance> linkInstances) {
+      linkInstances.forEach(this::addLink);
+   }
+
+   private LinkGraph(final LinkGraph graph) {
+      documentsByLink.putAll(graph.documentsByLink);
+      linksByDocument.putAll(graph.linksByDocument);
+   }
+
+   /**
+    * @return Copy of the graph with the link instance added, the same graph when it is already present.
+    */
+   public LinkGraph withLink(final LinkInstance linkInstance) {
+      if (linkInstance.getId() == null || documentsByLink.containsKey(linkInstance.getId())) {
+         return this;
+      }
+
+      final LinkGraph graph = new LinkGraph(this);
+      graph.addLink(linkInstance);
+      return graph;
+   }
+
+   /**
+    * @return Copy of the graph without the link instance, the same graph when it is not present.
+    */
+   public LinkGraph withoutLink(final LinkInstance linkInstance) {
+      final String linkInstanceId = linkInstance.getId();
+      if (linkInstanceId == null || !documentsByLink.containsKey(linkInstanceId)) {
+         return this;
+      }
+
+      final LinkGraph graph = new LinkGraph(this);
+      for (final String documentId : graph.documentsByLink.remove(linkInstanceId)) {
+         final String[] linkInstanceIds = Arrays.stream(graph.linksByDocument.getOrDefault(documentId, EMPTY))
+                                                .filter(id -> !id.equals(linkInstanceId))
+                                                .toArray(String[]::new);
+         if (linkInstanceIds.length > 0) {
+            graph.linksByDocument.put(documentId, linkInstanceIds);
+         } else {
+            graph.linksByDocument.remove(documentId);
+         }
+      }
+      return graph;
+   }
+
+   private void addLink(final LinkInstance linkInstance) {
+      final String linkInstanceId = linkInstance.getId();
+      if (linkInstanceId == null || documentsByLink.containsKey(linkInstanceId) || linkInstance.getDocumentIds() == null) {
+         return;
+      }
+
+      final String[] documentIds = linkInstance.getDocumentIds().stream().filter(Objects::nonNull).distinct().toArray(String[]::new);
+      documentsByLink.put(linkInstanceId, documentIds);
+      for (final String documentId : documentIds) {
+         linksByDocument.merge(documentId, new String[] { linkInstanceId }, LinkGraph::concat);
+      }
+   }
+
+   /**
+    * @return Ids of the link instances connected to any of the documents.
+    */
+   public Set<String> getLinkInstanceIds(final Set<String> documentIds) {
+      final Set<String> linkInstanceIds = new HashSet<>();
+      for (final String documentId : documentIds) {
+         linkInstanceIds.addAll(Arrays.asList(linksByDocument.getOrDefault(documentId, EMPTY)));
+      }
+      return linkInstanceIds;
+   }
+
+   /**
+    * @return Ids of the documents connected by the link instances, without the excluded ones.
+    */
+   public Set<String> getDocumentIds(final Set<String> linkInstanceIds, final Set<String> excludedDocumentIds) {
+      final Set<String> documentIds = new HashSet<>();
+      for (final String linkInstanceId : linkInstanceIds) {
+         for (final String documentId : documentsByLink.getOrDefault(linkInstanceId, EMPTY)) {
+            if (!excludedDocumentIds.contains(documentId)) {
+               documentIds.add(documentId);
+            }
+         }
+      }
+      return documentIds;
+   }
+
+   public int size() {
+      return documentsByLink.size();
+   }
+
+   private static String[] concat(final String[] first, final String[] second) {
+      final String[] result = Arrays.copyOf(first, first.length + second.length);
+      System.arraycopy(second, 0, result, first.length, second.length);
+      return result;
+   }
+}
@@ -30,7 +30,9 @@ import org.marvec.pusher.data.Result;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author <a href="mailto:marvenec@gmail.com">Martin Večeřa</a>
@@ -40,6 +42,9 @@ public class PusherClient {
    private Pusher pusher;
    private ObjectMapper mapper;
 
+   // data already serialized in the current batch, events for several users often share the same data
+   private final ThreadLocal<Map<Object, String>> serializedData = new ThreadLocal<>();
+
    public PusherClient(final String appId, final String key, final String secret, final String cluster) {
       pusher = new Pusher(appId, key, secret);
       pusher.setCluster(cluster);
@@ -52,21 +57,40 @@ public class PusherClient {
       mapper.setAnnotationIntrospector(pair);
 
       pusher.setDataMarshaller(o -> {
-         StringWriter sw = new StringWriter();
-         try {
-            mapper.writeValue(sw, o);
-            return sw.toString();
-         } catch (IOException e) {
-            return null;
-         }
+         final Map<Object, String> serialized = serializedData.get();
+         return serialized != null ? serialized.computeIfAbsent(o, this::serialize) : serialize(o);
       });
    }
 
+   private String serialize(final Object o) {
+      StringWriter sw = new StringWriter();
+      try {
+         mapper.writeValue(sw, o);
+         return sw.toString();
+      } catch (IOException e) {
+         return null;
+      }
+   }
+
+   void setHost(final String host, final boolean encrypted) {
+      pusher.setHost(host);
+      pusher.setEncrypted(encrypted);
+   }
+
    public Result trigger(final String channel, final String eventName, final Object message) {
       return pusher.trigger(channel, eventName, message);
    }
 
    public Collection<Result> trigger(List<Event> notifications) {
-      return pusher.trigger(notifications);
+      if (serializedData.get() != null) {
+         return pusher.trigger(notifications);
+      }
+
+      serializedData.set(new IdentityHashMap<>());
+      try {
+         return pusher.trigger(notifications);
+      } finally {
+         serializedData.remove();
+      }
    }
 }
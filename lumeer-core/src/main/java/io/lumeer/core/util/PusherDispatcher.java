@@ -0,0 +1,244 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.core.util;
+
+import org.marvec.pusher.data.Event;
+import org.marvec.pusher.data.Result;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Sends push notifications in background so that requests do not wait for Pusher. Pending events are kept in a bounded
+ * queue in the order they were submitted, a newer event with the same coalescing key replaces the pending one and moves
+ * to the end of the queue. A single sender thread delivers the events in batches of {@link #MAX_BATCH_SIZE} and retries
+ * batches that failed on a network or server error. Events that do not fit the queue or cannot be delivered are dropped
+ * and counted.
+ */
+public class PusherDispatcher {
+
+   public static final int MAX_BATCH_SIZE = 10; // the maximum number of events in a single Pusher batch request
+   public static final int DEFAULT_QUEUE_SIZE = 10_000;
+
+   private static final int MAX_ATTEMPTS = 3;
+   private static final long RETRY_DELAY = 200;
+   private static final long SHUTDOWN_TIMEOUT = 5_000;
+
+   private static final Logger log = Logger.getLogger(PusherDispatcher.class.getName());
+
+   private final PusherClient pusherClient;
+   private final Function<Event, String> keyFunction;
+   private final int queueSize;
+   private final long retryDelay;
+
+   private final Map<String, Event> pending = new LinkedHashMap<>();
+   private final Thread sender;
+   private long uniqueKeys = 0;
+   private boolean closed = false;
+   private boolean overflowing = false; // the queue was full and events are being dropped, logged once per episode
+
+   private final AtomicLong submittedEvents = new AtomicLong();
+   private final AtomicLong coalescedEvents = new AtomicLong();
+   private final AtomicLong sentEvents = new AtomicLong();
+   private final AtomicLong retriedBatches = new AtomicLong();
+   private final AtomicLong droppedEvents = new AtomicLong();
+
+   /**
+    * Creates the dispatcher and starts its sender thread.
+    *
+    * @param pusherClient Client to deliver the events.
+    * @param keyFunction Gets the key of the event, pending events with an equal key are replaced by the newer one. Events with null key are never replaced.
+    * @param queueSize Maximum number of pending events.
+    */
+   public PusherDispatcher(final PusherClient pusherClient, final Function<Event, String> keyFunction, final int queueSize) {
+      this(pusherClient, keyFunction, queueSize, RETRY_DELAY);
+   }
+
+   PusherDispatcher(final PusherClient pusherClient, final Function<Event, String> keyFunction, final int queueSize, final long retryDelay) {
+      this.pusherClient = pusherClient;
+      this.keyFunction = keyFunction;
+      this.queueSize = Math.max(1, queueSize);
+      this.retryDelay = retryDelay;
+
+      sender = new Thread(this::sendPending, "lumeer-pusher-dispatcher");
+      sender.setDaemon(true);
+      sender.start();
+   }
+
+   /**
+    * Adds the events to the queue, they are sent later by the sender thread.
+    *
+    * @param events The events to send.
+    */
+   public void submit(final List<Event> events) {
+      synchronized (pending) {
+         for (final Event event : events) {
+            submittedEvents.incrementAndGet();
+
+            final String key = keyFunction.apply(event);
+            if (key != null && pending.remove(key) != null) {
+               coalescedEvents.incrementAndGet();
+               pending.put(key, event);
+            } else if (closed || pending.size() >= queueSize) {
+               droppedEvents.incrementAndGet();
+               if (!overflowing && !closed) {
+                  overflowing = true;
+                  log.log(Level.WARNING, "Push notification queue is full, dropping events until it drains.");
+               }
+            } else {
+               if (overflowing) {
+                  overflowing = false;
+                  log.log(Level.INFO, "Push notification queue accepts events again, " + droppedEvents.get() + " events dropped so far.");
+               }
+               pending.put(key != null ? key : "#" + uniqueKeys++, event);
+            }
+         }
+
+         pending.notifyAll();
+      }
+   }
+
+   /**
+    * Stops accepting new events and waits a while for the pending ones to be sent.
+    */
+   public void shutdown() {
+      synchronized (pending) {
+         closed = true;
+         pending.notifyAll();
+      }
+
+      try {
+         sender.join(SHUTDOWN_TIMEOUT);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      }
+
+      if (sender.isAlive()) {
+         sender.interrupt();
+      }
+   }
+
+   private void sendPending() {
+      List<Event> batch;
+      while ((batch = nextBatch()) != null) {
+         send(batch);
+      }
+   }
+
+   private List<Event> nextBatch() {
+      synchronized (pending) {
+         while (pending.isEmpty()) {
+            if (closed) {
+               return null;
+            }
+
+            try {
+               pending.wait();
+            } catch (InterruptedException e) {
+               return null;
+            }
+         }
+
+         final List<Event> batch = new ArrayList<>(Math.min(MAX_BATCH_SIZE, pending.size()));
+         final Iterator<Event> iterator = pending.values().iterator();
+         while (iterator.hasNext() && batch.size() < MAX_BATCH_SIZE) {
+            batch.add(iterator.next());
+            iterator.remove();
+         }
+
+         return batch;
+      }
+   }
+
+   private void send(final List<Event> batch) {
+      for (int attempt = 1; ; attempt++) {
+         boolean retry;
+
+         try {
+            final Collection<Result> results = pusherClient.trigger(batch);
+            final Optional<Result> failure = results.stream().filter(result -> result.getStatus() != Result.Status.SUCCESS).findFirst();
+
+            if (failure.isEmpty()) {
+               sentEvents.addAndGet(batch.size());
+               return;
+            }
+
+            retry = failure.get().getStatus().shouldRetry() && attempt < MAX_ATTEMPTS;
+            if (!retry) {
+               log.log(Level.WARNING, "Unable to send push notifications: " + failure.get().getMessage());
+            }
+         } catch (Exception e) {
+            retry = attempt < MAX_ATTEMPTS;
+            if (!retry) {
+               log.log(Level.WARNING, "Unable to send push notifications: ", e);
+            }
+         }
+
+         if (!retry) {
+            droppedEvents.addAndGet(batch.size());
+            return;
+         }
+
+         retriedBatches.incrementAndGet();
+
+         try {
+            Thread.sleep(retryDelay << (attempt - 1));
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            droppedEvents.addAndGet(batch.size());
+            return;
+         }
+      }
+   }
+
+   public long getSubmittedEvents() {
+      return submittedEvents.get();
+   }
+
+   public long getCoalescedEvents() {
+      return coalescedEvents.get();
+   }
+
+   public long getSentEvents() {
+      return sentEvents.get();
+   }
+
+   public long getRetriedBatches() {
+      return retriedBatches.get();
+   }
+
+   public long getDroppedEvents() {
+      return droppedEvents.get();
+   }
+
+   public int getPendingEvents() {
+      synchronized (pending) {
+         return pending.size();
+      }
+   }
+}
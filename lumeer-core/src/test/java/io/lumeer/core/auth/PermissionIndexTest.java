@@ -0,0 +1,100 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.core.auth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.lumeer.api.model.Collection;
+import io.lumeer.api.model.LinkType;
+import io.lumeer.api.model.Permission;
+import io.lumeer.api.model.Permissions;
+import io.lumeer.api.model.Role;
+import io.lumeer.api.model.View;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+public class PermissionIndexTest {
+
+   private static final String USER = "testUser";
+   private static final String OTHER_USER = "otherUser";
+   private static final String GROUP = "testGroup";
+
+   private static Permissions permissions(final String userId, final Set<Role> userRoles, final String groupId, final Set<Role> groupRoles) {
+      return new Permissions(Set.of(Permission.buildWithRoles(userId, userRoles)), Set.of(Permission.buildWithRoles(groupId, groupRoles)));
+   }
+
+   private static Collection collection(final String id, final Permissions permissions) {
+      final Collection collection = new Collection(id, id, "", "", permissions);
+      collection.setId(id);
+      return collection;
+   }
+
+   private static LinkType linkType(final String id, final String... collectionIds) {
+      final LinkType linkType = new LinkType(id, List.of(collectionIds), Collections.emptyList());
+      linkType.setId(id);
+      return linkType;
+   }
+
+   private PermissionIndex prepareIndex() {
+      final List<Collection> collections = List.of(
+            collection("c1", permissions(USER, Set.of(Role.READ), GROUP, Collections.emptySet())),
+            collection("c2", permissions(OTHER_USER, Set.of(Role.READ), GROUP, Set.of(Role.READ))),
+            collection("c3", permissions(USER, Set.of(Role.MANAGE), GROUP, Collections.emptySet())),
+            collection("c4", permissions(USER, Set.of(Role.WRITE), "otherGroup", Set.of(Role.READ)))
+      );
+      final List<LinkType> linkTypes = List.of(linkType("l1", "c1", "c2"), linkType("l2", "c1", "c4"));
+
+      final View view = new View();
+      view.setId("v1");
+      view.setPermissions(permissions(OTHER_USER, Set.of(Role.READ), GROUP, Set.of(Role.READ)));
+
+      return new PermissionIndex(collections, linkTypes, List.of(view));
+   }
+
+   @Test
+   public void testReadableCollections() {
+      final PermissionIndex index = prepareIndex();
+
+      assertThat(index.getReadableCollectionIds(USER, Collections.emptySet())).containsOnly("c1", "c3");
+      assertThat(index.getReadableCollectionIds(USER, Set.of(GROUP))).containsOnly("c1", "c2", "c3");
+      assertThat(index.getReadableCollectionIds(OTHER_USER, Collections.emptySet())).containsOnly("c2");
+      assertThat(index.getReadableCollectionIds("unknown", Collections.emptySet())).isEmpty();
+   }
+
+   @Test
+   public void testReadableLinkTypes() {
+      final PermissionIndex index = prepareIndex();
+
+      assertThat(index.getReadableLinkTypeIds(USER, Collections.emptySet())).isEmpty();
+      assertThat(index.getReadableLinkTypeIds(USER, Set.of(GROUP))).containsOnly("l1");
+      assertThat(index.getReadableLinkTypeIds(USER, Set.of(GROUP, "otherGroup"))).containsOnly("l1", "l2");
+   }
+
+   @Test
+   public void testReadableViews() {
+      final PermissionIndex index = prepareIndex();
+
+      assertThat(index.getReadableViewIds(USER, Collections.emptySet())).isEmpty();
+      assertThat(index.getReadableViewIds(USER, Set.of(GROUP))).containsOnly("v1");
+   }
+}
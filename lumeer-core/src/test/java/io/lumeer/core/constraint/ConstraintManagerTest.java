@@ -2,8 +2,14 @@ package io.lumeer.core.constraint;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import io.lumeer.api.model.Attribute;
+import io.lumeer.api.model.Collection;
+import io.lumeer.api.model.CollectionAttributeFilter;
 import io.lumeer.api.model.Constraint;
 import io.lumeer.api.model.ConstraintType;
+import io.lumeer.api.model.Query;
+import io.lumeer.api.model.QueryStem;
+import io.lumeer.engine.api.data.DataDocument;
 
 import com.mongodb.client.model.geojson.NamedCoordinateReferenceSystem;
 import com.mongodb.client.model.geojson.Point;
@@ -16,7 +22,9 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 /**
  * @author <a href="mailto:marvenec@gmail.com">Martin Večeřa</a>
@@ -197,4 +205,79 @@ public class ConstraintManagerTest {
       encoded = cm.encodeForFce("40°7.38'N, 74°7.38'W", null);
       assertThat(encoded).isEqualTo(new Point(NamedCoordinateReferenceSystem.EPSG_4326, new Position(40.123, -74.123)));
    }
-}
\ No newline at end of file
+
+   @Test
+   public void testEncodeQueryKeepsOriginal() {
+      final ConstraintManager cm = new ConstraintManager();
+      cm.setLocale(l);
+
+      final Collection collection = new Collection("C", "collection", "", "", null);
+      collection.setId("c1");
+      collection.createAttribute(new Attribute("a1", "a1", new Constraint(ConstraintType.Boolean, null), null, 0));
+
+      final CollectionAttributeFilter filter = new CollectionAttributeFilter("c1", "a1", "=", "true");
+      final Query query = new Query(new QueryStem("c1", null, null, Set.of(filter), null));
+
+      final Query encoded = cm.encodeQuery(query, List.of(collection), List.of());
+      assertThat(encoded.getAttributeFilters()).extracting(CollectionAttributeFilter::getValue).containsExactly(Boolean.TRUE);
+      assertThat(filter.getValue()).isEqualTo("true");
+
+      final Query encodedAgain = cm.encodeQuery(query, List.of(collection), List.of());
+      assertThat(encodedAgain).isEqualTo(encoded);
+   }
+
+   @Test
+   public void testCodecFollowsCollectionVersion() {
+      final ConstraintManager cm = new ConstraintManager();
+      cm.setLocale(l);
+
+      final Collection collection = new Collection("C", "collection", "", "", null);
+      collection.setId("c1");
+      collection.createAttribute(new Attribute("a1", "a1", new Constraint(ConstraintType.Boolean, null), null, 0));
+
+      final ConstraintCodec codec = cm.getCodec(collection);
+      assertThat(cm.getCodec(collection)).isSameAs(codec);
+
+      DataDocument data = new DataDocument("a1", "true").append("a2", "12");
+      cm.encodeDataTypes(collection, data);
+      assertThat(data).containsEntry("a1", Boolean.TRUE).containsEntry("a2", 12L);
+
+      collection.setAttributes(List.of(new Attribute("a1", "a1", new Constraint(ConstraintType.Text, null), null, 0)));
+      collection.setVersion(1);
+      assertThat(cm.getCodec(collection)).isNotSameAs(codec);
+
+      data = new DataDocument("a1", "true");
+      cm.encodeDataTypes(collection, data);
+      assertThat(data).containsEntry("a1", "true");
+   }
+
+   @Test
+   public void testFastParsersMatchFormatters() {
+      final ConstraintManager cm = new ConstraintManager();
+      cm.setLocale(l);
+
+      final List<String> dates = List.of("2019-01-20T10:15:30.123Z", "2019-01-20T10:15:30.123+0530", "2019-01-20T10:15:30.123-08",
+            "1969-12-31T23:59:59.999+0100", "2020-02-29T00:00:00.000Z", "2019-02-29T00:00:00.000Z", "2019-01-20T10:15:30.123GMT+5:30",
+            "2019-01-20T10:15:30.123", "2019-01-20", "not a date at all, just text");
+      dates.forEach(date -> {
+         final Date fastDate = FastParser.parseDateTime(date);
+         if (fastDate != null) {
+            assertThat(fastDate).as(date).isEqualTo(cm.parseDateTime(date));
+         } else if (!FastParser.isDateTimeCandidate(date)) {
+            assertThat(cm.parseDateTime(date)).as(date).isNull();
+         }
+      });
+      assertThat(FastParser.parseDateTime("2019-01-20T10:15:30.123+0530")).isNotNull();
+
+      final List<String> numbers = List.of("0", "12", "-12", "-0", "0.5", "2.50", "10.0", "2.34E3", "-2.34E-3", "1E5", "5E0",
+            "9223372036854775807", "9223372036854775808", "-9223372036854775808", "123456789012345678901234567890", "007", "1E-400");
+      numbers.forEach(number -> {
+         final Number fastNumber = FastParser.parseNumber(number);
+         if (fastNumber != null) {
+            assertThat(fastNumber).as(number).isEqualTo(cm.encodeNumberWithFormats(number));
+         }
+      });
+      assertThat(FastParser.parseNumber("12")).isEqualTo(12L);
+      assertThat(FastParser.parseNumber("007")).isNull();
+   }
+}
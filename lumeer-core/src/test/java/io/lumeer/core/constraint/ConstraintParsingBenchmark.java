@@ -0,0 +1,79 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.core.constraint;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Compares the date time and number parsing of {@link FastParser} with the formatters used by {@link ConstraintManager}.
+ * It is not run as part of the test suite, start it manually using the main method. Optional arguments are
+ * the locale and the duration of every run in milliseconds.
+ */
+public class ConstraintParsingBenchmark {
+
+   private static final List<String> DATES = List.of("2019-01-20T10:15:30.123Z", "2019-01-20T10:15:30.123+0530",
+         "2019-01-20T10:15:30.123-08", "2019-01-20", "Some text in a date column");
+
+   private static final List<String> NUMBERS = List.of("42", "-1234567", "3.14159", "2.34E3", "-0.00234", "123456789012345678901234567890");
+
+   private static volatile Object sink;
+
+   public static void main(final String[] args) {
+      final Locale locale = Locale.forLanguageTag(args.length > 0 ? args[0] : "en-US");
+      final long duration = args.length > 1 ? Long.parseLong(args[1]) : 2_000;
+
+      final ConstraintManager constraintManager = new ConstraintManager();
+      constraintManager.setLocale(locale);
+
+      final Function<String, Date> fastDates = text -> {
+         final Date date = FastParser.parseDateTime(text);
+         return date != null || !FastParser.isDateTimeCandidate(text) ? date : constraintManager.parseDateTime(text);
+      };
+
+      System.out.printf("%10s %16s %16s%n", "input", "formatters op/s", "fast op/s");
+      System.out.printf("%10s %16d %16d%n", "dates", run(DATES, duration, constraintManager::parseDateTime), run(DATES, duration, fastDates));
+      System.out.printf("%10s %16d %16d%n", "numbers", run(NUMBERS, duration, constraintManager::encodeNumberWithFormats), run(NUMBERS, duration, constraintManager::encodeNumber));
+   }
+
+   private static long run(final List<String> inputs, final long duration, final Function<String, ?> parser) {
+      final String[] values = inputs.toArray(new String[0]);
+
+      // warm up before measuring
+      final long warmUpEnd = System.nanoTime() + duration * 500_000;
+      while (System.nanoTime() < warmUpEnd) {
+         for (final String value : values) {
+            sink = parser.apply(value);
+         }
+      }
+
+      long count = 0;
+      final long end = System.nanoTime() + duration * 1_000_000;
+      while (System.nanoTime() < end) {
+         for (final String value : values) {
+            sink = parser.apply(value);
+            count++;
+         }
+      }
+
+      return count * 1000 / duration;
+   }
+}
@@ -0,0 +1,41 @@
+package io.lumeer.core.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.lumeer.api.model.function.FunctionResourceType;
+import io.lumeer.api.model.function.FunctionRow;
+
+import org.junit.Test;
+
+import java.util.List;
+
+public class FunctionGraphTest {
+
+   private final FunctionRow row1 = FunctionRow.createForCollection("c1", "a1", "c2", null, "a2");
+   private final FunctionRow row2 = FunctionRow.createForCollection("c1", "a3", "c2", null, "a4");
+   private final FunctionRow row3 = FunctionRow.createForLink("l1", "a1", null, "l1", "a5");
+   private final FunctionRow row4 = FunctionRow.createForCollection("c3", "a1", null, "l1", "a6");
+
+   private final FunctionGraph graph = new FunctionGraph(List.of(row1, row2, row3, row4));
+
+   @Test
+   public void searchByDependentCollection() {
+      assertThat(graph.searchByDependentCollection("c2", null)).containsOnly(row1, row2);
+      assertThat(graph.searchByDependentCollection("c2", "a4")).containsOnly(row2);
+      assertThat(graph.searchByDependentCollection("c1", null)).isEmpty();
+   }
+
+   @Test
+   public void searchByDependentLinkType() {
+      assertThat(graph.searchByDependentLinkType("l1", null)).containsOnly(row3, row4);
+      assertThat(graph.searchByDependentLinkType("l1", "a6")).containsOnly(row4);
+   }
+
+   @Test
+   public void searchByResource() {
+      assertThat(graph.searchByResource("c1", null, FunctionResourceType.COLLECTION)).containsOnly(row1, row2);
+      assertThat(graph.searchByResource("c1", "a1", FunctionResourceType.COLLECTION)).containsOnly(row1);
+      assertThat(graph.searchByResource("l1", "a1", FunctionResourceType.LINK)).containsOnly(row3);
+      assertThat(graph.searchByResource("l1", "a1", FunctionResourceType.COLLECTION)).isEmpty();
+   }
+}
@@ -119,4 +119,19 @@ public class FunctionOrderTest {
 
       assertThat(result).hasSize(4);
    }
-}
\ No newline at end of file
+
+   @Test
+   public void orderFunctionsLongChain() {
+      final int length = 20_000;
+      final Map<FunctionParameter, List<FunctionParameter>> input = new HashMap<>();
+      for (int i = 1; i < length; i++) {
+         input.put(fp("N" + i), List.of(fp("N" + (i - 1))));
+      }
+
+      Deque<FunctionParameter> result = FunctionOrder.orderFunctions(input);
+
+      assertThat(result).hasSize(length - 1);
+      assertThat(result.getFirst()).isEqualTo(fp("N1"));
+      assertThat(result.getLast()).isEqualTo(fp("N" + (length - 1)));
+   }
+}
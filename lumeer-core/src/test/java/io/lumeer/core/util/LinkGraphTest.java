@@ -0,0 +1,74 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.core.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.lumeer.api.model.LinkInstance;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+public class LinkGraphTest {
+
+   private static final String LINK_TYPE_ID = "lt";
+
+   private final LinkGraph graph = new LinkGraph(Arrays.asList(link("l1", "a", "x"), link("l2", "a", "y"), link("l3", "b", "y")));
+
+   @Test
+   public void traverse() {
+      Set<String> linkInstanceIds = graph.getLinkInstanceIds(Collections.singleton("a"));
+      assertThat(linkInstanceIds).containsOnly("l1", "l2");
+      assertThat(graph.getDocumentIds(linkInstanceIds, Collections.singleton("a"))).containsOnly("x", "y");
+      assertThat(graph.getDocumentIds(Collections.singleton("l3"), Collections.singleton("y"))).containsOnly("b");
+      assertThat(graph.getLinkInstanceIds(Collections.singleton("z"))).isEmpty();
+   }
+
+   @Test
+   public void skipDuplicateLinks() {
+      LinkGraph graph = new LinkGraph(Arrays.asList(link("l1", "a", "x"), link("l1", "a", "x"), link("l2", "b", "b")));
+      assertThat(graph.size()).isEqualTo(2);
+      assertThat(graph.getLinkInstanceIds(Collections.singleton("a"))).containsOnly("l1");
+      assertThat(graph.getDocumentIds(Collections.singleton("l2"), Collections.emptySet())).containsOnly("b");
+   }
+
+   @Test
+   public void patchCopies() {
+      LinkGraph added = graph.withLink(link("l4", "b", "x"));
+      assertThat(added.getLinkInstanceIds(Collections.singleton("b"))).containsOnly("l3", "l4");
+      assertThat(graph.getLinkInstanceIds(Collections.singleton("b"))).containsOnly("l3");
+      assertThat(added.withLink(link("l4", "b", "x"))).isSameAs(added);
+
+      LinkGraph removed = added.withoutLink(link("l2", "a", "y"));
+      assertThat(removed.getLinkInstanceIds(Collections.singleton("a"))).containsOnly("l1");
+      assertThat(removed.getLinkInstanceIds(Collections.singleton("y"))).containsOnly("l3");
+      assertThat(removed.size()).isEqualTo(3);
+      assertThat(added.getLinkInstanceIds(Collections.singleton("a"))).containsOnly("l1", "l2");
+      assertThat(removed.withoutLink(link("l2", "a", "y"))).isSameAs(removed);
+   }
+
+   private static LinkInstance link(final String id, final String documentId1, final String documentId2) {
+      LinkInstance linkInstance = new LinkInstance(LINK_TYPE_ID, Arrays.asList(documentId1, documentId2));
+      linkInstance.setId(id);
+      return linkInstance;
+   }
+}
@@ -0,0 +1,182 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.core.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.marvec.pusher.data.Event;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Sends the notifications to a local stub of the Pusher HTTP API.
+ */
+public class PusherDispatcherTest {
+
+   private static final String CHANNEL = "private-user";
+
+   private final ObjectMapper mapper = new ObjectMapper();
+   private final List<List<String>> requests = new CopyOnWriteArrayList<>();
+   private final AtomicInteger failures = new AtomicInteger();
+   private final CountDownLatch firstRequest = new CountDownLatch(1);
+   private final CountDownLatch release = new CountDownLatch(1);
+
+   private HttpServer server;
+   private PusherClient pusherClient;
+   private PusherDispatcher dispatcher;
+
+   @Before
+   public void startServer() throws IOException {
+      server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+      server.createContext("/", exchange -> {
+         final JsonNode body = mapper.readTree(exchange.getRequestBody());
+         final JsonNode batch = body.has("batch") ? body.get("batch") : mapper.createArrayNode().add(body);
+
+         firstRequest.countDown();
+         try {
+            release.await(10, TimeUnit.SECONDS);
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+         }
+
+         final int status;
+         if (failures.getAndDecrement() > 0) {
+            status = 500;
+         } else {
+            final List<String> events = new ArrayList<>();
+            batch.forEach(event -> events.add(event.get("name").asText() + "=" + event.get("data").asText()));
+            requests.add(events);
+            status = 200;
+         }
+
+         final byte[] response = "{}".getBytes(StandardCharsets.UTF_8);
+         exchange.sendResponseHeaders(status, response.length);
+         try (OutputStream os = exchange.getResponseBody()) {
+            os.write(response);
+         }
+      });
+      server.start();
+
+      pusherClient = new PusherClient("app", "key", "secret", "eu");
+      pusherClient.setHost("localhost:" + server.getAddress().getPort(), false);
+   }
+
+   @After
+   public void stopServer() {
+      release.countDown();
+      if (dispatcher != null) {
+         dispatcher.shutdown();
+      }
+      server.stop(0);
+   }
+
+   @Test
+   public void sendsCoalescedEventsInBatches() throws InterruptedException {
+      dispatcher = createDispatcher(100);
+
+      dispatcher.submit(Collections.singletonList(event("first", 0)));
+      assertThat(firstRequest.await(10, TimeUnit.SECONDS)).isTrue();
+
+      // the sender waits for the first request, these stay pending
+      dispatcher.submit(IntStream.range(0, 25).mapToObj(i -> event("doc" + i, 1)).collect(Collectors.toList()));
+      dispatcher.submit(IntStream.range(0, 5).mapToObj(i -> event("doc" + i, 2)).collect(Collectors.toList()));
+      release.countDown();
+
+      await(() -> dispatcher.getSentEvents() == 26);
+
+      assertThat(requests).allMatch(request -> request.size() <= PusherDispatcher.MAX_BATCH_SIZE);
+      final List<String> sent = requests.stream().flatMap(List::stream).collect(Collectors.toList());
+      assertThat(sent).hasSize(26);
+      assertThat(sent.subList(sent.size() - 5, sent.size())).allMatch(event -> event.contains("\"version\":2"));
+      assertThat(dispatcher.getSubmittedEvents()).isEqualTo(31);
+      assertThat(dispatcher.getCoalescedEvents()).isEqualTo(5);
+      assertThat(dispatcher.getDroppedEvents()).isZero();
+   }
+
+   @Test
+   public void retriesFailedBatch() {
+      dispatcher = createDispatcher(100);
+      failures.set(1);
+      release.countDown();
+
+      dispatcher.submit(Collections.singletonList(event("doc", 1)));
+
+      await(() -> dispatcher.getSentEvents() == 1);
+      assertThat(dispatcher.getRetriedBatches()).isEqualTo(1);
+      assertThat(requests).hasSize(1);
+   }
+
+   @Test
+   public void dropsEventsOverCapacity() throws InterruptedException {
+      dispatcher = createDispatcher(2);
+
+      dispatcher.submit(Collections.singletonList(event("first", 0)));
+      assertThat(firstRequest.await(10, TimeUnit.SECONDS)).isTrue();
+
+      dispatcher.submit(List.of(event("doc1", 1), event("doc2", 1), event("doc3", 1)));
+      assertThat(dispatcher.getDroppedEvents()).isEqualTo(1);
+      assertThat(dispatcher.getPendingEvents()).isEqualTo(2);
+
+      release.countDown();
+      await(() -> dispatcher.getSentEvents() == 3);
+   }
+
+   private PusherDispatcher createDispatcher(final int queueSize) {
+      final Function<Event, String> keyFunction = event -> event.getChannel() + "/" + event.getName() + "/" + ((Map<?, ?>) event.getData()).get("id");
+      return new PusherDispatcher(pusherClient, keyFunction, queueSize, 1);
+   }
+
+   private static Event event(final String id, final int version) {
+      return new Event(CHANNEL, "Document:update", Map.of("id", id, "version", version));
+   }
+
+   private static void await(final BooleanSupplier condition) {
+      final long deadline = System.currentTimeMillis() + 10_000;
+      while (!condition.getAsBoolean()) {
+         assertThat(System.currentTimeMillis()).isLessThan(deadline);
+         try {
+            Thread.sleep(10);
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+         }
+      }
+   }
+}
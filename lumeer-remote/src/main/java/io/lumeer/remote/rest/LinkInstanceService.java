@@ -26,6 +26,7 @@ import io.lumeer.remote.rest.annotation.PATCH;
 import io.lumeer.remote.rest.request.LinkInstanceDuplicationRequest;
 
 import java.util.List;
+import java.util.Map;
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
@@ -75,6 +76,12 @@ public class LinkInstanceService extends AbstractService {
             duplicationRequest.getDocumentMap());
    }
 
+   @GET
+   @Path("index-usage")
+   public Map<String, Long> getIndexUsage() {
+      return linkInstanceFacade.getIndexUsage();
+   }
+
    @GET
    @Path("{linkTypeId}/{linkInstanceId}")
    public LinkInstance updateLinkInstanceData(@PathParam("linkTypeId") String linkTypeId, @PathParam("linkInstanceId") String linkInstanceId) {
@@ -21,6 +21,7 @@ package io.lumeer.remote.rest;
 import io.lumeer.api.model.Document;
 import io.lumeer.api.model.LinkInstance;
 import io.lumeer.api.model.Query;
+import io.lumeer.api.model.ResultPage;
 import io.lumeer.api.model.SuggestionQuery;
 import io.lumeer.api.model.Suggestions;
 import io.lumeer.core.facade.DocumentFacade;
@@ -28,17 +29,29 @@ import io.lumeer.core.facade.SearchFacade;
 import io.lumeer.core.facade.SuggestionFacade;
 import io.lumeer.remote.rest.annotation.QueryProcessor;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
 import java.util.List;
 import java.util.Set;
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Providers;
 
 @RequestScoped
 @Produces(MediaType.APPLICATION_JSON)
@@ -46,6 +59,8 @@ import javax.ws.rs.core.MediaType;
 @Path("organizations/{organizationId}/projects/{projectId}/search")
 public class SearchService extends AbstractService {
 
+   private static final String NDJSON = "application/x-ndjson";
+
    @PathParam("organizationId")
    private String organizationId;
 
@@ -61,6 +76,9 @@ public class SearchService extends AbstractService {
    @Inject
    private SuggestionFacade suggestionFacade;
 
+   @Context
+   private Providers providers;
+
    @PostConstruct
    public void init() {
       workspaceKeeper.setWorkspace(organizationId, projectId);
@@ -86,11 +104,65 @@ public class SearchService extends AbstractService {
       return documents;
    }
 
+   @POST
+   @Path("documents/page")
+   @QueryProcessor
+   public ResultPage<Document> searchDocumentsPage(Query query, @QueryParam("after") String after, @QueryParam("limit") Integer limit) {
+      Set<String> favoriteDocumentIds = documentFacade.getFavoriteDocumentsIds();
+      ResultPage<Document> page = searchFacade.searchDocuments(query, after, limit);
+      page.getData().forEach(document -> document.setFavorite(favoriteDocumentIds.contains(document.getId())));
+      return page;
+   }
+
+   /**
+    * Writes all documents as newline delimited JSON while they are read, instead of building the whole list first.
+    * Only empty queries can be streamed.
+    */
+   @POST
+   @Path("documents/stream")
+   @Produces(NDJSON)
+   @QueryProcessor
+   public StreamingOutput streamDocuments(Query query) {
+      searchFacade.checkPageableQuery(query); // fail before the response is committed
+      Set<String> favoriteDocumentIds = documentFacade.getFavoriteDocumentsIds();
+      MessageBodyWriter<Document> writer = providers.getMessageBodyWriter(Document.class, Document.class, new Annotation[0], MediaType.APPLICATION_JSON_TYPE);
+
+      return output -> {
+         OutputStream stream = new BufferedOutputStream(output) {
+            @Override
+            public void close() throws IOException {
+               flush();
+            }
+         };
+         try {
+            searchFacade.streamDocuments(query, document -> {
+               document.setFavorite(favoriteDocumentIds.contains(document.getId()));
+               try {
+                  writer.writeTo(document, Document.class, Document.class, new Annotation[0], MediaType.APPLICATION_JSON_TYPE, new MultivaluedHashMap<>(), stream);
+                  stream.write('\n');
+               } catch (IOException e) {
+                  throw new UncheckedIOException(e);
+               }
+            });
+         } catch (UncheckedIOException e) {
+            throw e.getCause();
+         }
+         stream.flush();
+      };
+   }
+
    @POST
    @Path("linkInstances")
    @QueryProcessor
-   public List<LinkInstance> getLinkInstances(Query query) {
-      return searchFacade.getLinkInstances(query);
+   public List<LinkInstance> getLinkInstances(Query query, @QueryParam("data") @DefaultValue("true") boolean withData) {
+      return searchFacade.getLinkInstances(query, withData);
+   }
+
+   @POST
+   @Path("linkInstances/page")
+   @QueryProcessor
+   public ResultPage<LinkInstance> getLinkInstancesPage(Query query, @QueryParam("after") String after, @QueryParam("limit") Integer limit) {
+      return searchFacade.getLinkInstances(query, after, limit);
    }
 
 }
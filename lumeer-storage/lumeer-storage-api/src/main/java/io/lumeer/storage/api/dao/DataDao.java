@@ -19,6 +19,7 @@
 package io.lumeer.storage.api.dao;
 
 import io.lumeer.api.model.Collection;
+import io.lumeer.api.model.Document;
 import io.lumeer.api.model.Pagination;
 import io.lumeer.engine.api.data.DataDocument;
 import io.lumeer.storage.api.query.SearchQueryStem;
@@ -42,6 +43,8 @@ public interface DataDao {
 
    DataDocument patchData(String collectionId, String documentId, DataDocument data);
 
+   List<DataDocument> patchData(String collectionId, Map<String, DataDocument> data);
+
    void deleteData(String collectionId, String documentId);
 
    long deleteAttribute(String collectionId, String attributeId);
@@ -54,10 +57,77 @@ public interface DataDao {
 
    List<DataDocument> getData(String collectionId, Set<String> documentIds);
 
+   /**
+    * Reads the data of the given documents limited to the given attributes.
+    *
+    * @param collectionId
+    *       Id of the collection.
+    * @param documentIds
+    *       Ids of the documents to read.
+    * @param attributeIds
+    *       Attributes to read, null reads all attributes and an empty set reads only the ids.
+    * @return The data of the documents.
+    */
+   List<DataDocument> getData(String collectionId, Set<String> documentIds, Set<String> attributeIds);
+
    List<DataDocument> searchData(SearchQueryStem stem, Pagination pagination, Collection collection);
 
    List<DataDocument> searchDataByFulltexts(Set<String> fulltexts, Pagination pagination, List<Collection> projectCollections);
 
+   /**
+    * Searches the collection data and returns the matching documents together with their data in one query.
+    *
+    * @param stem
+    *       Query stem to filter the data.
+    * @param pagination
+    *       Pagination applied to the data.
+    * @param collection
+    *       Collection to search in.
+    * @return Documents with their data set.
+    */
+   List<Document> searchDocuments(SearchQueryStem stem, Pagination pagination, Collection collection);
+
+   /**
+    * Reads the documents of all the given collections together with their data.
+    *
+    * @param pagination
+    *       Pagination applied to the data of each collection.
+    * @param collections
+    *       Collections to read from.
+    * @param attributeIds
+    *       Attributes to read per collection id, null or collections without an entry read all attributes.
+    * @return Documents with their data set.
+    */
+   List<Document> searchDocumentsByEmptyQuery(Pagination pagination, List<Collection> collections, Map<String, Set<String>> attributeIds);
+
+   /**
+    * Searches the data of all the given collections for the fulltexts and returns the matching documents together with their data.
+    *
+    * @param fulltexts
+    *       Fulltexts the data must contain.
+    * @param pagination
+    *       Pagination applied to the data of each collection.
+    * @param projectCollections
+    *       Collections to search in.
+    * @param attributeIds
+    *       Attributes to read per collection id, null or collections without an entry read all attributes.
+    * @return Documents with their data set.
+    */
+   List<Document> searchDocumentsByFulltexts(Set<String> fulltexts, Pagination pagination, List<Collection> projectCollections, Map<String, Set<String>> attributeIds);
+
+   /**
+    * Reads the next page of documents across all the given collections ordered by their ids.
+    *
+    * @param afterId
+    *       Id of the last document of the previous page, null for the first page.
+    * @param limit
+    *       Maximum number of documents to return.
+    * @param collections
+    *       Collections to read from.
+    * @return At most limit documents with ids greater than afterId, ordered by id, with their data set.
+    */
+   List<Document> searchDocumentsAfter(String afterId, int limit, List<Collection> collections);
+
    List<DataDocument> duplicateData(String collectionId, Map<String, String> documentIds);
 
 }
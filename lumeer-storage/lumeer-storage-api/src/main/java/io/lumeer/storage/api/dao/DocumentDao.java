@@ -23,6 +23,7 @@ import io.lumeer.api.model.Project;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface DocumentDao {
 
@@ -36,6 +37,8 @@ public interface DocumentDao {
 
    Document updateDocument(String id, Document document, Document originalDocument);
 
+   List<Document> updateDocuments(List<Document> documents);
+
    void deleteDocument(String id);
 
    void deleteDocuments(String collectionId);
@@ -44,6 +47,17 @@ public interface DocumentDao {
 
    List<Document> getDocumentsByIds(String... ids);
 
+   /**
+    * Reads the documents with only the given fields set, the id is always read.
+    *
+    * @param fields
+    *       Names of the document fields to read, null reads complete documents.
+    * @param ids
+    *       Ids of the documents.
+    * @return The documents found.
+    */
+   List<Document> getDocumentsByIds(Set<String> fields, String... ids);
+
    List<Document> getDocumentsByCollection(String collectionId);
 
    List<Document> getDocumentsByParentIds(Collection<String> parentIds);
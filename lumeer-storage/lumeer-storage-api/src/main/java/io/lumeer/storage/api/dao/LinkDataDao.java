@@ -56,6 +56,15 @@ public interface LinkDataDao {
 
    List<DataDocument> getData(String linkTypeId, Set<String> linkInstanceIds);
 
+   /**
+    * Reads the data of link instances of several link types, the link types are read concurrently.
+    *
+    * @param linkInstanceIdsByLinkType
+    *       Ids of the link instances grouped by their link type id.
+    * @return Data of all the link instances found.
+    */
+   List<DataDocument> getData(Map<String, Set<String>> linkInstanceIdsByLinkType);
+
    List<DataDocument> searchData(SearchQueryStem stem, Pagination pagination, LinkType linkType);
 
    List<DataDocument> searchDataByFulltexts(Set<String> fulltexts, Pagination pagination, List<LinkType> linkTypes);
@@ -59,6 +59,19 @@ public interface LinkInstanceDao {
 
    List<LinkInstance> getLinkInstancesByLinkTypes(Set<String> linkTypeIds);
 
+   List<LinkInstance> getLinkInstancesByLinkTypes(Set<String> linkTypeIds, String afterId, int limit);
+
+   /**
+    * @return Version of the link instances of the link type stored with the link type, it is increased by every write of them,
+    * by one for each created or removed link instance.
+    */
+   long getLinkTypeVersion(String linkTypeId);
+
+   /**
+    * @return Number of operations served by each index of the link instances repository, for verifying that lookups are indexed.
+    */
+   Map<String, Long> getIndexUsage();
+
    List<LinkInstance> getLinkInstancesByDocumentIds(Set<String> documentIds, String linkTypeId);
 
    List<LinkInstance> searchLinkInstances(SearchQuery query);
@@ -23,6 +23,7 @@ import io.lumeer.storage.api.filter.LinkSearchAttributeFilter;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.annotation.concurrent.Immutable;
@@ -67,8 +68,13 @@ public class SearchQuery extends DatabaseQuery {
       }
 
       public Builder queryStems(List<QueryStem> stems, Set<String> fulltexts) {
+         return queryStems(stems, fulltexts, null);
+      }
+
+      public Builder queryStems(List<QueryStem> stems, Set<String> fulltexts, Map<String, Set<String>> attributeIds) {
          this.stems = stems.stream()
-                           .map(stem -> new SearchQueryStem(stem, fulltexts)).collect(Collectors.toList());
+                           .map(stem -> new SearchQueryStem(stem, fulltexts, attributeIds != null ? attributeIds.get(stem.getCollectionId()) : null))
+                           .collect(Collectors.toList());
          return this;
       }
 
@@ -43,8 +43,13 @@ public class SearchQueryStem {
    private final Set<CollectionSearchAttributeFilter> filters;
    private final Set<LinkSearchAttributeFilter> linkFilters;
    private final Set<String> fulltexts;
+   private final Set<String> attributeIds;
 
    public SearchQueryStem(QueryStem stem, Set<String> fulltexts) {
+      this(stem, fulltexts, null);
+   }
+
+   public SearchQueryStem(QueryStem stem, Set<String> fulltexts, Set<String> attributeIds) {
       this.collectionId = stem.getCollectionId();
       this.linkTypeIds = stem.getLinkTypeIds();
       this.documentIds = stem.getDocumentIds();
@@ -52,6 +57,7 @@ public class SearchQueryStem {
       this.filters = stem.getFilters() != null ? stem.getFilters().stream().map(this::convertFilter).collect(Collectors.toSet()) : Collections.emptySet();
       this.linkFilters = stem.getLinkFilters() != null ? stem.getLinkFilters().stream().map(this::convertLinkFilter).collect(Collectors.toSet()) : Collections.emptySet();
       this.fulltexts = fulltexts;
+      this.attributeIds = attributeIds;
    }
 
    public SearchQueryStem(Builder builder) {
@@ -62,6 +68,7 @@ public class SearchQueryStem {
       this.filters = builder.filters;
       this.linkFilters = builder.linkFilters;
       this.fulltexts = builder.fulltexts;
+      this.attributeIds = builder.attributeIds;
    }
 
    private CollectionSearchAttributeFilter convertFilter(final CollectionAttributeFilter attr) {
@@ -102,6 +109,17 @@ public class SearchQueryStem {
       return linkFilters != null ? Collections.unmodifiableSet(linkFilters) : Collections.emptySet();
    }
 
+   /**
+    * Gets the attributes to read from the data. Null means all attributes, an empty set means only the ids.
+    */
+   public Set<String> getAttributeIds() {
+      return attributeIds != null ? Collections.unmodifiableSet(attributeIds) : null;
+   }
+
+   public boolean containsAttributeIdsProjection() {
+      return attributeIds != null;
+   }
+
    public boolean containsLinkTypeIdsQuery() {
       return linkTypeIds != null && !linkTypeIds.isEmpty();
    }
@@ -139,6 +157,7 @@ public class SearchQueryStem {
       private Set<CollectionSearchAttributeFilter> filters;
       private Set<LinkSearchAttributeFilter> linkFilters;
       private Set<String> fulltexts;
+      private Set<String> attributeIds;
 
       private Builder(String collectionId) {
          this.collectionId = collectionId;
@@ -174,6 +193,11 @@ public class SearchQueryStem {
          return this;
       }
 
+      public Builder attributeIds(Set<String> attributeIds) {
+         this.attributeIds = attributeIds;
+         return this;
+      }
+
       public SearchQueryStem build() {
          return new SearchQueryStem(this);
       }
@@ -189,6 +213,7 @@ public class SearchQueryStem {
             ", filters=" + filters +
             ", linkFilters=" + linkFilters +
             ", fulltexts=" + fulltexts +
+            ", attributeIds=" + attributeIds +
             '}';
    }
 }
@@ -39,6 +39,7 @@ import io.lumeer.storage.mongodb.codecs.providers.AttributeFilterCodecProvider;
 import io.lumeer.storage.mongodb.codecs.providers.CollectionCodecProvider;
 import io.lumeer.storage.mongodb.codecs.providers.CompanyContactCodedProvider;
 import io.lumeer.storage.mongodb.codecs.providers.ConstraintCodecProvider;
+import io.lumeer.storage.mongodb.codecs.providers.DataDocumentCodecProvider;
 import io.lumeer.storage.mongodb.codecs.providers.DocumentCodecProvider;
 import io.lumeer.storage.mongodb.codecs.providers.FeedbackCodecProvider;
 import io.lumeer.storage.mongodb.codecs.providers.FileAttachmentCodecProvider;
@@ -140,7 +141,9 @@ public class MongoDbStorage implements DataStorage {
             new ConstraintCodecProvider(), new RuleCodecProvider(), new FunctionCodecProvider(), new FunctionRowCodecProvider(),
             new LinkAttributeFilterCodecProvider(), new FileAttachmentCodecProvider(), new SequenceCodecProvider()
       );
-      final CodecRegistry registry = CodecRegistries.fromRegistries(defaultRegistry, codecRegistry, providersRegistry);
+      // data documents are maps, their codec must take precedence over the default map codec
+      final CodecRegistry dataRegistry = CodecRegistries.fromProviders(new DataDocumentCodecProvider());
+      final CodecRegistry registry = CodecRegistries.fromRegistries(dataRegistry, defaultRegistry, codecRegistry, providersRegistry);
 
       if (credential != null) {
          this.mongoClient = new MongoClient(addresses, credential, optionsBuilder.codecRegistry(registry).build());
@@ -50,10 +50,7 @@ public class MongoUtils {
    }
 
    public static List<DataDocument> convertIterableToList(MongoIterable<Document> documents) {
-      final List<DataDocument> result = new ArrayList<>();
-      documents.into(new ArrayList<>()).forEach(d -> result.add(MongoUtils.convertDocument(d)));
-
-      return result;
+      return documents.map(MongoUtils::convertDocument).into(new ArrayList<>());
    }
 
    public static String convertBsonToJson(Bson object) {
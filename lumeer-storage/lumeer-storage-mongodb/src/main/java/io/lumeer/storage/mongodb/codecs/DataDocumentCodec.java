@@ -0,0 +1,134 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.storage.mongodb.codecs;
+
+import io.lumeer.engine.api.data.DataDocument;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.BsonTypeClassMap;
+import org.bson.codecs.BsonTypeCodecMap;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads data documents directly from BSON without an intermediate {@link org.bson.Document}. Nested documents
+ * are read as {@link DataDocument}s, decimals as {@link java.math.BigDecimal}s and the top level object id as its
+ * hex string, the same way as {@link io.lumeer.storage.mongodb.MongoUtils#convertDocument(org.bson.Document)}.
+ */
+public class DataDocumentCodec implements Codec<DataDocument> {
+
+   private static final String ID = "_id";
+
+   private final CodecRegistry registry;
+   private final BsonTypeCodecMap bsonTypeCodecMap;
+
+   public DataDocumentCodec(final CodecRegistry registry) {
+      this.registry = registry;
+      this.bsonTypeCodecMap = new BsonTypeCodecMap(new BsonTypeClassMap(), registry);
+   }
+
+   @Override
+   public DataDocument decode(final BsonReader reader, final DecoderContext decoderContext) {
+      final DataDocument dataDocument = readDocument(reader, decoderContext);
+
+      final Object id = dataDocument.get(ID);
+      if (id instanceof ObjectId) { // classic document
+         dataDocument.put(ID, id.toString());
+      } else if (id instanceof DataDocument) { // shadow document
+         final DataDocument shadowId = (DataDocument) id;
+         if (shadowId.get(ID) instanceof ObjectId) {
+            shadowId.put(ID, shadowId.get(ID).toString());
+         }
+      }
+
+      return dataDocument;
+   }
+
+   private DataDocument readDocument(final BsonReader reader, final DecoderContext decoderContext) {
+      final DataDocument dataDocument = new DataDocument();
+
+      reader.readStartDocument();
+      while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+         final String name = reader.readName();
+         dataDocument.put(name, readValue(reader, decoderContext));
+      }
+      reader.readEndDocument();
+
+      return dataDocument;
+   }
+
+   private List<Object> readList(final BsonReader reader, final DecoderContext decoderContext) {
+      final List<Object> list = new ArrayList<>();
+
+      reader.readStartArray();
+      while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+         list.add(readValue(reader, decoderContext));
+      }
+      reader.readEndArray();
+
+      return list;
+   }
+
+   private Object readValue(final BsonReader reader, final DecoderContext decoderContext) {
+      switch (reader.getCurrentBsonType()) {
+         case NULL:
+            reader.readNull();
+            return null;
+         case DOCUMENT:
+            return readDocument(reader, decoderContext);
+         case ARRAY:
+            return readList(reader, decoderContext);
+         case DECIMAL128:
+            return reader.readDecimal128().bigDecimalValue();
+         default:
+            return bsonTypeCodecMap.get(reader.getCurrentBsonType()).decode(reader, decoderContext);
+      }
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public void encode(final BsonWriter writer, final DataDocument dataDocument, final EncoderContext encoderContext) {
+      writer.writeStartDocument();
+      for (final Map.Entry<String, Object> entry : dataDocument.entrySet()) {
+         writer.writeName(entry.getKey());
+         final Object value = entry.getValue();
+         if (value == null) {
+            writer.writeNull();
+         } else {
+            final Codec<Object> codec = (Codec<Object>) registry.get(value.getClass());
+            encoderContext.encodeWithChildContext(codec, writer, value);
+         }
+      }
+      writer.writeEndDocument();
+   }
+
+   @Override
+   public Class<DataDocument> getEncoderClass() {
+      return DataDocument.class;
+   }
+}
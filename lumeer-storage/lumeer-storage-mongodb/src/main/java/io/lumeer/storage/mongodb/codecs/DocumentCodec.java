@@ -24,6 +24,7 @@ import io.lumeer.engine.api.data.DataDocument;
 
 import org.bson.BsonObjectId;
 import org.bson.BsonReader;
+import org.bson.BsonType;
 import org.bson.BsonValue;
 import org.bson.BsonWriter;
 import org.bson.codecs.Codec;
@@ -33,6 +34,7 @@ import org.bson.codecs.EncoderContext;
 import org.bson.codecs.configuration.CodecRegistry;
 import org.bson.types.ObjectId;
 
+import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.Date;
@@ -49,16 +51,79 @@ public class DocumentCodec implements CollectibleCodec<Document> {
    public static final String META_DATA = "metaData";
 
    private final Codec<org.bson.Document> documentCodec;
+   private final Codec<DataDocument> dataDocumentCodec;
 
    public DocumentCodec(final CodecRegistry registry) {
       this.documentCodec = registry.get(org.bson.Document.class);
+      this.dataDocumentCodec = registry.get(DataDocument.class);
    }
 
    @Override
    public Document decode(final BsonReader reader, final DecoderContext decoderContext) {
-      org.bson.Document bson = documentCodec.decode(reader, decoderContext);
+      String id = null;
+      String collectionId = null;
+      ZonedDateTime creationDate = null;
+      String createdBy = null;
+      ZonedDateTime updateDate = null;
+      String updatedBy = null;
+      int version = 0;
+      DataDocument metaData = null;
+
+      reader.readStartDocument();
+      while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+         final String name = reader.readName();
+
+         if (reader.getCurrentBsonType() == BsonType.NULL) {
+            reader.readNull();
+            continue;
+         }
+
+         switch (name) {
+            case ID:
+               id = reader.readObjectId().toHexString();
+               break;
+            case COLLECTION_ID:
+               collectionId = reader.readString();
+               break;
+            case CREATION_DATE:
+               creationDate = readDate(reader);
+               break;
+            case CREATED_BY:
+               createdBy = reader.readString();
+               break;
+            case UPDATE_DATE:
+               updateDate = readDate(reader);
+               break;
+            case UPDATED_BY:
+               updatedBy = reader.readString();
+               break;
+            case DATA_VERSION:
+               version = reader.readInt32();
+               break;
+            case META_DATA:
+               metaData = dataDocumentCodec.decode(reader, decoderContext);
+               break;
+            default:
+               reader.skipValue();
+         }
+      }
+      reader.readEndDocument();
+
+      Document document = new Document(collectionId, creationDate, updateDate, createdBy, updatedBy, version, metaData != null ? metaData : new DataDocument());
+      document.setId(id);
+      return document;
+   }
+
+   private static ZonedDateTime readDate(final BsonReader reader) {
+      return ZonedDateTime.ofInstant(Instant.ofEpochMilli(reader.readDateTime()), ZoneOffset.UTC);
+   }
 
-      String id = bson.getObjectId(ID).toHexString();
+   /**
+    * Converts a document joined to its data in an aggregation. The document was read by {@link DataDocumentCodec},
+    * so its nested id is still an object id.
+    */
+   public static Document convertFromDataDocument(final DataDocument bson) {
+      String id = bson.get(ID).toString();
       String collectionId = bson.getString(COLLECTION_ID);
       Date creationDate = bson.getDate(CREATION_DATE);
       ZonedDateTime creationZonedDate = creationDate != null ? ZonedDateTime.ofInstant(creationDate.toInstant(), ZoneOffset.UTC) : null;
@@ -67,9 +132,9 @@ public class DocumentCodec implements CollectibleCodec<Document> {
       ZonedDateTime updatedZonedDate = updateDate != null ? ZonedDateTime.ofInstant(updateDate.toInstant(), ZoneOffset.UTC) : null;
       String updatedBy = bson.getString(UPDATED_BY);
       Integer version = bson.getInteger(DATA_VERSION);
-      org.bson.Document metaData = bson.get(META_DATA, org.bson.Document.class);
+      DataDocument metaData = bson.getDataDocument(META_DATA);
 
-      Document document = new Document(collectionId, creationZonedDate, updatedZonedDate, createdBy, updatedBy, version == null ? 0 : version, new DataDocument(metaData != null ? metaData : new org.bson.Document()));
+      Document document = new Document(collectionId, creationZonedDate, updatedZonedDate, createdBy, updatedBy, version == null ? 0 : version, metaData != null ? metaData : new DataDocument());
       document.setId(id);
       return document;
    }
@@ -46,6 +46,7 @@ public class LinkTypeCodec implements CollectibleCodec<LinkType> {
    public static final String VERSION = "version";
    public static final String ATTRIBUTES = "attributes";
    public static final String LAST_ATTRIBUTE_NUM = "lastAttributeNum";
+   public static final String LINK_INSTANCES_VERSION = "linkInstancesVersion";
 
    private final Codec<Document> documentCodec;
 
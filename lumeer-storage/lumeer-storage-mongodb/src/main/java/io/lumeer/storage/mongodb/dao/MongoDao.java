@@ -20,23 +20,81 @@ package io.lumeer.storage.mongodb.dao;
 
 import io.lumeer.api.model.Pagination;
 import io.lumeer.storage.api.query.DatabaseQuery;
+import io.lumeer.storage.mongodb.util.BackgroundIndexes;
 
 import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
 
+import org.bson.Document;
 import org.bson.conversions.Bson;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import javax.inject.Inject;
 
 public abstract class MongoDao {
 
+   public static final String TEXT_SCORE = "_score";
+
+   private static final String ID = "_id";
+
    protected MongoDatabase database;
 
+   @Inject
+   private BackgroundIndexes backgroundIndexes;
+
    public void setDatabase(final MongoDatabase database) {
       this.database = database;
    }
 
+   public void setBackgroundIndexes(final BackgroundIndexes backgroundIndexes) {
+      this.backgroundIndexes = backgroundIndexes;
+   }
+
+   /**
+    * Builds the indexes unless they were already ensured for the collection by this instance of the application.
+    * Used for indexes added after the repository had been created, so that existing projects get them on first use.
+    * Outside of the container the indexes are built before returning.
+    */
+   protected void ensureIndexes(final MongoCollection<?> collection, final List<IndexModel> indexes) {
+      (backgroundIndexes != null ? backgroundIndexes : new BackgroundIndexes()).ensureIndexes(collection, indexes);
+   }
+
+   /**
+    * Reports how many times each index of the collection has been used since the server started.
+    */
+   protected Map<String, Long> getIndexUsage(final MongoCollection<?> collection) {
+      final Map<String, Long> usage = new TreeMap<>();
+      collection.aggregate(Collections.singletonList(new Document("$indexStats", new Document())), Document.class)
+                .forEach((Consumer<? super Document>) stats -> {
+                   final Document accesses = stats.get("accesses", Document.class);
+                   usage.put(stats.getString("name"), accesses != null ? ((Number) accesses.get("ops")).longValue() : 0L);
+                });
+      return usage;
+   }
+
+   /**
+    * Orders results of a {@code $text} query by relevance, the score is returned in {@link #TEXT_SCORE} and must be removed from the results.
+    */
+   public <T> void addTextScoreSortToQuery(FindIterable<T> findIterable) {
+      findIterable.projection(Projections.metaTextScore(TEXT_SCORE))
+                  .sort(Sorts.metaTextScore(TEXT_SCORE));
+   }
+
+   public void addTextScoreSortToAggregates(List<Bson> aggregates) {
+      aggregates.add(Aggregates.sort(Sorts.metaTextScore(TEXT_SCORE)));
+   }
+
    public <T> void addPaginationToQuery(FindIterable<T> findIterable, DatabaseQuery query) {
       addPaginationToQuery(findIterable, query.getPagination());
    }
@@ -52,10 +110,38 @@ public abstract class MongoDao {
    }
 
    public void addPaginationToAggregates(List<Bson> aggregates, DatabaseQuery query) {
-      if (query.getPage() != null && query.getPageSize() != null) {
-         aggregates.add(Aggregates.skip(query.getPage() * query.getPageSize()));
-         aggregates.add(Aggregates.limit(query.getPageSize()));
+      addPaginationToAggregates(aggregates, query.getPagination());
+   }
+
+   public void addPaginationToAggregates(List<Bson> aggregates, Pagination pagination) {
+      Integer page = pagination != null ? pagination.getPage() : null;
+      Integer pageSize = pagination != null ? pagination.getPageSize() : null;
+
+      if (page != null && pageSize != null) {
+         aggregates.add(Aggregates.skip(page * pageSize));
+         aggregates.add(Aggregates.limit(pageSize));
       }
    }
 
+   /**
+    * Reads only the given fields and the id. Null fields means the complete documents are read.
+    */
+   public <T> void addProjectionToQuery(FindIterable<T> findIterable, Set<String> fields) {
+      if (fields != null) {
+         findIterable.projection(createProjection(fields));
+      }
+   }
+
+   public void addProjectionToAggregates(List<Bson> aggregates, Set<String> fields) {
+      if (fields != null) {
+         aggregates.add(Aggregates.project(createProjection(fields)));
+      }
+   }
+
+   private Bson createProjection(Set<String> fields) {
+      List<String> includedFields = new ArrayList<>(fields);
+      includedFields.add(ID); // an empty inclusion would read everything
+      return Projections.include(includedFields);
+   }
+
 }
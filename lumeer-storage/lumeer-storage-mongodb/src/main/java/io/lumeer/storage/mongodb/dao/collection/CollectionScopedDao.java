@@ -18,8 +18,48 @@
  */
 package io.lumeer.storage.mongodb.dao.collection;
 
+import io.lumeer.engine.api.data.DataDocument;
+import io.lumeer.storage.api.query.FulltextSettings;
 import io.lumeer.storage.mongodb.dao.project.ProjectScopedDao;
+import io.lumeer.storage.mongodb.util.ParallelQueries;
 
-abstract class CollectionScopedDao extends ProjectScopedDao {
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import javax.inject.Inject;
 
+public abstract class CollectionScopedDao extends ProjectScopedDao {
+
+   @Inject
+   private FulltextSettings fulltextSettings;
+
+   @Inject
+   private ParallelQueries parallelQueries;
+
+   public void setFulltextSettings(final FulltextSettings fulltextSettings) {
+      this.fulltextSettings = fulltextSettings;
+   }
+
+   public void setParallelQueries(final ParallelQueries parallelQueries) {
+      this.parallelQueries = parallelQueries;
+   }
+
+   protected boolean useTextIndex() {
+      return fulltextSettings != null && fulltextSettings.useTextIndex();
+   }
+
+   protected <T, R> List<R> forEachInParallel(final List<T> items, final Function<T, List<R>> query) {
+      if (parallelQueries != null) {
+         return parallelQueries.forEach(items, query);
+      }
+
+      final List<R> results = new ArrayList<>();
+      items.forEach(item -> results.addAll(query.apply(item)));
+      return results;
+   }
+
+   protected List<DataDocument> removeTextScore(final List<DataDocument> data) {
+      data.forEach(dataDocument -> dataDocument.remove(TEXT_SCORE));
+      return data;
+   }
 }
@@ -31,16 +31,22 @@ import io.lumeer.storage.api.exception.StorageException;
 import io.lumeer.storage.api.filter.CollectionSearchAttributeFilter;
 import io.lumeer.storage.api.query.SearchQueryStem;
 import io.lumeer.storage.mongodb.MongoUtils;
+import io.lumeer.storage.mongodb.codecs.DocumentCodec;
+import io.lumeer.storage.mongodb.dao.project.MongoDocumentDao;
 import io.lumeer.storage.mongodb.util.MongoFilters;
 
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.BulkWriteOptions;
 import com.mongodb.client.model.Filters;
 import com.mongodb.client.model.FindOneAndReplaceOptions;
 import com.mongodb.client.model.FindOneAndUpdateOptions;
 import com.mongodb.client.model.Indexes;
 import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
 import com.mongodb.client.model.Updates;
 import com.mongodb.client.result.UpdateResult;
 import org.bson.BsonDocument;
@@ -50,6 +56,7 @@ import org.bson.types.ObjectId;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -65,6 +72,7 @@ public class MongoDataDao extends CollectionScopedDao implements DataDao {
 
    private static final String ID = "_id";
    private static final String PREFIX = "data_c-";
+   private static final String DOCUMENT = "_document";
 
    @Override
    public void createDataRepository(final String collectionId) {
@@ -131,6 +139,26 @@ public class MongoDataDao extends CollectionScopedDao implements DataDao {
       return MongoUtils.convertDocument(patchedDocument);
    }
 
+   @Override
+   public List<DataDocument> patchData(final String collectionId, final Map<String, DataDocument> data) {
+      final UpdateOptions options = new UpdateOptions().upsert(true);
+      final List<UpdateOneModel<Document>> updates = new ArrayList<>(data.size());
+
+      data.forEach((documentId, dataDocument) -> {
+         dataDocument.remove(ID);
+
+         if (dataDocument.size() > 0) {
+            updates.add(new UpdateOneModel<>(idFilter(documentId), new Document("$set", new Document(dataDocument)), options));
+         }
+      });
+
+      if (updates.size() > 0) {
+         dataCollection(collectionId).bulkWrite(updates, new BulkWriteOptions().ordered(false));
+      }
+
+      return getData(collectionId, data.keySet());
+   }
+
    @Override
    public void deleteData(final String collectionId, final String documentId) {
       dataCollection(collectionId).deleteOne(idFilter(documentId));
@@ -144,38 +172,46 @@ public class MongoDataDao extends CollectionScopedDao implements DataDao {
 
    @Override
    public DataDocument getData(final String collectionId, final String documentId) {
-      MongoCursor<Document> mongoCursor = dataCollection(collectionId).find(idFilter(documentId)).iterator();
-      if (!mongoCursor.hasNext()) {
+      DataDocument data = dataDocumentCollection(collectionId).find(idFilter(documentId)).first();
+      if (data == null) {
          throw new ResourceNotFoundException(ResourceType.DOCUMENT);
       }
-      return MongoUtils.convertDocument(mongoCursor.next());
+      return data;
    }
 
    @Override
    public List<DataDocument> getData(final String collectionId) {
-      return MongoUtils.convertIterableToList(dataCollection(collectionId).find());
+      return dataDocumentCollection(collectionId).find().into(new ArrayList<>());
    }
 
    @Override
    public Stream<DataDocument> getDataStream(String collectionId) {
-      return StreamSupport.stream(dataCollection(collectionId).find().map(MongoUtils::convertDocument).spliterator(), false);
+      return StreamSupport.stream(dataDocumentCollection(collectionId).find().spliterator(), false);
    }
 
    @Override
    public List<DataDocument> getData(final String collectionId, final Set<String> documentIds) {
+      return getData(collectionId, documentIds, null);
+   }
+
+   @Override
+   public List<DataDocument> getData(final String collectionId, final Set<String> documentIds, final Set<String> attributeIds) {
       Bson idsFilter = MongoFilters.idsFilter(documentIds);
       if (idsFilter == null) {
          return Collections.emptyList();
       }
-      return MongoUtils.convertIterableToList(dataCollection(collectionId).find(idsFilter));
+      FindIterable<DataDocument> iterable = dataDocumentCollection(collectionId).find(idsFilter);
+      addProjectionToQuery(iterable, attributeIds);
+      return iterable.into(new ArrayList<>());
    }
 
    @Override
    public List<DataDocument> searchData(final SearchQueryStem stem, final Pagination pagination, final Collection collection) {
       Bson filter = createFilterForStem(stem, collection);
-      FindIterable<Document> iterable = dataCollection(collection.getId()).find(filter);
+      FindIterable<DataDocument> iterable = dataDocumentCollection(collection.getId()).find(filter);
       addPaginationToQuery(iterable, pagination);
-      return MongoUtils.convertIterableToList(iterable);
+      addProjectionToQuery(iterable, stem.getAttributeIds());
+      return iterable.into(new ArrayList<>());
    }
 
    private Bson createFilterForStem(final SearchQueryStem stem, Collection collection) {
@@ -199,7 +235,7 @@ public class MongoDataDao extends CollectionScopedDao implements DataDao {
       }
 
       if (stem.containsFulltextsQuery()) {
-         Bson fulltextsFilter = createFilterForFulltexts(collection.getAttributes(), stem.getFulltexts());
+         Bson fulltextsFilter = createFilterForFulltexts(collection.getAttributes(), stem.getFulltexts(), useTextIndex());
          if (fulltextsFilter != null) {
             filters.add(fulltextsFilter);
          }
@@ -214,16 +250,103 @@ public class MongoDataDao extends CollectionScopedDao implements DataDao {
 
    @Override
    public List<DataDocument> searchDataByFulltexts(final Set<String> fulltexts, final Pagination pagination, final List<Collection> projectCollections) {
-      List<DataDocument> documents = new ArrayList<>();
-      for (Collection collection : projectCollections) {
-         Bson filter = createFilterForFulltexts(collection.getAttributes(), fulltexts);
-         if (filter != null) {
-            FindIterable<Document> iterable = dataCollection(collection.getId()).find(filter);
-            addPaginationToQuery(iterable, pagination);
-            documents.addAll(MongoUtils.convertIterableToList(iterable));
+      return forEachInParallel(projectCollections, collection -> {
+         Bson filter = createFilterForFulltexts(collection.getAttributes(), fulltexts, useTextIndex());
+         if (filter == null) {
+            return Collections.emptyList();
+         }
+
+         FindIterable<DataDocument> iterable = dataDocumentCollection(collection.getId()).find(filter);
+         if (useTextIndex()) {
+            addTextScoreSortToQuery(iterable);
          }
+         addPaginationToQuery(iterable, pagination);
+         return removeTextScore(iterable.into(new ArrayList<>()));
+      });
+   }
+
+   @Override
+   public List<io.lumeer.api.model.Document> searchDocuments(final SearchQueryStem stem, final Pagination pagination, final Collection collection) {
+      return searchDocuments(collection.getId(), createFilterForStem(stem, collection), pagination, stem.getAttributeIds());
+   }
+
+   @Override
+   public List<io.lumeer.api.model.Document> searchDocumentsByEmptyQuery(final Pagination pagination, final List<Collection> collections, final Map<String, Set<String>> attributeIds) {
+      return forEachInParallel(collections, collection -> searchDocuments(collection.getId(), new Document(), pagination, getAttributeIds(attributeIds, collection)));
+   }
+
+   @Override
+   public List<io.lumeer.api.model.Document> searchDocumentsByFulltexts(final Set<String> fulltexts, final Pagination pagination, final List<Collection> projectCollections, final Map<String, Set<String>> attributeIds) {
+      return forEachInParallel(projectCollections, collection -> {
+         Bson filter = createFilterForFulltexts(collection.getAttributes(), fulltexts, useTextIndex());
+         if (filter == null) {
+            return Collections.emptyList();
+         }
+
+         List<Bson> aggregates = new ArrayList<>();
+         aggregates.add(Aggregates.match(filter));
+         if (useTextIndex()) {
+            addTextScoreSortToAggregates(aggregates);
+         }
+         addPaginationToAggregates(aggregates, pagination);
+         addProjectionToAggregates(aggregates, getAttributeIds(attributeIds, collection));
+         return searchDocuments(collection.getId(), aggregates);
+      });
+   }
+
+   @Override
+   public List<io.lumeer.api.model.Document> searchDocumentsAfter(final String afterId, final int limit, final List<Collection> collections) {
+      Bson filter = afterId != null ? Filters.gt(ID, new ObjectId(afterId)) : new Document();
+      List<io.lumeer.api.model.Document> documents = forEachInParallel(collections, collection -> {
+         List<Bson> aggregates = new ArrayList<>();
+         aggregates.add(Aggregates.match(filter));
+         aggregates.add(Aggregates.sort(Sorts.ascending(ID)));
+         // limit after the join, data without a document would shorten the page otherwise
+         return searchDocuments(collection.getId(), aggregates, Collections.singletonList(Aggregates.limit(limit)));
+      });
+
+      return documents.stream()
+                      .sorted(Comparator.comparing(io.lumeer.api.model.Document::getId))
+                      .limit(limit)
+                      .collect(Collectors.toList());
+   }
+
+   private static Set<String> getAttributeIds(final Map<String, Set<String>> attributeIds, final Collection collection) {
+      return attributeIds != null ? attributeIds.get(collection.getId()) : null;
+   }
+
+   private List<io.lumeer.api.model.Document> searchDocuments(final String collectionId, final Bson filter, final Pagination pagination, final Set<String> attributeIds) {
+      List<Bson> aggregates = new ArrayList<>();
+      aggregates.add(Aggregates.match(filter));
+      addPaginationToAggregates(aggregates, pagination);
+      addProjectionToAggregates(aggregates, attributeIds);
+      return searchDocuments(collectionId, aggregates);
+   }
+
+   /**
+    * Joins the data selected by the given stages with their documents on the server so that both are read in a single round trip.
+    * Data without a document are skipped.
+    */
+   private List<io.lumeer.api.model.Document> searchDocuments(final String collectionId, final List<Bson> aggregates) {
+      return searchDocuments(collectionId, aggregates, Collections.emptyList());
+   }
+
+   private List<io.lumeer.api.model.Document> searchDocuments(final String collectionId, final List<Bson> aggregates, final List<Bson> joinedAggregates) {
+      if (!getProject().isPresent()) {
+         throw new ResourceNotFoundException(ResourceType.PROJECT);
       }
 
+      aggregates.add(Aggregates.lookup(MongoDocumentDao.databaseCollectionName(getProject().get().getId()), ID, DocumentCodec.ID, DOCUMENT));
+      aggregates.add(Aggregates.unwind("$" + DOCUMENT));
+      aggregates.addAll(joinedAggregates);
+
+      List<io.lumeer.api.model.Document> documents = new ArrayList<>();
+      dataDocumentCollection(collectionId).aggregate(aggregates).forEach((Consumer<? super DataDocument>) data -> {
+         io.lumeer.api.model.Document document = DocumentCodec.convertFromDataDocument((DataDocument) data.remove(DOCUMENT));
+         document.setData(data);
+         documents.add(document);
+      });
+
       return documents;
    }
 
@@ -233,9 +356,7 @@ public class MongoDataDao extends CollectionScopedDao implements DataDao {
 
       final Bson idsFilter = MongoFilters.idsFilter(documentIds.keySet());
       if (idsFilter != null) {
-         dataCollection(collectionId).find(idsFilter).forEach((Consumer<? super Document>) d -> {
-            final DataDocument doc = MongoUtils.convertDocument(d);
-
+         dataDocumentCollection(collectionId).find(idsFilter).forEach((Consumer<? super DataDocument>) doc -> {
             if (documentIds.containsKey(doc.getId())) {
                doc.setId(documentIds.get(doc.getId()));
                newData.add(doc);
@@ -257,6 +378,10 @@ public class MongoDataDao extends CollectionScopedDao implements DataDao {
       return database.getCollection(dataCollectionName(collectionId));
    }
 
+   private MongoCollection<DataDocument> dataDocumentCollection(String collectionId) {
+      return database.getCollection(dataCollectionName(collectionId), DataDocument.class);
+   }
+
    String dataCollectionName(String collectionId) {
       return PREFIX + collectionId;
    }
@@ -33,7 +33,6 @@ import io.lumeer.storage.mongodb.util.MongoFilters;
 
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoCursor;
 import com.mongodb.client.model.Filters;
 import com.mongodb.client.model.FindOneAndReplaceOptions;
 import com.mongodb.client.model.FindOneAndUpdateOptions;
@@ -147,21 +146,18 @@ public class MongoLinkDataDao extends CollectionScopedDao implements LinkDataDao
 
    @Override
    public DataDocument getData(final String linkTypeId, final String linkInstanceId) {
-      MongoCursor<Document> mongoCursor = linkDataCollection(linkTypeId).find(idFilter(linkInstanceId)).iterator();
-      if (!mongoCursor.hasNext()) {
-         return new DataDocument();
-      }
-      return MongoUtils.convertDocument(mongoCursor.next());
+      DataDocument data = linkDataDocumentCollection(linkTypeId).find(idFilter(linkInstanceId)).first();
+      return data != null ? data : new DataDocument();
    }
 
    @Override
    public List<DataDocument> getData(final String linkTypeId) {
-      return MongoUtils.convertIterableToList(linkDataCollection(linkTypeId).find());
+      return linkDataDocumentCollection(linkTypeId).find().into(new ArrayList<>());
    }
 
    @Override
    public Stream<DataDocument> getDataStream(final String linkTypeId) {
-      return StreamSupport.stream(linkDataCollection(linkTypeId).find().map(MongoUtils::convertDocument).spliterator(), false);
+      return StreamSupport.stream(linkDataDocumentCollection(linkTypeId).find().spliterator(), false);
    }
 
    @Override
@@ -170,30 +166,38 @@ public class MongoLinkDataDao extends CollectionScopedDao implements LinkDataDao
       if (idsFilter == null) {
          return Collections.emptyList();
       }
-      return MongoUtils.convertIterableToList(linkDataCollection(linkTypeId).find(idsFilter));
+      return linkDataDocumentCollection(linkTypeId).find(idsFilter).into(new ArrayList<>());
+   }
+
+   @Override
+   public List<DataDocument> getData(final Map<String, Set<String>> linkInstanceIdsByLinkType) {
+      return forEachInParallel(new ArrayList<>(linkInstanceIdsByLinkType.entrySet()), entry -> getData(entry.getKey(), entry.getValue()));
    }
 
    @Override
    public List<DataDocument> searchData(final SearchQueryStem stem, final Pagination pagination, final LinkType linkType) {
       Bson filter = createFilterForStem(stem, linkType);
-      FindIterable<Document> iterable = linkDataCollection(linkType.getId()).find(filter);
+      FindIterable<DataDocument> iterable = linkDataDocumentCollection(linkType.getId()).find(filter);
       addPaginationToQuery(iterable, pagination);
-      return MongoUtils.convertIterableToList(iterable);
+      addProjectionToQuery(iterable, stem.getAttributeIds());
+      return iterable.into(new ArrayList<>());
    }
 
    @Override
    public List<DataDocument> searchDataByFulltexts(final Set<String> fulltexts, final Pagination pagination, final List<LinkType> linkTypes) {
-      List<DataDocument> documents = new ArrayList<>();
-      for (LinkType linkType : linkTypes) {
-         Bson filter = createFilterForFulltexts(linkType.getAttributes(), fulltexts);
-         if (filter != null) {
-            FindIterable<Document> iterable = linkDataCollection(linkType.getId()).find(filter);
-            addPaginationToQuery(iterable, pagination);
-            documents.addAll(MongoUtils.convertIterableToList(iterable));
+      return forEachInParallel(linkTypes, linkType -> {
+         Bson filter = createFilterForFulltexts(linkType.getAttributes(), fulltexts, useTextIndex());
+         if (filter == null) {
+            return Collections.emptyList();
          }
-      }
 
-      return documents;
+         FindIterable<DataDocument> iterable = linkDataDocumentCollection(linkType.getId()).find(filter);
+         if (useTextIndex()) {
+            addTextScoreSortToQuery(iterable);
+         }
+         addPaginationToQuery(iterable, pagination);
+         return removeTextScore(iterable.into(new ArrayList<>()));
+      });
    }
 
    @Override
@@ -202,9 +206,7 @@ public class MongoLinkDataDao extends CollectionScopedDao implements LinkDataDao
 
       final Bson idsFilter = MongoFilters.idsFilter(linkIds.keySet());
       if (idsFilter != null) {
-         linkDataCollection(linkTypeId).find(idsFilter).forEach((Consumer<? super Document>) d -> {
-            final DataDocument doc = MongoUtils.convertDocument(d);
-
+         linkDataDocumentCollection(linkTypeId).find(idsFilter).forEach((Consumer<? super DataDocument>) doc -> {
             if (linkIds.containsKey(doc.getId())) {
                doc.setId(linkIds.get(doc.getId()));
                newData.add(doc);
@@ -240,7 +242,7 @@ public class MongoLinkDataDao extends CollectionScopedDao implements LinkDataDao
       }
 
       if (stem.containsFulltextsQuery()) {
-         Bson fulltextsFilter = createFilterForFulltexts(linkType.getAttributes(), stem.getFulltexts());
+         Bson fulltextsFilter = createFilterForFulltexts(linkType.getAttributes(), stem.getFulltexts(), useTextIndex());
          if (fulltextsFilter != null) {
             filters.add(fulltextsFilter);
          }
@@ -257,6 +259,10 @@ public class MongoLinkDataDao extends CollectionScopedDao implements LinkDataDao
       return database.getCollection(linkDataCollectionName(linkTypeId));
    }
 
+   private MongoCollection<DataDocument> linkDataDocumentCollection(String linkTypeId) {
+      return database.getCollection(linkDataCollectionName(linkTypeId), DataDocument.class);
+   }
+
    String linkDataCollectionName(String linkTypeId) {
       return PREFIX + linkTypeId;
    }
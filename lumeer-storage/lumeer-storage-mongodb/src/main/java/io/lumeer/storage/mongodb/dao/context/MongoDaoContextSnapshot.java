@@ -43,6 +43,7 @@ import io.lumeer.storage.api.dao.UserLoginDao;
 import io.lumeer.storage.api.dao.UserNotificationDao;
 import io.lumeer.storage.api.dao.ViewDao;
 import io.lumeer.storage.api.dao.context.DaoContextSnapshot;
+import io.lumeer.storage.mongodb.dao.collection.CollectionScopedDao;
 import io.lumeer.storage.mongodb.dao.collection.MongoDataDao;
 import io.lumeer.storage.mongodb.dao.collection.MongoLinkDataDao;
 import io.lumeer.storage.mongodb.dao.organization.MongoCompanyContactDao;
@@ -64,6 +65,8 @@ import io.lumeer.storage.mongodb.dao.system.MongoUserDao;
 import io.lumeer.storage.mongodb.dao.system.MongoUserLoginDao;
 import io.lumeer.storage.mongodb.dao.system.MongoUserNotificationDao;
 import io.lumeer.storage.mongodb.dao.system.SystemScopedDao;
+import io.lumeer.storage.mongodb.util.BackgroundIndexes;
+import io.lumeer.storage.mongodb.util.ParallelQueries;
 
 import com.mongodb.client.MongoDatabase;
 
@@ -80,10 +83,14 @@ public class MongoDaoContextSnapshot implements DaoContextSnapshot {
    final private MongoDatabase userDatabase;
    final private Organization organization;
    final private Project project;
+   final private ParallelQueries parallelQueries;
+   final private BackgroundIndexes backgroundIndexes;
 
-   MongoDaoContextSnapshot(final DataStorage systemDataStorage, final DataStorage userDataStorage, final SelectedWorkspace selectedWorkspace) {
+   MongoDaoContextSnapshot(final DataStorage systemDataStorage, final DataStorage userDataStorage, final SelectedWorkspace selectedWorkspace, final ParallelQueries parallelQueries, final BackgroundIndexes backgroundIndexes) {
       this.systemDatabase = (MongoDatabase) systemDataStorage.getDatabase();
       this.userDatabase = (MongoDatabase) userDataStorage.getDatabase();
+      this.parallelQueries = parallelQueries;
+      this.backgroundIndexes = backgroundIndexes;
 
       if (selectedWorkspace.getOrganization().isPresent()) {
          this.organization = selectedWorkspace.getOrganization().get();
@@ -111,11 +118,18 @@ public class MongoDaoContextSnapshot implements DaoContextSnapshot {
 
    private <T extends ProjectScopedDao> T initProjectScopedDao(T dao) {
       dao.setDatabase(userDatabase);
+      dao.setBackgroundIndexes(backgroundIndexes);
       dao.setOrganization(organization);
       dao.setProject(project);
       return dao;
    }
 
+   private <T extends CollectionScopedDao> T initCollectionScopedDao(T dao) {
+      initProjectScopedDao(dao);
+      dao.setParallelQueries(parallelQueries);
+      return dao;
+   }
+
    public String getOrganizationId() {
       return organization != null ? organization.getId() : null;
    }
@@ -146,7 +160,7 @@ public class MongoDaoContextSnapshot implements DaoContextSnapshot {
 
    @Override
    public DataDao getDataDao() {
-      return initProjectScopedDao(new MongoDataDao());
+      return initCollectionScopedDao(new MongoDataDao());
    }
 
    @Override
@@ -176,7 +190,7 @@ public class MongoDaoContextSnapshot implements DaoContextSnapshot {
 
    @Override
    public LinkDataDao getLinkDataDao() {
-      return initProjectScopedDao(new MongoLinkDataDao());
+      return initCollectionScopedDao(new MongoLinkDataDao());
    }
 
    @Override
@@ -24,6 +24,8 @@ import io.lumeer.engine.annotation.UserDataStorage;
 import io.lumeer.engine.api.data.DataStorage;
 import io.lumeer.storage.api.dao.context.DaoContextSnapshot;
 import io.lumeer.storage.api.dao.context.DaoContextSnapshotFactory;
+import io.lumeer.storage.mongodb.util.BackgroundIndexes;
+import io.lumeer.storage.mongodb.util.ParallelQueries;
 
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
@@ -45,8 +47,14 @@ public class MongoDaoContextSnapshotFactory implements DaoContextSnapshotFactory
    @Inject
    private SelectedWorkspace selectedWorkspace;
 
+   @Inject
+   private ParallelQueries parallelQueries;
+
+   @Inject
+   private BackgroundIndexes backgroundIndexes;
+
    @Override
    public DaoContextSnapshot getInstance() {
-      return new MongoDaoContextSnapshot(systemDataStorage, dataStorage, selectedWorkspace);
+      return new MongoDaoContextSnapshot(systemDataStorage, dataStorage, selectedWorkspace, parallelQueries, backgroundIndexes);
    }
 }
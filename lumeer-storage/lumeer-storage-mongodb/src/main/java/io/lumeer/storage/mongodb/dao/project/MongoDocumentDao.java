@@ -32,12 +32,16 @@ import io.lumeer.storage.mongodb.codecs.DocumentCodec;
 import io.lumeer.storage.mongodb.util.MongoFilters;
 
 import com.mongodb.MongoException;
+import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
 import com.mongodb.client.model.Filters;
 import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.IndexModel;
 import com.mongodb.client.model.IndexOptions;
 import com.mongodb.client.model.Indexes;
 import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.UpdateOneModel;
 import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
 
@@ -46,6 +50,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import javax.enterprise.context.RequestScoped;
 import javax.enterprise.event.Event;
@@ -65,6 +70,7 @@ public class MongoDocumentDao extends ProjectScopedDao implements DocumentDao {
 
       MongoCollection<org.bson.Document> collection = database.getCollection(databaseCollectionName(project));
       collection.createIndex(Indexes.ascending(DocumentCodec.COLLECTION_ID), new IndexOptions().unique(false));
+      collection.createIndex(parentIdIndex(), new IndexOptions().unique(false));
    }
 
    @Override
@@ -111,6 +117,24 @@ public class MongoDocumentDao extends ProjectScopedDao implements DocumentDao {
       }
    }
 
+   @Override
+   public List<Document> updateDocuments(final List<Document> documents) {
+      if (documents.isEmpty()) {
+         return Collections.emptyList();
+      }
+
+      try {
+         final List<UpdateOneModel<Document>> updates = documents.stream().map(document ->
+               new UpdateOneModel<Document>(idFilter(document.getId()), new org.bson.Document("$set", document).append("$inc", new org.bson.Document(DocumentCodec.DATA_VERSION, 1)))
+         ).collect(Collectors.toList());
+         databaseCollection().bulkWrite(updates, new BulkWriteOptions().ordered(false));
+
+         return getDocumentsByIds(documents.stream().map(Document::getId).toArray(String[]::new));
+      } catch (MongoException ex) {
+         throw new StorageException("Cannot update documents: " + documents, ex);
+      }
+   }
+
    @Override
    public void deleteDocument(final String id) {
       Document document = databaseCollection().findOneAndDelete(idFilter(id));
@@ -144,11 +168,18 @@ public class MongoDocumentDao extends ProjectScopedDao implements DocumentDao {
 
    @Override
    public List<Document> getDocumentsByIds(final String... ids) {
+      return getDocumentsByIds(null, ids);
+   }
+
+   @Override
+   public List<Document> getDocumentsByIds(final Set<String> fields, final String... ids) {
       Bson idsFilter = MongoFilters.idsFilter(Arrays.stream(ids).collect(Collectors.toSet()));
       if (idsFilter == null) {
          return Collections.emptyList();
       }
-      return databaseCollection().find(idsFilter).into(new ArrayList<>());
+      FindIterable<Document> iterable = databaseCollection().find(idsFilter);
+      addProjectionToQuery(iterable, fields);
+      return iterable.into(new ArrayList<>());
    }
 
    @Override
@@ -159,7 +190,9 @@ public class MongoDocumentDao extends ProjectScopedDao implements DocumentDao {
    @Override
    public List<Document> getDocumentsByParentIds(final Collection<String> parentIds) {
       Bson filter = parentIdsFilter(parentIds);
-      return databaseCollection().find(filter).into(new ArrayList<>());
+      MongoCollection<Document> collection = databaseCollection();
+      ensureIndexes(collection, Collections.singletonList(new IndexModel(parentIdIndex(), new IndexOptions().unique(false))));
+      return collection.find(filter).into(new ArrayList<>());
    }
 
    @Override
@@ -176,12 +209,23 @@ public class MongoDocumentDao extends ProjectScopedDao implements DocumentDao {
    }
 
    private Bson parentIdsFilter(Collection<String> parentIds) {
-      String field = MongoUtils.concatParams(DocumentCodec.META_DATA, Document.META_PARENT_ID);
-      return Filters.in(field, parentIds);
+      return Filters.in(parentIdField(), parentIds);
+   }
+
+   private static Bson parentIdIndex() {
+      return Indexes.ascending(parentIdField());
+   }
+
+   private static String parentIdField() {
+      return MongoUtils.concatParams(DocumentCodec.META_DATA, Document.META_PARENT_ID);
    }
 
    private String databaseCollectionName(Project project) {
-      return PREFIX + project.getId();
+      return databaseCollectionName(project.getId());
+   }
+
+   public static String databaseCollectionName(String projectId) {
+      return PREFIX + projectId;
    }
 
    String databaseCollectionName() {
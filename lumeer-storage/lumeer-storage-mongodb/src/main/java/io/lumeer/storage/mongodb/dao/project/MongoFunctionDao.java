@@ -69,6 +69,11 @@ public class MongoFunctionDao extends ProjectScopedDao implements FunctionDao {
       }
    }
 
+   @Override
+   public List<FunctionRow> getAllRows() {
+      return databaseCollection().find().into(new ArrayList<>());
+   }
+
    @Override
    public List<FunctionRow> searchByAnyCollection(final String collectionId, final String attributeId) {
       Bson filter = or(
@@ -31,21 +31,32 @@ import io.lumeer.storage.api.exception.StorageException;
 import io.lumeer.storage.api.query.SearchQuery;
 import io.lumeer.storage.api.query.SearchQueryStem;
 import io.lumeer.storage.mongodb.codecs.LinkInstanceCodec;
+import io.lumeer.storage.mongodb.codecs.LinkTypeCodec;
 
 import com.mongodb.MongoException;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
 import com.mongodb.client.model.Filters;
 import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.IndexModel;
 import com.mongodb.client.model.IndexOptions;
 import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
 import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
 import com.mongodb.client.result.DeleteResult;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -71,6 +82,17 @@ public class MongoLinkInstanceDao extends ProjectScopedDao implements LinkInstan
 
       MongoCollection<Document> projectCollection = database.getCollection(databaseCollectionName(project));
       projectCollection.createIndex(Indexes.ascending(LinkInstanceCodec.LINK_TYPE_ID), new IndexOptions().unique(false));
+      projectCollection.createIndexes(documentIdsIndexes());
+   }
+
+   /**
+    * Indexes for the lookups by document ids, the compound one serves queries restricted to link types.
+    */
+   private static List<IndexModel> documentIdsIndexes() {
+      return Arrays.asList(
+            new IndexModel(Indexes.ascending(LinkInstanceCodec.LINK_TYPE_ID, LinkInstanceCodec.DOCUMENTS_IDS), new IndexOptions().unique(false)),
+            new IndexModel(Indexes.ascending(LinkInstanceCodec.DOCUMENTS_IDS), new IndexOptions().unique(false))
+      );
    }
 
    @Override
@@ -82,6 +104,7 @@ public class MongoLinkInstanceDao extends ProjectScopedDao implements LinkInstan
    public LinkInstance createLinkInstance(final LinkInstance linkInstance) {
       try {
          databaseCollection().insertOne(linkInstance);
+         linkInstancesChanged(Collections.singletonList(linkInstance.getLinkTypeId()));
 
          return linkInstance;
       } catch (MongoException ex) {
@@ -98,6 +121,7 @@ public class MongoLinkInstanceDao extends ProjectScopedDao implements LinkInstan
    public List<LinkInstance> createLinkInstances(final List<LinkInstance> linkInstances, final boolean sendNotifications) {
       try {
          databaseCollection().insertMany(linkInstances);
+         linkInstancesChanged(linkTypeIds(linkInstances));
          if (sendNotifications && createLinkInstanceEvent != null) {
             linkInstances.forEach(linkInstance -> createLinkInstanceEvent.fire(new CreateLinkInstance(linkInstance)));
          }
@@ -112,7 +136,21 @@ public class MongoLinkInstanceDao extends ProjectScopedDao implements LinkInstan
       FindOneAndUpdateOptions options = new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER);
       try {
          Bson update = new Document("$set", linkInstance).append("$inc", new Document(LinkInstanceCodec.DATA_VERSION, 1));
-         LinkInstance updatedLinkInstance = databaseCollection().findOneAndUpdate(idFilter(id), update, options);
+         LinkInstance updatedLinkInstance = null;
+         if (linkInstance.getLinkTypeId() != null && linkInstance.getDocumentIds() != null) {
+            // the usual update keeps the link type and the documents, the version stays the same then
+            Bson sameLinkFilter = Filters.and(idFilter(id),
+                  Filters.eq(LinkInstanceCodec.LINK_TYPE_ID, linkInstance.getLinkTypeId()),
+                  Filters.eq(LinkInstanceCodec.DOCUMENTS_IDS, linkInstance.getDocumentIds()));
+            updatedLinkInstance = databaseCollection().findOneAndUpdate(sameLinkFilter, update, options);
+         }
+         if (updatedLinkInstance == null) {
+            LinkInstance originalLinkInstance = databaseCollection().find(idFilter(id)).first();
+            updatedLinkInstance = databaseCollection().findOneAndUpdate(idFilter(id), update, options);
+            if (originalLinkInstance != null) {
+               linkInstancesChanged(Arrays.asList(originalLinkInstance.getLinkTypeId(), linkInstance.getLinkTypeId()));
+            }
+         }
 
          if (updatedLinkInstance == null) {
             throw new StorageException("Link instance '" + id + "' has not been updated.");
@@ -130,6 +168,7 @@ public class MongoLinkInstanceDao extends ProjectScopedDao implements LinkInstan
       if (linkInstance == null) {
          throw new StorageException("Link instance '" + id + "' has not been deleted.");
       }
+      linkInstancesChanged(Collections.singletonList(linkInstance.getLinkTypeId()));
       if (removeLinkInstanceEvent != null) {
          removeLinkInstanceEvent.fire(new RemoveLinkInstance(linkInstance));
       }
@@ -139,12 +178,15 @@ public class MongoLinkInstanceDao extends ProjectScopedDao implements LinkInstan
    public void deleteLinkInstancesByLinkTypesIds(final Set<String> linkTypeIds) {
       Bson filter = Filters.in(LinkInstanceCodec.LINK_TYPE_ID, linkTypeIds);
       databaseCollection().deleteMany(filter);
+      linkInstancesChanged(linkTypeIds);
    }
 
    @Override
    public void deleteLinkInstancesByDocumentsIds(final Set<String> documentsIds) {
       Bson filter = Filters.in(LinkInstanceCodec.DOCUMENTS_IDS, documentsIds);
-      databaseCollection().deleteMany(filter);
+      Set<String> linkTypeIds = distinctLinkTypeIds(filter);
+      indexedCollection().deleteMany(filter);
+      linkInstancesChanged(linkTypeIds);
    }
 
    @Override
@@ -172,15 +214,24 @@ public class MongoLinkInstanceDao extends ProjectScopedDao implements LinkInstan
       return databaseCollection().find(Filters.in(LinkInstanceCodec.LINK_TYPE_ID, linkTypeIds)).into(new ArrayList<>());
    }
 
+   @Override
+   public List<LinkInstance> getLinkInstancesByLinkTypes(final Set<String> linkTypeIds, final String afterId, final int limit) {
+      Bson filter = Filters.in(LinkInstanceCodec.LINK_TYPE_ID, linkTypeIds);
+      if (afterId != null) {
+         filter = Filters.and(filter, Filters.gt(LinkInstanceCodec.ID, new ObjectId(afterId)));
+      }
+      return databaseCollection().find(filter).sort(Sorts.ascending(LinkInstanceCodec.ID)).limit(limit).into(new ArrayList<>());
+   }
+
    @Override
    public List<LinkInstance> getLinkInstancesByDocumentIds(final Set<String> documentIds, final String linkTypeId) {
       Bson filter = Filters.and(Filters.eq(LinkInstanceCodec.LINK_TYPE_ID, linkTypeId), Filters.in(LinkInstanceCodec.DOCUMENTS_IDS, documentIds));
-      return databaseCollection().find(filter).into(new ArrayList<>());
+      return indexedCollection().find(filter).into(new ArrayList<>());
    }
 
    @Override
    public List<LinkInstance> searchLinkInstances(final SearchQuery query) {
-      final FindIterable<LinkInstance> linkInstances = databaseCollection().find(linkInstancesFilter(query));
+      final FindIterable<LinkInstance> linkInstances = indexedCollection().find(linkInstancesFilter(query));
       addPaginationToQuery(linkInstances, query);
       return linkInstances.into(new ArrayList<>());
    }
@@ -211,16 +262,59 @@ public class MongoLinkInstanceDao extends ProjectScopedDao implements LinkInstan
          link.setId(ObjectId.get().toString());
       });
       databaseCollection().insertMany(links);
+      linkInstancesChanged(linkTypeIds(links));
 
       return links;
    }
 
    @Override
    public long deleteLinkInstances(final SearchQuery query) {
-      final DeleteResult deleteResult = databaseCollection().deleteMany(linkInstancesFilter(query));
+      final Bson filter = linkInstancesFilter(query);
+      final Set<String> linkTypeIds = distinctLinkTypeIds(filter);
+      final DeleteResult deleteResult = indexedCollection().deleteMany(filter);
+      linkInstancesChanged(linkTypeIds);
       return deleteResult.getDeletedCount();
    }
 
+   @Override
+   public long getLinkTypeVersion(final String linkTypeId) {
+      if (!ObjectId.isValid(linkTypeId)) {
+         return 0L;
+      }
+
+      Document linkType = linkTypesCollection().find(idFilter(linkTypeId))
+                                               .projection(Projections.include(LinkTypeCodec.LINK_INSTANCES_VERSION))
+                                               .first();
+      Number version = linkType != null ? linkType.get(LinkTypeCodec.LINK_INSTANCES_VERSION, Number.class) : null;
+      return version != null ? version.longValue() : 0L;
+   }
+
+   /**
+    * Increases the link instances version of each link type by the number of its occurrences, that is by one
+    * for every created or removed link instance, so that the version matches the count of the fired events.
+    */
+   private void linkInstancesChanged(final Collection<String> linkTypeIds) {
+      Map<String, Long> counts = linkTypeIds.stream()
+                                            .filter(linkTypeId -> linkTypeId != null && ObjectId.isValid(linkTypeId))
+                                            .collect(Collectors.groupingBy(linkTypeId -> linkTypeId, Collectors.counting()));
+      if (counts.isEmpty()) {
+         return;
+      }
+
+      List<UpdateOneModel<Document>> updates = counts.entrySet().stream()
+                                                     .map(entry -> new UpdateOneModel<Document>(idFilter(entry.getKey()), Updates.inc(LinkTypeCodec.LINK_INSTANCES_VERSION, entry.getValue())))
+                                                     .collect(Collectors.toList());
+      linkTypesCollection().bulkWrite(updates, new BulkWriteOptions().ordered(false));
+   }
+
+   private static List<String> linkTypeIds(final List<LinkInstance> linkInstances) {
+      return linkInstances.stream().map(LinkInstance::getLinkTypeId).collect(Collectors.toList());
+   }
+
+   private Set<String> distinctLinkTypeIds(final Bson filter) {
+      return indexedCollection().distinct(LinkInstanceCodec.LINK_TYPE_ID, filter, String.class).into(new HashSet<>());
+   }
+
    private Bson linkInstancesFilter(final SearchQuery query) {
       List<Bson> filters = new ArrayList<>();
       for (SearchQueryStem stem : query.getStems()) {
@@ -249,6 +343,28 @@ public class MongoLinkInstanceDao extends ProjectScopedDao implements LinkInstan
       return databaseCollectionName(getProject().get());
    }
 
+   @Override
+   public Map<String, Long> getIndexUsage() {
+      return getIndexUsage(indexedCollection());
+   }
+
+   /**
+    * Returns the collection after making sure that it has the document ids indexes, repositories created
+    * before they were introduced get them on first use.
+    */
+   private MongoCollection<LinkInstance> indexedCollection() {
+      MongoCollection<LinkInstance> collection = databaseCollection();
+      ensureIndexes(collection, documentIdsIndexes());
+      return collection;
+   }
+
+   private MongoCollection<Document> linkTypesCollection() {
+      if (!getProject().isPresent()) {
+         throw new ResourceNotFoundException(ResourceType.PROJECT);
+      }
+      return database.getCollection(MongoLinkTypeDao.databaseCollectionName(getProject().get()));
+   }
+
    MongoCollection<LinkInstance> databaseCollection() {
       return database.getCollection(databaseCollectionName(), LinkInstance.class);
    }
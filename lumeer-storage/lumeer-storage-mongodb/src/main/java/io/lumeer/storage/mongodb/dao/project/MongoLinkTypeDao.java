@@ -236,7 +236,7 @@ public class MongoLinkTypeDao extends ProjectScopedDao implements LinkTypeDao {
       return Filters.in(LinkTypeCodec.COLLECTION_IDS, Collections.singletonList(collectionId));
    }
 
-   private String databaseCollectionName(Project project) {
+   static String databaseCollectionName(Project project) {
       return PREFIX + project.getId();
    }
 
@@ -0,0 +1,84 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.storage.mongodb.util;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.IndexModel;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+/**
+ * Builds indexes added after the repositories had been created, so that existing projects get them on first use.
+ * The indexes are built in the background on the container managed executor, the requests that triggered
+ * the build do not wait for it and the collection stays available while it runs.
+ */
+@ApplicationScoped
+public class BackgroundIndexes {
+
+   private static final Logger log = Logger.getLogger(BackgroundIndexes.class.getName());
+
+   private static final Set<String> ensuredNamespaces = ConcurrentHashMap.newKeySet();
+
+   @Inject
+   private ManagedExecutorService executorService;
+
+   /**
+    * Starts building the indexes unless they were already ensured for the collection by this instance of the application.
+    *
+    * @param collection
+    *       Collection to create the indexes in.
+    * @param indexes
+    *       Indexes to create, existing ones are skipped by the database.
+    */
+   public void ensureIndexes(final MongoCollection<?> collection, final List<IndexModel> indexes) {
+      final String namespace = collection.getNamespace().getFullName();
+      if (ensuredNamespaces.add(namespace)) {
+         if (executorService != null) {
+            executorService.execute(() -> createIndexes(collection, indexes));
+         } else {
+            createIndexes(collection, indexes);
+         }
+      }
+   }
+
+   private static void createIndexes(final MongoCollection<?> collection, final List<IndexModel> indexes) {
+      final String namespace = collection.getNamespace().getFullName();
+      try {
+         collection.createIndexes(inBackground(indexes));
+      } catch (MongoException e) {
+         ensuredNamespaces.remove(namespace); // try again on the next use
+         log.log(Level.WARNING, "Cannot create indexes in " + namespace, e);
+      }
+   }
+
+   private static List<IndexModel> inBackground(final List<IndexModel> indexes) {
+      return indexes.stream()
+                    .map(index -> new IndexModel(index.getKeys(), index.getOptions().background(true)))
+                    .collect(Collectors.toList());
+   }
+}
@@ -100,6 +100,24 @@ public class MongoFilters {
       return Filters.in(PermissionCodec.ROLES, rolesStrings);
    }
 
+   /**
+    * Creates the fulltext filter either as a single {@code $text} query on the text index or as a substring match on the attributes.
+    * Each fulltext is searched as a phrase in the text index so that all of them have to match.
+    */
+   public static Bson createFilterForFulltexts(java.util.Collection<Attribute> attributes, Set<String> fulltexts, boolean useTextIndex) {
+      return useTextIndex ? createTextFilter(fulltexts) : createFilterForFulltexts(attributes, fulltexts);
+   }
+
+   public static Bson createTextFilter(Set<String> fulltexts) {
+      String search = fulltexts.stream()
+                               .map(fulltext -> fulltext.replace("\"", " ").trim())
+                               .filter(fulltext -> !fulltext.isEmpty())
+                               .map(fulltext -> "\"" + fulltext + "\"")
+                               .collect(Collectors.joining(" "));
+
+      return !search.isEmpty() ? Filters.text(search) : null;
+   }
+
    public static Bson createFilterForFulltexts(java.util.Collection<Attribute> attributes, Set<String> fulltexts) {
       List<Bson> filters = fulltexts.stream().map(fulltext -> createFilterForFulltext(attributes, fulltext))
                                     .filter(Objects::nonNull)
@@ -113,8 +131,9 @@ public class MongoFilters {
                                                 .filter(attr -> attr.getName().toLowerCase().contains(fulltext.toLowerCase()))
                                                 .collect(Collectors.toList());
 
+      Pattern pattern = Pattern.compile(fulltext, Pattern.CASE_INSENSITIVE);
       List<Bson> attrFilters = attributes.stream()
-                                         .map(attr -> Filters.regex(attr.getId(), Pattern.compile(fulltext, Pattern.CASE_INSENSITIVE)))
+                                         .map(attr -> Filters.regex(attr.getId(), pattern))
                                          .collect(Collectors.toList());
 
       Bson contentFilter = !attrFilters.isEmpty() ? Filters.or(attrFilters) : null;
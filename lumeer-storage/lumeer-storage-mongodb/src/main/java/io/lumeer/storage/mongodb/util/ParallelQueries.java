@@ -0,0 +1,119 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.storage.mongodb.util;
+
+import io.lumeer.storage.api.exception.StorageException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+/**
+ * Runs independent queries, typically one per collection or link type, in parallel on the container managed executor.
+ * At most a few workers are borrowed from the executor per call and the calling thread takes part in the work,
+ * so the queries complete even when the executor is busy with other requests.
+ * Queries must not depend on request scoped beans, the Mongo database and collections are safe to share.
+ */
+@ApplicationScoped
+public class ParallelQueries {
+
+   private static final int PARALLELISM = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+
+   @Inject
+   private ManagedExecutorService executorService;
+
+   /**
+    * Runs the query for every item and merges all the results in the order of the items.
+    *
+    * @param items
+    *       Items to run the query for.
+    * @param query
+    *       Query returning results for a single item.
+    * @param <T>
+    *       Type of the items.
+    * @param <R>
+    *       Type of the results.
+    * @return Results of all the queries.
+    */
+   public <T, R> List<R> forEach(final List<T> items, final Function<T, List<R>> query) {
+      if (items.isEmpty()) {
+         return Collections.emptyList();
+      }
+      if (items.size() == 1 || executorService == null) {
+         final List<R> results = new ArrayList<>();
+         items.forEach(item -> results.addAll(query.apply(item)));
+         return results;
+      }
+
+      final List<List<R>> itemResults = new ArrayList<>(Collections.nCopies(items.size(), null));
+      final AtomicInteger next = new AtomicInteger();
+      final Runnable worker = () -> {
+         int index;
+         while ((index = next.getAndIncrement()) < items.size()) {
+            try {
+               final List<R> result = query.apply(items.get(index));
+               synchronized (itemResults) {
+                  itemResults.set(index, result);
+               }
+            } catch (RuntimeException e) {
+               next.set(items.size()); // stop the other workers
+               throw e;
+            }
+         }
+      };
+
+      final List<FutureTask<Void>> tasks = new ArrayList<>();
+      for (int i = 1; i < Math.min(PARALLELISM, items.size()); i++) {
+         final FutureTask<Void> task = new FutureTask<>(worker, null);
+         tasks.add(task);
+         executorService.execute(task);
+      }
+
+      try {
+         worker.run();
+         for (final FutureTask<Void> task : tasks) {
+            task.run(); // no-op when the task is already running or done, otherwise it finds no work left
+            task.get();
+         }
+      } catch (ExecutionException e) {
+         if (e.getCause() instanceof RuntimeException) {
+            throw (RuntimeException) e.getCause();
+         }
+         throw new StorageException("Parallel query failed.", e.getCause());
+      } catch (InterruptedException e) {
+         next.set(items.size());
+         Thread.currentThread().interrupt();
+         throw new StorageException("Parallel query interrupted.", e);
+      }
+
+      final List<R> results = new ArrayList<>();
+      synchronized (itemResults) {
+         itemResults.forEach(results::addAll);
+      }
+
+      return results;
+   }
+}
@@ -25,19 +25,25 @@ import io.lumeer.api.model.Collection;
 import io.lumeer.api.model.ConditionType;
 import io.lumeer.api.model.Pagination;
 import io.lumeer.api.model.Permissions;
+import io.lumeer.api.model.Project;
 import io.lumeer.engine.api.data.DataDocument;
 import io.lumeer.storage.api.dao.CollectionDao;
 import io.lumeer.storage.api.filter.CollectionSearchAttributeFilter;
 import io.lumeer.storage.api.query.SearchQueryStem;
 import io.lumeer.storage.mongodb.MongoDbTestBase;
+import io.lumeer.storage.mongodb.codecs.DocumentCodec;
+import io.lumeer.storage.mongodb.dao.project.MongoDocumentDao;
 
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
 import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -47,6 +53,7 @@ public class MongoDataDaoTest extends MongoDbTestBase {
 
    private static final String COLLECTION_ID = "59a51b83d412bc2da88b010f";
    private static final String DOCUMENT_ID = "59a58ba7d412bc562eea2e6a";
+   private static final String PROJECT_ID = "59a51b83d412bc2da88b0100";
 
    private static final String USER = "notNeeded";
 
@@ -191,6 +198,25 @@ public class MongoDataDaoTest extends MongoDbTestBase {
       assertThat(dataDocument).containsEntry(KEY2, VALUE2);
    }
 
+   @Test
+   public void testGetDataDecodesNestedValues() {
+      Document document = new Document(KEY1, new Document(KEY2, Decimal128.parse("1.5")))
+            .append(KEY2, Arrays.asList(new Document(KEY3, VALUE1), new Document(KEY3, VALUE2)))
+            .append(KEY3, null);
+      dataCollection().insertOne(document);
+      String id = document.getObjectId("_id").toHexString();
+
+      DataDocument dataDocument = dataDao.getData(COLLECTION_ID, id);
+      assertThat(dataDocument.getId()).isEqualTo(id);
+      assertThat(dataDocument.getDataDocument(KEY1)).containsEntry(KEY2, new BigDecimal("1.5"));
+      assertThat(dataDocument.getArrayList(KEY2, DataDocument.class)).extracting(data -> data.getString(KEY3)).containsExactly(VALUE1, VALUE2);
+      assertThat(dataDocument).containsEntry(KEY3, null);
+
+      List<DataDocument> data = dataDao.getData(COLLECTION_ID, Collections.singleton(id));
+      assertThat(data).hasSize(1);
+      assertThat(data.get(0).get(KEY1)).isInstanceOf(DataDocument.class);
+   }
+
    @Test
    public void testGetSingleDataRecordNotExistingDocument() {
 
@@ -214,6 +240,24 @@ public class MongoDataDaoTest extends MongoDbTestBase {
       assertThat(data).extracting(DataDocument::getId).isEmpty();
    }
 
+   @Test
+   public void testSearchDataByTextIndex() {
+      dataDao.setFulltextSettings(() -> true);
+
+      Collection collection = collectionDao.getCollectionById(COLLECTION_ID);
+      createDocument(KEY1, "lala");
+      createDocument(KEY2, "fulltext");
+      String id3 = createDocument(KEY3, "something full");
+      String id4 = createDocument(KEY1, "full text, full words");
+
+      List<DataDocument> data = dataDao.searchDataByFulltexts(Collections.singleton("full"), null, Collections.singletonList(collection));
+      assertThat(data).extracting(DataDocument::getId).containsOnly(id3, id4);
+      assertThat(data).allMatch(dataDocument -> !dataDocument.containsKey(MongoDataDao.TEXT_SCORE));
+
+      data = dataDao.searchDataByFulltexts(new HashSet<>(Arrays.asList("FULL", "words")), null, Collections.singletonList(collection));
+      assertThat(data).extracting(DataDocument::getId).containsOnly(id4);
+   }
+
    @Test
    public void testSearchDataByFullTextsPagination() {
       Collection collection = collectionDao.getCollectionById(COLLECTION_ID);
@@ -254,6 +298,26 @@ public class MongoDataDaoTest extends MongoDbTestBase {
       assertThat(data).extracting(DataDocument::getId).containsOnly(id1, id3, id4);
    }
 
+   @Test
+   public void testSearchDataWithAttributeIds() {
+      Collection collection = collectionDao.getCollectionById(COLLECTION_ID);
+      String id = createDocument();
+
+      SearchQueryStem stem = SearchQueryStem.createBuilder(COLLECTION_ID)
+                                            .attributeIds(Collections.singleton(KEY2))
+                                            .build();
+      List<DataDocument> data = dataDao.searchData(stem, null, collection);
+      assertThat(data).extracting(DataDocument::getId).containsOnly(id);
+      assertThat(data.get(0)).containsEntry(KEY2, VALUE2).doesNotContainKey(KEY1);
+
+      data = dataDao.getData(COLLECTION_ID, Collections.singleton(id), Collections.emptySet());
+      assertThat(data).extracting(DataDocument::getId).containsOnly(id);
+      assertThat(data.get(0)).doesNotContainKeys(KEY1, KEY2);
+
+      data = dataDao.getData(COLLECTION_ID, Collections.singleton(id), null);
+      assertThat(data.get(0)).containsEntry(KEY1, VALUE1).containsEntry(KEY2, VALUE2);
+   }
+
    @Test
    public void testSearchDataByFilters() {
       Collection collection = collectionDao.getCollectionById(COLLECTION_ID);
@@ -304,6 +368,103 @@ public class MongoDataDaoTest extends MongoDbTestBase {
       assertThat(data).extracting(DataDocument::getId).isEmpty();
    }
 
+   @Test
+   public void testSearchDocuments() {
+      Project project = Mockito.mock(Project.class);
+      Mockito.when(project.getId()).thenReturn(PROJECT_ID);
+      dataDao.setProject(project);
+
+      Collection collection = collectionDao.getCollectionById(COLLECTION_ID);
+      String id1 = createDocument(KEY1, VALUE1);
+      String id2 = createDocument(KEY1, VALUE2);
+      createDocument(KEY1, VALUE1); // data without a document
+
+      MongoCollection<Document> documents = database.getCollection(MongoDocumentDao.databaseCollectionName(PROJECT_ID));
+      documents.insertOne(new Document(DocumentCodec.ID, new ObjectId(id1)).append(DocumentCodec.COLLECTION_ID, COLLECTION_ID));
+      documents.insertOne(new Document(DocumentCodec.ID, new ObjectId(id2)).append(DocumentCodec.COLLECTION_ID, COLLECTION_ID));
+
+      SearchQueryStem stem = SearchQueryStem.createBuilder(COLLECTION_ID).build();
+      List<io.lumeer.api.model.Document> result = dataDao.searchDocuments(stem, null, collection);
+      assertThat(result).extracting(io.lumeer.api.model.Document::getId).containsOnly(id1, id2);
+      assertThat(result).allMatch(document -> COLLECTION_ID.equals(document.getCollectionId()));
+      assertThat(result).extracting(document -> document.getData().getString(KEY1)).containsOnly(VALUE1, VALUE2);
+
+      SearchQueryStem idsStem = SearchQueryStem.createBuilder(COLLECTION_ID)
+                                               .documentIds(Collections.singleton(id2))
+                                               .build();
+      result = dataDao.searchDocuments(idsStem, new Pagination(0, 10), collection);
+      assertThat(result).extracting(io.lumeer.api.model.Document::getId).containsOnly(id2);
+   }
+
+   @Test
+   public void testSearchDocumentsAfter() {
+      Project project = Mockito.mock(Project.class);
+      Mockito.when(project.getId()).thenReturn(PROJECT_ID);
+      dataDao.setProject(project);
+
+      Collection collection = collectionDao.getCollectionById(COLLECTION_ID);
+      String id1 = createDocument(KEY1, VALUE1);
+      String id2 = createDocument(KEY1, VALUE2);
+      String id3 = createDocument(KEY1, VALUE1);
+
+      MongoCollection<Document> documents = database.getCollection(MongoDocumentDao.databaseCollectionName(PROJECT_ID));
+      for (String id : Arrays.asList(id1, id2, id3)) {
+         documents.insertOne(new Document(DocumentCodec.ID, new ObjectId(id)).append(DocumentCodec.COLLECTION_ID, COLLECTION_ID));
+      }
+
+      List<io.lumeer.api.model.Document> page = dataDao.searchDocumentsAfter(null, 2, Collections.singletonList(collection));
+      assertThat(page).extracting(io.lumeer.api.model.Document::getId).containsExactly(id1, id2);
+
+      page = dataDao.searchDocumentsAfter(id2, 2, Collections.singletonList(collection));
+      assertThat(page).extracting(io.lumeer.api.model.Document::getId).containsExactly(id3);
+      assertThat(page.get(0).getData().getString(KEY1)).isEqualTo(VALUE1);
+   }
+
+   @Test
+   public void testSearchDocumentsAfterWithOrphanedData() {
+      Project project = Mockito.mock(Project.class);
+      Mockito.when(project.getId()).thenReturn(PROJECT_ID);
+      dataDao.setProject(project);
+
+      Collection collection = collectionDao.getCollectionById(COLLECTION_ID);
+      createDocument(KEY1, VALUE1); // data without a document
+      createDocument(KEY1, VALUE2); // data without a document
+      String id1 = createDocument(KEY1, VALUE1);
+      String id2 = createDocument(KEY1, VALUE2);
+      String id3 = createDocument(KEY1, VALUE1);
+
+      MongoCollection<Document> documents = database.getCollection(MongoDocumentDao.databaseCollectionName(PROJECT_ID));
+      for (String id : Arrays.asList(id1, id2, id3)) {
+         documents.insertOne(new Document(DocumentCodec.ID, new ObjectId(id)).append(DocumentCodec.COLLECTION_ID, COLLECTION_ID));
+      }
+
+      List<io.lumeer.api.model.Document> page = dataDao.searchDocumentsAfter(null, 2, Collections.singletonList(collection));
+      assertThat(page).extracting(io.lumeer.api.model.Document::getId).containsExactly(id1, id2);
+
+      page = dataDao.searchDocumentsAfter(id2, 2, Collections.singletonList(collection));
+      assertThat(page).extracting(io.lumeer.api.model.Document::getId).containsExactly(id3);
+   }
+
+   @Test
+   public void testSearchDocumentsByEmptyQueryWithAttributes() {
+      Project project = Mockito.mock(Project.class);
+      Mockito.when(project.getId()).thenReturn(PROJECT_ID);
+      dataDao.setProject(project);
+
+      Collection collection = collectionDao.getCollectionById(COLLECTION_ID);
+      String id = createDocument();
+
+      MongoCollection<Document> documents = database.getCollection(MongoDocumentDao.databaseCollectionName(PROJECT_ID));
+      documents.insertOne(new Document(DocumentCodec.ID, new ObjectId(id)).append(DocumentCodec.COLLECTION_ID, COLLECTION_ID));
+
+      List<io.lumeer.api.model.Document> result = dataDao.searchDocumentsByEmptyQuery(new Pagination(0, 10), Collections.singletonList(collection), Collections.singletonMap(COLLECTION_ID, Collections.singleton(KEY1)));
+      assertThat(result).extracting(io.lumeer.api.model.Document::getId).containsOnly(id);
+      assertThat(result.get(0).getData()).containsKey(KEY1).doesNotContainKey(KEY2);
+
+      result = dataDao.searchDocumentsByEmptyQuery(new Pagination(0, 10), Collections.singletonList(collection), Collections.emptyMap());
+      assertThat(result.get(0).getData()).containsKeys(KEY1, KEY2);
+   }
+
    private MongoCollection<Document> dataCollection() {
       return dataDao.dataCollection(COLLECTION_ID);
    }
@@ -31,11 +31,17 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class MongoLinkDataDaoTest extends MongoDbTestBase {
 
    private static final String LINK_TYPE_ID = "59a51b83d412bc2da88b010f";
+   private static final String LINK_TYPE_ID2 = "59a51b83d412bc2da88b0110";
    private static final String LINK_INSTANCE_ID = "59a58ba7d412bc562eea2e6a";
    private static final String LINK_INSTANCE_ID2 = "59a58ba7d412bc562eea2e6b";
    private static final String LINK_INSTANCE_ID3 = "59a58ba7d412bc562eea2e6c";
@@ -76,6 +82,22 @@ public class MongoLinkDataDaoTest extends MongoDbTestBase {
       assertThat(storedData).containsEntry("k2", "v2");
    }
 
+   @Test
+   public void testGetDataOfMultipleLinkTypes() {
+      dataDao.createDataRepository(LINK_TYPE_ID2);
+      dataDao.createData(LINK_TYPE_ID, LINK_INSTANCE_ID, new DataDocument().append("k1", "v1"));
+      dataDao.createData(LINK_TYPE_ID, LINK_INSTANCE_ID2, new DataDocument().append("k1", "v2"));
+      dataDao.createData(LINK_TYPE_ID2, LINK_INSTANCE_ID3, new DataDocument().append("k1", "v3"));
+
+      Map<String, Set<String>> ids = new HashMap<>();
+      ids.put(LINK_TYPE_ID, Collections.singleton(LINK_INSTANCE_ID));
+      ids.put(LINK_TYPE_ID2, Collections.singleton(LINK_INSTANCE_ID3));
+
+      List<DataDocument> data = dataDao.getData(ids);
+      assertThat(data).extracting(DataDocument::getId).containsOnly(LINK_INSTANCE_ID, LINK_INSTANCE_ID3);
+      assertThat(data).extracting(dataDocument -> dataDocument.getString("k1")).containsOnly("v1", "v3");
+   }
+
    @Test
    public void testUpdateData() {
       DataDocument data = new DataDocument().append("k1", "v1").append("k2", "v2");
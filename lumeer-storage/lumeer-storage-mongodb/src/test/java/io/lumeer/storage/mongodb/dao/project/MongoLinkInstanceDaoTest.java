@@ -27,7 +27,10 @@ import io.lumeer.storage.api.exception.StorageException;
 import io.lumeer.storage.api.query.SearchQuery;
 import io.lumeer.storage.api.query.SearchQueryStem;
 import io.lumeer.storage.mongodb.MongoDbTestBase;
+import io.lumeer.storage.mongodb.codecs.LinkInstanceCodec;
+import io.lumeer.storage.mongodb.codecs.LinkTypeCodec;
 
+import org.bson.Document;
 import org.bson.types.ObjectId;
 import org.junit.Before;
 import org.junit.Test;
@@ -258,6 +261,60 @@ public class MongoLinkInstanceDaoTest extends MongoDbTestBase {
       assertThat(linkInstances).extracting("id").containsOnlyElementsOf(Collections.singletonList(id4));
    }
 
+   @Test
+   public void testLookupByDocumentIdsUsesIndex() {
+      linkInstanceDao.createLinkInstance(prepareLinkInstance());
+      linkInstanceDao.createLinkInstance(new LinkInstance(LINK_TYPE_ID2, Arrays.asList(DOCUMENT_ID3, DOCUMENT_ID4)));
+
+      assertThat(linkInstanceDao.getLinkInstancesByDocumentIds(Collections.singleton(DOCUMENT_ID1), LINK_TYPE_ID1)).hasSize(1);
+
+      Document filter = new Document(LinkInstanceCodec.LINK_TYPE_ID, LINK_TYPE_ID1)
+            .append(LinkInstanceCodec.DOCUMENTS_IDS, new Document("$in", Collections.singletonList(DOCUMENT_ID1)));
+      Document explain = database.runCommand(new Document("explain", new Document("find", linkInstanceDao.databaseCollectionName()).append("filter", filter)));
+      String winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class).toJson();
+      assertThat(winningPlan).contains("IXSCAN").doesNotContain("COLLSCAN");
+
+      Map<String, Long> usage = linkInstanceDao.getIndexUsage();
+      assertThat(usage).containsKeys("linkTypeId_1", "linkTypeId_1_documentIds_1", "documentIds_1");
+   }
+
+   @Test
+   public void testLinkTypeVersion() {
+      for (String linkTypeId : Arrays.asList(LINK_TYPE_ID1, LINK_TYPE_ID2, LINK_TYPE_ID3)) {
+         database.getCollection(MongoLinkTypeDao.databaseCollectionName(project)).insertOne(new Document(LinkTypeCodec.ID, new ObjectId(linkTypeId)));
+      }
+
+      long version = linkInstanceDao.getLinkTypeVersion(LINK_TYPE_ID1);
+      LinkInstance created = linkInstanceDao.createLinkInstance(prepareLinkInstance());
+      assertThat(linkInstanceDao.getLinkTypeVersion(LINK_TYPE_ID1)).isEqualTo(version + 1);
+
+      version = linkInstanceDao.getLinkTypeVersion(LINK_TYPE_ID1);
+      List<LinkInstance> createdLinks = linkInstanceDao.createLinkInstances(Arrays.asList(prepareLinkInstance(), prepareLinkInstance()), false);
+      assertThat(linkInstanceDao.getLinkTypeVersion(LINK_TYPE_ID1)).isEqualTo(version + 2);
+      linkInstanceDao.deleteLinkInstance(createdLinks.get(0).getId());
+      assertThat(linkInstanceDao.getLinkTypeVersion(LINK_TYPE_ID1)).isEqualTo(version + 3);
+
+      version = linkInstanceDao.getLinkTypeVersion(LINK_TYPE_ID1);
+      linkInstanceDao.updateLinkInstance(created.getId(), prepareLinkInstance());
+      assertThat(linkInstanceDao.getLinkTypeVersion(LINK_TYPE_ID1)).isEqualTo(version);
+
+      LinkInstance moved = new LinkInstance(LINK_TYPE_ID2, Arrays.asList(DOCUMENT_ID1, DOCUMENT_ID3));
+      long otherVersion = linkInstanceDao.getLinkTypeVersion(LINK_TYPE_ID2);
+      linkInstanceDao.updateLinkInstance(created.getId(), moved);
+      assertThat(linkInstanceDao.getLinkTypeVersion(LINK_TYPE_ID1)).isGreaterThan(version);
+      assertThat(linkInstanceDao.getLinkTypeVersion(LINK_TYPE_ID2)).isGreaterThan(otherVersion);
+
+      otherVersion = linkInstanceDao.getLinkTypeVersion(LINK_TYPE_ID2);
+      linkInstanceDao.deleteLinkInstancesByDocumentsIds(Collections.singleton(DOCUMENT_ID3));
+      assertThat(linkInstanceDao.getLinkTypeVersion(LINK_TYPE_ID2)).isGreaterThan(otherVersion);
+
+      linkInstanceDao.createLinkInstances(Collections.singletonList(new LinkInstance(LINK_TYPE_ID3, Arrays.asList(DOCUMENT_ID4, DOCUMENT_ID5))), false);
+      long thirdVersion = linkInstanceDao.getLinkTypeVersion(LINK_TYPE_ID3);
+      SearchQueryStem stem = SearchQueryStem.createBuilder("Collection").documentIds(Collections.singleton(DOCUMENT_ID5)).build();
+      linkInstanceDao.deleteLinkInstances(SearchQuery.createBuilder(USER).stems(Collections.singletonList(stem)).build());
+      assertThat(linkInstanceDao.getLinkTypeVersion(LINK_TYPE_ID3)).isGreaterThan(thirdVersion);
+   }
+
    private LinkInstance prepareLinkInstance() {
       return new LinkInstance(LINK_TYPE_ID1, Arrays.asList(DOCUMENT_ID1, DOCUMENT_ID2));
    }
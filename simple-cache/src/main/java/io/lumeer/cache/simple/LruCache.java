@@ -0,0 +1,181 @@
+/*
+ * Lumeer: Modern Data Definition and Processing Platform
+ *
+ * Copyright (C) since 2017 Lumeer.io, s.r.o. and/or its affiliates.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.lumeer.cache.simple;
+
+import io.lumeer.engine.api.cache.Cache;
+import io.lumeer.engine.api.cache.CacheConfiguration;
+import io.lumeer.engine.api.cache.StripedLocks;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Cache honoring the bounds and expiration of its configuration. All entries are guarded by a single lock,
+ * the least recently used ones are evicted first and expired entries are dropped on access.
+ *
+ * @param <T> Type of the cached values.
+ */
+public class LruCache<T> implements Cache<T> {
+
+   private final LinkedHashMap<String, Entry<T>> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+   private final long maximumWeight;
+   private final ToIntFunction<Object> weigher;
+   private final long expireAfterWrite;
+   private final long expireAfterAccess;
+   private long weight = 0;
+
+   private final StripedLocks locks = new StripedLocks();
+
+   public LruCache(final CacheConfiguration configuration) {
+      this.maximumWeight = Math.max(0, configuration.getMaximumWeight());
+      this.weigher = configuration.getWeigher();
+      this.expireAfterWrite = TimeUnit.MILLISECONDS.toNanos(Math.max(0, configuration.getExpireAfterWrite()));
+      this.expireAfterAccess = TimeUnit.MILLISECONDS.toNanos(Math.max(0, configuration.getExpireAfterAccess()));
+   }
+
+   @Override
+   public synchronized T get(final String key) {
+      final Entry<T> entry = cache.get(key);
+      if (entry == null) {
+         return null;
+      }
+
+      final long now = System.nanoTime();
+      if (isExpired(entry, now)) {
+         removeEntry(key);
+         return null;
+      }
+
+      entry.accessTime = now;
+      return entry.value;
+   }
+
+   /**
+    * Gets a value from the cache or computes a new one. The function is not called under the lock,
+    * so it can be called concurrently for the same key. The first stored value wins.
+    */
+   @Override
+   public T computeIfAbsent(final String key, final Function<String, T> fce) {
+      final T value = get(key);
+      if (value != null) {
+         return value;
+      }
+
+      final T newValue = fce.apply(key);
+      if (newValue == null) {
+         return null;
+      }
+
+      synchronized (this) {
+         final T existing = get(key);
+         if (existing != null) {
+            return existing;
+         }
+
+         set(key, newValue);
+         return newValue;
+      }
+   }
+
+   @Override
+   public synchronized void set(final String key, final T t) {
+      removeEntry(key);
+      if (t == null) {
+         return;
+      }
+
+      final int entryWeight = Math.max(0, weigher.applyAsInt(t));
+      if (entryWeight > maximumWeight) {
+         return;
+      }
+
+      cache.put(key, new Entry<>(t, entryWeight, System.nanoTime()));
+      weight += entryWeight;
+
+      final Iterator<Entry<T>> eldest = cache.values().iterator();
+      while (weight > maximumWeight && eldest.hasNext()) {
+         weight -= eldest.next().weight;
+         eldest.remove();
+      }
+   }
+
+   @Override
+   public synchronized T remove(final String key) {
+      final Entry<T> entry = removeEntry(key);
+
+      return entry != null ? entry.value : null;
+   }
+
+   @Override
+   public void lock(final String key) {
+      locks.lock(key);
+   }
+
+   @Override
+   public void unlock(final String key) {
+      locks.unlock(key);
+   }
+
+   @Override
+   public boolean tryLock(final String key) {
+      return locks.tryLock(key);
+   }
+
+   @Override
+   public synchronized void clear() {
+      cache.clear();
+      weight = 0;
+   }
+
+   synchronized int size() {
+      return cache.size();
+   }
+
+   private Entry<T> removeEntry(final String key) {
+      final Entry<T> entry = cache.remove(key);
+      if (entry != null) {
+         weight -= entry.weight;
+      }
+
+      return entry;
+   }
+
+   private boolean isExpired(final Entry<T> entry, final long now) {
+      return (expireAfterWrite > 0 && now - entry.writeTime >= expireAfterWrite) || (expireAfterAccess > 0 && now - entry.accessTime >= expireAfterAccess);
+   }
+
+   private static final class Entry<T> {
+      private final T value;
+      private final int weight;
+      private final long writeTime;
+      private long accessTime;
+
+      private Entry(final T value, final int weight, final long now) {
+         this.value = value;
+         this.weight = weight;
+         this.writeTime = now;
+         this.accessTime = now;
+      }
+   }
+}
@@ -19,11 +19,10 @@
 package io.lumeer.cache.simple;
 
 import io.lumeer.engine.api.cache.Cache;
+import io.lumeer.engine.api.cache.StripedLocks;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 
 /**
@@ -33,7 +32,7 @@ public class SimpleCache<T> implements Cache<T> {
 
    private Map<String, T> cache = new ConcurrentHashMap<>();
 
-   private Map<String, Lock> locks = new ConcurrentHashMap<>();
+   private final StripedLocks locks = new StripedLocks();
 
    @Override
    public T get(final String key) {
@@ -57,29 +56,21 @@ public class SimpleCache<T> implements Cache<T> {
 
    @Override
    public void lock(final String key) {
-      final Lock l = locks.computeIfAbsent(key, k -> new ReentrantLock());
-      l.lock();
+      locks.lock(key);
    }
 
    @Override
    public void unlock(final String key) {
-      final Lock l = locks.get(key);
-
-      if (l != null) {
-         l.unlock();
-      }
+      locks.unlock(key);
    }
 
    @Override
    public boolean tryLock(final String key) {
-      final Lock l = locks.computeIfAbsent(key, k -> new ReentrantLock());
-
-      return l.tryLock();
+      return locks.tryLock(key);
    }
 
    @Override
    public void clear() {
       cache.clear();
-      locks.clear();
    }
 }
@@ -19,6 +19,7 @@
 package io.lumeer.core.facade;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import io.lumeer.api.model.Attribute;
 import io.lumeer.api.model.Collection;
@@ -34,11 +35,13 @@ import io.lumeer.api.model.Permissions;
 import io.lumeer.api.model.Project;
 import io.lumeer.api.model.Query;
 import io.lumeer.api.model.QueryStem;
+import io.lumeer.api.model.ResultPage;
 import io.lumeer.api.model.Role;
 import io.lumeer.api.model.User;
 import io.lumeer.core.WorkspaceKeeper;
 import io.lumeer.core.auth.AuthenticatedUser;
 import io.lumeer.core.constraint.ConstraintManager;
+import io.lumeer.core.exception.BadFormatException;
 import io.lumeer.core.facade.configuration.DefaultConfigurationProducer;
 import io.lumeer.engine.IntegrationTestBase;
 import io.lumeer.engine.api.data.DataDocument;
@@ -64,7 +67,9 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 
@@ -189,6 +194,30 @@ public class SearchFacadeIT extends IntegrationTestBase {
       assertThat(documents).extracting(Document::getId).containsOnly(id1, id2, id3, id4, id5, id6);
    }
 
+   @Test
+   public void testSearchDocumentsPageByEmptyQuery() {
+      List<String> ids = new ArrayList<>();
+      for (int i = 0; i < 5; i++) {
+         ids.add(createDocument(collectionIds.get(i % 3), "doc" + i).getId());
+      }
+      Collections.sort(ids);
+
+      ResultPage<Document> page = searchFacade.searchDocuments(new Query(), null, 3);
+      assertThat(page.getData()).extracting(Document::getId).containsExactlyElementsOf(ids.subList(0, 3));
+
+      page = searchFacade.searchDocuments(new Query(), page.getNext(), 3);
+      assertThat(page.getData()).extracting(Document::getId).containsExactlyElementsOf(ids.subList(3, 5));
+      assertThat(page.getNext()).isNull();
+   }
+
+   @Test
+   public void testSearchDocumentsPageByStemsIsRejected() {
+      Query query = new Query(Collections.singletonList(new QueryStem(collectionIds.get(0))));
+
+      assertThatThrownBy(() -> searchFacade.searchDocuments(query, null, 3))
+            .isInstanceOf(BadFormatException.class);
+   }
+
    @Test
    public void testSearchDocumentsByCollectionIds() {
       String id1 = createDocument(collectionIds.get(0), "doc1").getId();
@@ -404,6 +433,33 @@ public class SearchFacadeIT extends IntegrationTestBase {
       assertThat(documents).extracting(Document::getId).containsOnly(id1, id2);
    }
 
+   @Test
+   public void testSearchDocumentsWithAttributeIdsOfTwoCollections() {
+      String id1 = createDocument(collectionIds.get(0), "lumeer").getId();
+      String id2 = createDocument(collectionIds.get(1), "lol").getId();
+      String linkTypeId = linkTypeDao.createLinkType(new LinkType("lmr",
+            Arrays.asList(collectionIds.get(0), collectionIds.get(1)), Collections.emptyList())).getId();
+      createLinkInstance(linkTypeId, Arrays.asList(id1, id2));
+
+      // both collections use the same attribute id, the projection must not leak from one to the other
+      Map<String, Set<String>> attributeIds = Map.of(collectionIds.get(0), Collections.singleton(DOCUMENT_KEY), collectionIds.get(1), Collections.emptySet());
+
+      QueryStem stem1 = new QueryStem(collectionIds.get(0));
+      QueryStem stem2 = new QueryStem(collectionIds.get(1));
+      Query query = new Query(Arrays.asList(stem1, stem2), Collections.emptySet(), null, null, attributeIds);
+      Map<String, Document> documents = searchFacade.searchDocuments(query).stream().collect(Collectors.toMap(Document::getId, Function.identity()));
+      assertThat(documents).containsOnlyKeys(id1, id2);
+      assertThat(documents.get(id1).getData()).containsEntry(DOCUMENT_KEY, "lumeer");
+      assertThat(documents.get(id2).getData()).doesNotContainKey(DOCUMENT_KEY);
+
+      QueryStem linkStem = new QueryStem(collectionIds.get(0), Collections.singletonList(linkTypeId), Collections.emptySet(), Collections.emptySet(), Collections.emptySet());
+      query = new Query(Collections.singletonList(linkStem), Collections.emptySet(), null, null, attributeIds);
+      documents = searchFacade.searchDocuments(query).stream().collect(Collectors.toMap(Document::getId, Function.identity()));
+      assertThat(documents).containsOnlyKeys(id1, id2);
+      assertThat(documents.get(id1).getData()).containsEntry(DOCUMENT_KEY, "lumeer");
+      assertThat(documents.get(id2).getData()).doesNotContainKey(DOCUMENT_KEY);
+   }
+
    private void createLinkInstance(String linkTypeId, List<String> documentIds){
       final LinkInstance linkInstance = linkInstanceDao.createLinkInstance(new LinkInstance(linkTypeId, documentIds));
       linkDataDao.createData(linkTypeId, linkInstance.getId(), new DataDocument());
@@ -472,6 +528,21 @@ public class SearchFacadeIT extends IntegrationTestBase {
       assertThat(parents).containsAll(ids);
    }
 
+   @Test
+   public void testDeepChildDocuments() {
+      final Document root = createDocument(collectionIds.get(0), "l0");
+      Document parent = root;
+      for (int i = 1; i <= SearchFacade.MAX_HIERARCHY_DEPTH + 5; i++) {
+         parent = createDocument(collectionIds.get(0), "l" + i, parent.getId());
+      }
+
+      Query query = new Query(new QueryStem(collectionIds.get(0), Collections.emptyList(), Collections.singleton(root.getId()), Collections.emptySet(), Collections.emptySet()));
+      List<Document> documents = searchFacade.searchDocuments(query);
+
+      assertThat(documents).hasSize(SearchFacade.MAX_HIERARCHY_DEPTH + 1);
+      assertThat(documents).extracting(d -> d.getData().getString(DOCUMENT_KEY)).contains("l0", "l" + SearchFacade.MAX_HIERARCHY_DEPTH);
+   }
+
    private Document createDocument(String collectionId, Object value) {
       Collection collection = collectionDao.getCollectionById(collectionId);
       final String id = DOCUMENT_KEY; // use the same document id for simplicity in tests
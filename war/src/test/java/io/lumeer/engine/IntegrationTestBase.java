@@ -18,6 +18,9 @@
  */
 package io.lumeer.engine;
 
+import io.lumeer.core.cache.LinkGraphCache;
+import io.lumeer.core.cache.PermissionIndexCache;
+import io.lumeer.core.cache.QueryPlanCache;
 import io.lumeer.core.cache.UserCache;
 import io.lumeer.core.cache.WorkspaceCache;
 import io.lumeer.engine.annotation.SystemDataStorage;
@@ -55,6 +58,15 @@ public abstract class IntegrationTestBase {
    @Inject
    public WorkspaceCache workspaceCache;
 
+   @Inject
+   public PermissionIndexCache permissionIndexCache;
+
+   @Inject
+   public LinkGraphCache linkGraphCache;
+
+   @Inject
+   public QueryPlanCache queryPlanCache;
+
    @Deployment
    public static Archive<?> createTestArchive() {
       return ShrinkWrap.create(WebArchive.class, ARCHIVE_NAME)
@@ -108,5 +120,8 @@ public abstract class IntegrationTestBase {
    public void clearCaches() {
       userCache.clear();
       workspaceCache.clear();
+      permissionIndexCache.clear();
+      linkGraphCache.clear();
+      queryPlanCache.clear();
    }
 }